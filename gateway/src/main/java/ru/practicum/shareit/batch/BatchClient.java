@@ -0,0 +1,27 @@
+package ru.practicum.shareit.batch;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+import ru.practicum.shareit.batch.dto.BatchOperationDto;
+import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.BaseClientSupport;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+@Service
+public class BatchClient extends BaseClient {
+
+    private static final String CLIENT_NAME = "batch";
+    private static final String API_PREFIX = "/batch";
+
+    @Autowired
+    public BatchClient(BaseClientSupport support) {
+        super(API_PREFIX, CLIENT_NAME, support);
+    }
+
+    public CompletableFuture<ResponseEntity<byte[]>> execute(Long userId, List<BatchOperationDto> operations) {
+        return post("", userId, null, operations);
+    }
+}
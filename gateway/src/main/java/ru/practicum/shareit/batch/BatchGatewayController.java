@@ -0,0 +1,29 @@
+package ru.practicum.shareit.batch;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.*;
+import ru.practicum.shareit.batch.dto.BatchOperationDto;
+
+import javax.validation.Valid;
+import javax.validation.constraints.NotEmpty;
+import javax.validation.constraints.Size;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+@Validated
+@RestController
+@RequestMapping("/batch")
+@RequiredArgsConstructor
+public class BatchGatewayController {
+
+    private final BatchClient batchClient;
+
+    @PostMapping
+    public CompletableFuture<ResponseEntity<byte[]>> execute(
+            @RequestHeader(value = "X-Sharer-User-Id", required = false) Long userId,
+            @RequestBody @NotEmpty @Size(max = 20) List<@Valid BatchOperationDto> operations) {
+        return batchClient.execute(userId, operations);
+    }
+}
@@ -0,0 +1,18 @@
+package ru.practicum.shareit.batch.dto;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import javax.validation.constraints.NotBlank;
+import javax.validation.constraints.Pattern;
+
+@Getter
+@Setter
+public class BatchOperationDto {
+    private String id;
+    @Pattern(regexp = "GET", message = "В пакете поддерживаются только GET-запросы")
+    private String method = "GET";
+    @NotBlank(message = "Поле path не может быть пустым")
+    @Pattern(regexp = "/.*", message = "Поле path должно начинаться с /")
+    private String path;
+}
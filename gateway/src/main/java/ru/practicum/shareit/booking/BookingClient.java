@@ -1,62 +1,81 @@
 package ru.practicum.shareit.booking;
 
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.lang.Nullable;
 import org.springframework.stereotype.Service;
-import org.springframework.web.util.DefaultUriBuilderFactory;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.BaseClientSupport;
 
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 @Service
 public class BookingClient extends BaseClient {
 
+    private static final String CLIENT_NAME = "bookings";
     private static final String API_PREFIX = "/bookings";
 
     @Autowired
-    public BookingClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
-        super(
-                builder
-                        .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                        .build()
-        );
+    public BookingClient(BaseClientSupport support) {
+        super(API_PREFIX, CLIENT_NAME, support);
     }
 
-    public <T> ResponseEntity<Object> createBooking(long userId, BookingDto bookingDto) {
-        return post("", userId, bookingDto);
+    public <T> CompletableFuture<ResponseEntity<byte[]>> createBooking(
+            long userId, BookingDto bookingDto, @Nullable String idempotencyKey) {
+        return post("", userId, bookingDto, idempotencyKey);
     }
 
-    public <T> ResponseEntity<Object> approvingBooking(long userId, long bookingId, boolean approved) {
+    public <T> CompletableFuture<ResponseEntity<byte[]>> approvingBooking(
+            long userId, long bookingId, boolean approved) {
         Map<String, Object> parameters = Map.of(
                 "approved", approved
         );
         return patch("/" + bookingId + "?approved={approved}", userId, parameters, null);
     }
 
-    public ResponseEntity<Object> getBooking(long userId, long bookingId) {
-        return get("/" + bookingId, userId, null);
+    public CompletableFuture<ResponseEntity<byte[]>> approvingBookings(
+            long userId, List<BookingDecisionDto> decisions) {
+        return patch("/bulk", userId, decisions);
     }
 
-    public ResponseEntity<Object> getUserAllBooking(long userId, String state, Integer from, Integer size) {
-        Map<String, Object> parameters = Map.of(
-                "state", state,
-                "from", from,
-                "size", size
-        );
-        return get("?state={state}&from={from}&size={size}", userId, parameters);
+    public CompletableFuture<ResponseEntity<byte[]>> getBooking(long userId, long bookingId) {
+        return getHedged("/" + bookingId, userId);
+    }
+
+    public CompletableFuture<ResponseEntity<byte[]>> getUserAllBooking(
+            long userId, String state, Integer from, Integer size, @Nullable String cursor) {
+        return getBookingPage("", userId, state, from, size, cursor);
+    }
+
+    public CompletableFuture<ResponseEntity<byte[]>> getAllBookingByOwner(
+            long userId, String state, Integer from, Integer size, @Nullable String cursor) {
+        return getBookingPage("/owner", userId, state, from, size, cursor);
+    }
+
+    public CompletableFuture<ResponseEntity<StreamingResponseBody>> exportAllBookingByOwner(long userId) {
+        return stream("/owner/export", userId);
     }
 
-    public ResponseEntity<Object> getAllBookingByOwner(long userId, String state, Integer from, Integer size) {
+    private CompletableFuture<ResponseEntity<byte[]>> getBookingPage(
+            String path, long userId, String state, Integer from, Integer size, @Nullable String cursor) {
+        if (cursor == null) {
+            Map<String, Object> parameters = Map.of(
+                    "state", state,
+                    "from", from,
+                    "size", size
+            );
+            return get(path + "?state={state}&from={from}&size={size}", userId, parameters);
+        }
         Map<String, Object> parameters = Map.of(
                 "state", state,
-                "from", from,
-                "size", size
+                "size", size,
+                "cursor", cursor
         );
-        return get("/owner?state={state}&from={from}&size={size}", userId, parameters);
+        return get(path + "?state={state}&size={size}&cursor={cursor}", userId, parameters);
     }
 }
@@ -4,11 +4,17 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
 
 import javax.validation.Valid;
 import javax.validation.constraints.Max;
 import javax.validation.constraints.Min;
+import javax.validation.constraints.NotEmpty;
+import javax.validation.constraints.Size;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 @Validated
 @RestController
@@ -19,14 +25,22 @@ public class BookingGatewayController {
     private final BookingClient bookingClient;
 
     @PostMapping
-    public ResponseEntity<Object> createBooking(
+    public CompletableFuture<ResponseEntity<byte[]>> createBooking(
             @RequestHeader("X-Sharer-User-Id") long userId,
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey,
             @Valid @RequestBody BookingDto bookingDto) {
-        return bookingClient.createBooking(userId, bookingDto);
+        return bookingClient.createBooking(userId, bookingDto, idempotencyKey);
+    }
+
+    @PatchMapping("/bulk")
+    public CompletableFuture<ResponseEntity<byte[]>> approvingBookings(
+            @RequestHeader("X-Sharer-User-Id") long userId,
+            @RequestBody @NotEmpty @Size(max = 500) List<@Valid BookingDecisionDto> decisions) {
+        return bookingClient.approvingBookings(userId, decisions);
     }
 
     @PatchMapping("/{bookingId}")
-    public ResponseEntity<Object> approvingBooking(
+    public CompletableFuture<ResponseEntity<byte[]>> approvingBooking(
             @RequestHeader("X-Sharer-User-Id") long userId,
             @PathVariable long bookingId,
             @RequestParam("approved") boolean approved) {
@@ -34,28 +48,36 @@ public class BookingGatewayController {
     }
 
     @GetMapping("/{bookingId}")
-    public ResponseEntity<Object> getBooking(
+    public CompletableFuture<ResponseEntity<byte[]>> getBooking(
             @RequestHeader("X-Sharer-User-Id") long userId,
             @PathVariable long bookingId) {
         return bookingClient.getBooking(userId, bookingId);
     }
 
     @GetMapping
-    public ResponseEntity<Object> getUserAllBooking(
+    public CompletableFuture<ResponseEntity<byte[]>> getUserAllBooking(
             @RequestHeader("X-Sharer-User-Id") long userId,
             @RequestParam(name = "state", defaultValue = "ALL", required = false) String state,
             @RequestParam(value = "from", defaultValue = "0", required = false) @Min(0) Integer from,
-            @RequestParam(value = "size", defaultValue = "10", required = false) @Min(1) @Max(100) Integer size) {
-        return bookingClient.getUserAllBooking(userId, state, from, size);
+            @RequestParam(value = "size", defaultValue = "10", required = false) @Min(1) @Max(100) Integer size,
+            @RequestParam(value = "cursor", required = false) String cursor) {
+        return bookingClient.getUserAllBooking(userId, state, from, size, cursor);
     }
 
     @GetMapping("/owner")
-    public ResponseEntity<Object> getAllBookingByOwner(
+    public CompletableFuture<ResponseEntity<byte[]>> getAllBookingByOwner(
             @RequestHeader("X-Sharer-User-Id") long userId,
             @RequestParam(name = "state", defaultValue = "ALL", required = false) String state,
             @RequestParam(value = "from", defaultValue = "0", required = false) @Min(0) Integer from,
-            @RequestParam(value = "size", defaultValue = "10", required = false) @Min(1) @Max(100) Integer size) {
-        return bookingClient.getAllBookingByOwner(userId, state, from, size);
+            @RequestParam(value = "size", defaultValue = "10", required = false) @Min(1) @Max(100) Integer size,
+            @RequestParam(value = "cursor", required = false) String cursor) {
+        return bookingClient.getAllBookingByOwner(userId, state, from, size, cursor);
+
+    }
 
+    @GetMapping("/owner/export")
+    public CompletableFuture<ResponseEntity<StreamingResponseBody>> exportAllBookingByOwner(
+            @RequestHeader("X-Sharer-User-Id") long userId) {
+        return bookingClient.exportAllBookingByOwner(userId);
     }
 }
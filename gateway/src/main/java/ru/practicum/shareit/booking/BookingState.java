@@ -0,0 +1,17 @@
+package ru.practicum.shareit.booking;
+
+/**
+ * Копия {@code BookingState} сервера. Шлюз передает параметр state серверу без проверки и использует
+ * этот список только для того, чтобы ограничить значения тега state в метриках.
+ */
+public enum BookingState {
+
+    ALL,
+    CURRENT,
+    PAST,
+    FUTURE,
+    WAITING,
+    APPROVED,
+    REJECTED,
+    CANCELED
+}
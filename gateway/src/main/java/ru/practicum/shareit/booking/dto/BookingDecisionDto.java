@@ -0,0 +1,17 @@
+package ru.practicum.shareit.booking.dto;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import javax.validation.constraints.NotNull;
+
+@Getter
+@Setter
+public class BookingDecisionDto {
+
+    @NotNull(message = "Поле bookingId не может быть пустым")
+    private Long bookingId;
+
+    @NotNull(message = "Поле approved не может быть пустым")
+    private Boolean approved;
+}
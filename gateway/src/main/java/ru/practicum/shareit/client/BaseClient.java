@@ -1,104 +1,534 @@
 package ru.practicum.shareit.client;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.http.Header;
+import org.apache.http.HttpEntity;
+import org.apache.http.HttpResponse;
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.client.methods.HttpGet;
+import org.apache.http.client.methods.HttpPost;
+import org.apache.http.client.methods.HttpUriRequest;
+import org.apache.http.client.methods.RequestBuilder;
+import org.apache.http.concurrent.FutureCallback;
+import org.apache.http.entity.ByteArrayEntity;
+import org.apache.http.entity.ContentType;
+import org.apache.http.entity.InputStreamEntity;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.nio.client.CloseableHttpAsyncClient;
+import org.apache.http.util.EntityUtils;
 import org.springframework.http.*;
 import org.springframework.lang.Nullable;
-import org.springframework.web.client.HttpStatusCodeException;
-import org.springframework.web.client.RestTemplate;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import org.springframework.web.util.DefaultUriBuilderFactory;
+import org.springframework.web.util.UriBuilderFactory;
+import org.springframework.web.util.UriComponents;
+import org.springframework.web.util.UriComponentsBuilder;
+import ru.practicum.shareit.config.MetricsConfig;
 
-import java.util.List;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.ConnectException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.Supplier;
 
+@Slf4j
 public class BaseClient {
-    protected final RestTemplate rest;
 
-    public BaseClient(RestTemplate rest) {
-        this.rest = rest;
+    private static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+    private static final String EXCHANGE_METRIC = "shareit.gateway.client.requests";
+    private static final String STREAM_ACCEPT = "application/x-ndjson, application/json";
+
+    private static final Set<String> HOP_BY_HOP_HEADERS = Set.of(
+            "connection", "keep-alive", "transfer-encoding", "content-length", "te", "trailer", "upgrade");
+
+    private static final byte[] SERVICE_UNAVAILABLE_BODY =
+            "{\"error\":\"Сервис временно недоступен\"}".getBytes(StandardCharsets.UTF_8);
+    private static final StreamingResponseBody SERVICE_UNAVAILABLE_STREAM = out -> out.write(SERVICE_UNAVAILABLE_BODY);
+    private static final ResponseEntity<byte[]> SERVICE_UNAVAILABLE = serviceUnavailable(SERVICE_UNAVAILABLE_BODY);
+
+    private final String name;
+    private final UriBuilderFactory uriBuilderFactory;
+    private final CloseableHttpAsyncClient httpClient;
+    private final ServerLoadBalancer loadBalancer;
+    private final ObjectMapper objectMapper;
+    private final ResponseCache responseCache;
+    private final InternalFormat internalFormat;
+    private final CircuitBreaker circuitBreaker;
+    private final Bulkhead bulkhead;
+    private final RequestHedger hedger;
+    private final MeterRegistry meterRegistry;
+    private final CloseableHttpClient streamingHttpClient;
+    private final ThreadPoolTaskExecutor streamingExecutor;
+    private final RequestCoalescer<ResponseEntity<byte[]>> getCoalescer = new RequestCoalescer<>();
+
+    public BaseClient(String apiPrefix, String name, BaseClientSupport support) {
+        this.name = name;
+        this.uriBuilderFactory = new DefaultUriBuilderFactory(apiPrefix);
+        this.httpClient = support.getHttpClient();
+        this.loadBalancer = support.getLoadBalancer();
+        this.objectMapper = support.getObjectMapper();
+        this.responseCache = support.getResponseCache();
+        this.internalFormat = support.getHttpClientProperties().getInternalFormat();
+        this.circuitBreaker = support.getCircuitBreakerRegistry().circuitBreaker(name);
+        this.bulkhead = support.getBulkheadRegistry().bulkhead(name);
+        this.hedger = support.getRequestHedging().forClient(name);
+        this.meterRegistry = support.getMeterRegistry();
+        this.streamingHttpClient = support.getStreamingHttpClient();
+        this.streamingExecutor = support.getStreamingExecutor();
     }
 
-    protected <T> ResponseEntity<Object> post(
+    protected <T> CompletableFuture<ResponseEntity<byte[]>> post(
             String path, Long userId, @Nullable Map<String, Object> parameters, T body) {
-        return makeAndSendRequest(HttpMethod.POST, path, userId, parameters, body);
+        return makeAndSendRequest(HttpMethod.POST, path, userId, parameters, body, HttpHeaders.EMPTY);
     }
 
-    protected <T> ResponseEntity<Object> patch(
+    protected <T> CompletableFuture<ResponseEntity<byte[]>> patch(
             String path, Long userId, @Nullable Map<String, Object> parameters, T body) {
-        return makeAndSendRequest(HttpMethod.PATCH, path, userId, parameters, body);
+        return makeAndSendRequest(HttpMethod.PATCH, path, userId, parameters, body, HttpHeaders.EMPTY);
     }
 
-    protected ResponseEntity<Object> get(
+    protected CompletableFuture<ResponseEntity<byte[]>> get(
             String path, Long userId, @Nullable Map<String, Object> parameters) {
-        return makeAndSendRequest(HttpMethod.GET, path, userId, parameters, null);
+        return makeAndSendRequest(HttpMethod.GET, path, userId, parameters, null, HttpHeaders.EMPTY);
     }
 
-    protected ResponseEntity<Object> delete(
+    protected CompletableFuture<ResponseEntity<byte[]>> delete(
             String path, Long userId, @Nullable Map<String, Object> parameters) {
-        return makeAndSendRequest(HttpMethod.DELETE, path, userId, parameters, null);
+        return makeAndSendRequest(HttpMethod.DELETE, path, userId, parameters, null, HttpHeaders.EMPTY);
     }
 
-    protected <T> ResponseEntity<Object> post(String path, T body) {
+    protected <T> CompletableFuture<ResponseEntity<byte[]>> post(String path, T body) {
         return post(path, null, null, body);
     }
 
-    protected <T> ResponseEntity<Object> post(String path, long userId, T body) {
+    protected <T> CompletableFuture<ResponseEntity<byte[]>> post(String path, long userId, T body) {
         return post(path, userId, null, body);
     }
 
-    protected <T> ResponseEntity<Object> patch(String path, T body) {
+    protected <T> CompletableFuture<ResponseEntity<byte[]>> post(
+            String path, long userId, T body, @Nullable String idempotencyKey) {
+        HttpHeaders headers = new HttpHeaders();
+        if (idempotencyKey != null) {
+            headers.set(IDEMPOTENCY_KEY_HEADER, idempotencyKey);
+        }
+        return makeAndSendRequest(HttpMethod.POST, path, userId, null, body, headers);
+    }
+
+    protected <T> CompletableFuture<ResponseEntity<byte[]>> patch(String path, T body) {
         return patch(path, null, null, body);
     }
 
-    protected <T> ResponseEntity<Object> patch(String path, long userId, T body) {
+    protected <T> CompletableFuture<ResponseEntity<byte[]>> patch(String path, long userId, T body) {
         return patch(path, userId, null, body);
     }
 
-    protected ResponseEntity<Object> get(String path) {
+    protected CompletableFuture<ResponseEntity<byte[]>> get(String path) {
         return get(path, null, null);
     }
 
-    protected ResponseEntity<Object> delete(String path) {
+    protected CompletableFuture<ResponseEntity<byte[]>> delete(String path) {
         return delete(path, null, null);
     }
 
+    protected CompletableFuture<ResponseEntity<byte[]>> getCached(String path) {
+        return getCached(path, null);
+    }
+
+    protected CompletableFuture<ResponseEntity<byte[]>> getCached(String path, @Nullable Long userId) {
+        return getCached(path, userId, false);
+    }
+
+    protected CompletableFuture<ResponseEntity<byte[]>> getCachedHedged(String path, @Nullable Long userId) {
+        return getCached(path, userId, true);
+    }
+
+    protected CompletableFuture<ResponseEntity<byte[]>> getHedged(String path, @Nullable Long userId) {
+        return sendRequest(HttpMethod.GET, uriBuilderFactory.expand(path), userId, null, HttpHeaders.EMPTY, true);
+    }
+
+    protected CompletableFuture<ResponseEntity<StreamingResponseBody>> stream(String path, long userId) {
+        URI uri = uriBuilderFactory.expand(path);
+        return streamExchange(HttpMethod.GET, uri, endpoint -> openStream(uri, userId, endpoint),
+                () -> serviceUnavailable(SERVICE_UNAVAILABLE_STREAM));
+    }
+
+    protected CompletableFuture<ResponseEntity<byte[]>> postStream(String path, long userId, InputStream body) {
+        URI uri = uriBuilderFactory.expand(path);
+        return streamExchange(HttpMethod.POST, uri, endpoint -> uploadStream(uri, userId, body, endpoint),
+                () -> SERVICE_UNAVAILABLE);
+    }
+
+    private CompletableFuture<ResponseEntity<byte[]>> getCached(String path, @Nullable Long userId, boolean hedged) {
+        URI uri = uriBuilderFactory.expand(path);
+        if (!responseCache.isEnabled()) {
+            return sendRequest(HttpMethod.GET, uri, userId, null, HttpHeaders.EMPTY, hedged);
+        }
+        String key = ResponseCache.key(uri, userId);
+        ResponseCache.Entry cached = responseCache.get(key);
+        if (cached != null && responseCache.isFresh(cached)) {
+            responseCache.hit();
+            return CompletableFuture.completedFuture(cached.getResponse());
+        }
+
+        HttpHeaders headers = new HttpHeaders();
+        if (cached != null) {
+            headers.setIfNoneMatch(cached.getETag());
+        }
+        return sendRequest(HttpMethod.GET, uri, userId, null, headers, hedged)
+                .thenApply(response -> {
+                    if (cached != null && response.getStatusCodeValue() == HttpStatus.NOT_MODIFIED.value()) {
+                        responseCache.revalidated();
+                        responseCache.touch(key, cached);
+                        return cached.getResponse();
+                    }
+                    responseCache.miss();
+                    String eTag = response.getHeaders().getETag();
+                    if (response.getStatusCodeValue() == HttpStatus.OK.value() && eTag != null) {
+                        responseCache.put(key, uri, eTag, response);
+                    } else {
+                        responseCache.evict(key);
+                    }
+                    return response;
+                });
+    }
 
-    private <T> ResponseEntity<Object> makeAndSendRequest(
+    private <T> CompletableFuture<ResponseEntity<byte[]>> makeAndSendRequest(
             HttpMethod method, String path, Long userId,
-            @Nullable Map<String, Object> parameters, @Nullable T body) {
-        HttpEntity<T> requestEntity = new HttpEntity<>(body, defaultHeaders(userId));
+            @Nullable Map<String, Object> parameters, @Nullable T body, HttpHeaders headers) {
+        URI uri = parameters != null
+                ? uriBuilderFactory.expand(path, parameters)
+                : uriBuilderFactory.expand(path);
+        CompletableFuture<ResponseEntity<byte[]>> shareitServerResponse =
+                sendRequest(method, uri, userId, body, headers, false);
+        if (method == HttpMethod.GET || !responseCache.isEnabled()) {
+            return shareitServerResponse;
+        }
+        return shareitServerResponse.whenComplete((response, e) -> {
+            if (response != null && isSuccessful(response)) {
+                responseCache.evictPath(uri.getRawPath());
+            }
+        });
+    }
+
+    private <T> CompletableFuture<ResponseEntity<byte[]>> sendRequest(HttpMethod method, URI uri, Long userId,
+                                                                      @Nullable T body, HttpHeaders headers,
+                                                                      boolean hedged) {
+        if (method != HttpMethod.GET) {
+            return exchange(method, uri, userId, body, headers, loadBalancer.choose());
+        }
+        String key = uri + "|" + userId + "|" + headers.getFirst(HttpHeaders.IF_NONE_MATCH);
+        if (!hedged || !hedger.isEnabled()) {
+            return getCoalescer.coalesce(key,
+                    () -> exchange(method, uri, userId, null, headers, loadBalancer.choose()));
+        }
+        return getCoalescer.coalesce(key, () -> {
+            ServerEndpoint primary = loadBalancer.choose();
+            return hedger.execute(
+                    () -> exchange(method, uri, userId, null, headers, primary),
+                    () -> {
+                        ServerEndpoint backup = loadBalancer.chooseOther(primary);
+                        return backup != null ? exchange(method, uri, userId, null, headers, backup) : null;
+                    },
+                    response -> response == SERVICE_UNAVAILABLE);
+        });
+    }
+
+    private <T> CompletableFuture<ResponseEntity<byte[]>> exchange(HttpMethod method, URI uri, Long userId,
+                                                                   @Nullable T body, HttpHeaders headers,
+                                                                   ServerEndpoint endpoint) {
+        if (!tryAcquirePermission(method, uri)) {
+            return CompletableFuture.completedFuture(SERVICE_UNAVAILABLE);
+        }
+
+        long start = System.nanoTime();
+        CompletableFuture<ResponseEntity<byte[]>> shareitServerResponse =
+                send(method, uri, userId, body, headers, endpoint);
+        shareitServerResponse.whenComplete((response, e) ->
+                onExchangeComplete(method, uri, endpoint, response, e, start));
+        return shareitServerResponse;
+    }
+
+    /**
+     * Потоковые запросы идут через те же bulkhead, предохранитель и таймер, что и обычные. Обмен считается
+     * завершённым, когда получены заголовки ответа: выгрузка может длиться минутами, и держать слот
+     * bulkhead всё это время значило бы отнимать его у коротких запросов.
+     */
+    private <R> CompletableFuture<ResponseEntity<R>> streamExchange(HttpMethod method, URI uri,
+                                                                    Function<ServerEndpoint, ResponseEntity<R>> call,
+                                                                    Supplier<ResponseEntity<R>> rejected) {
+        if (!tryAcquirePermission(method, uri)) {
+            return CompletableFuture.completedFuture(rejected.get());
+        }
+
+        ServerEndpoint endpoint = loadBalancer.choose();
+        long start = System.nanoTime();
+        CompletableFuture<ResponseEntity<R>> shareitServerResponse;
+        try {
+            shareitServerResponse = CompletableFuture.supplyAsync(() -> call.apply(endpoint), streamingExecutor);
+        } catch (RejectedExecutionException e) {
+            bulkhead.onComplete();
+            circuitBreaker.releasePermission();
+            log.debug("Отклонён запрос {} {}: занят пул потоковых запросов", method, uri);
+            return CompletableFuture.completedFuture(rejected.get());
+        }
+        shareitServerResponse.whenComplete((response, e) ->
+                onExchangeComplete(method, uri, endpoint, response, e, start));
+        return shareitServerResponse;
+    }
+
+    private boolean tryAcquirePermission(HttpMethod method, URI uri) {
+        if (!bulkhead.tryAcquirePermission()) {
+            log.debug("Отклонён запрос {} {}: заняты все слоты '{}'", method, uri, bulkhead.getName());
+            return false;
+        }
+        if (!circuitBreaker.tryAcquirePermission()) {
+            bulkhead.onComplete();
+            log.debug("Отклонён запрос {} {}: разомкнут предохранитель '{}'", method, uri, circuitBreaker.getName());
+            return false;
+        }
+        return true;
+    }
+
+    private void onExchangeComplete(HttpMethod method, URI uri, ServerEndpoint endpoint,
+                                    @Nullable ResponseEntity<?> response, @Nullable Throwable e, long start) {
+        bulkhead.onComplete();
+        long duration = System.nanoTime() - start;
+        recordExchange(method, uri, endpoint, response, e, duration);
+        if (e instanceof CancellationException) {
+            circuitBreaker.releasePermission();
+        } else if (e != null) {
+            circuitBreaker.onError(duration, TimeUnit.NANOSECONDS, e);
+        } else if (HttpStatus.Series.resolve(response.getStatusCodeValue()) == HttpStatus.Series.SERVER_ERROR) {
+            circuitBreaker.onError(duration, TimeUnit.NANOSECONDS,
+                    new ServerErrorResponseException(response.getStatusCodeValue()));
+        } else {
+            circuitBreaker.onSuccess(duration, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private <T> CompletableFuture<ResponseEntity<byte[]>> send(HttpMethod method, URI uri, Long userId,
+                                                               @Nullable T body, HttpHeaders headers,
+                                                               ServerEndpoint endpoint) {
+        CompletableFuture<ResponseEntity<byte[]>> shareitServerResponse = new CompletableFuture<>();
+        HttpUriRequest request;
+        try {
+            request = buildRequest(method, endpoint.resolve(uri), userId, body, headers);
+        } catch (JsonProcessingException e) {
+            shareitServerResponse.completeExceptionally(e);
+            return shareitServerResponse;
+        }
+
+        log.debug("HTTP {} {}", method, request.getURI());
+        endpoint.acquire();
+        Future<HttpResponse> call = httpClient.execute(request, new FutureCallback<>() {
+            @Override
+            public void completed(HttpResponse response) {
+                log.debug("Response {} for HTTP {} {}",
+                        response.getStatusLine().getStatusCode(), method, request.getURI());
+                ResponseEntity<byte[]> gatewayResponse;
+                try {
+                    gatewayResponse = prepareGatewayResponse(response);
+                } catch (IOException e) {
+                    failed(e);
+                    return;
+                }
+                endpoint.release();
+                shareitServerResponse.complete(gatewayResponse);
+            }
 
-        ResponseEntity<Object> shareitServerResponse;
+            @Override
+            public void failed(Exception e) {
+                endpoint.release();
+                if (e instanceof ConnectException) {
+                    loadBalancer.onConnectionFailure(endpoint);
+                }
+                shareitServerResponse.completeExceptionally(new ResourceAccessException(
+                        "I/O error on " + method + " request for \"" + request.getURI() + "\": " + e.getMessage(),
+                        e instanceof IOException ? (IOException) e : new IOException(e)));
+            }
+
+            @Override
+            public void cancelled() {
+                endpoint.release();
+                shareitServerResponse.cancel(false);
+            }
+        });
+        shareitServerResponse.whenComplete((response, e) -> {
+            if (e instanceof CancellationException) {
+                call.cancel(true);
+            }
+        });
+        return shareitServerResponse;
+    }
+
+    private ResponseEntity<StreamingResponseBody> openStream(URI uri, long userId, ServerEndpoint endpoint) {
+        HttpGet request = new HttpGet(endpoint.resolve(uri));
+        request.setHeader(HttpHeaders.ACCEPT, STREAM_ACCEPT);
+        request.setHeader("X-Sharer-User-Id", String.valueOf(userId));
+
+        log.debug("HTTP GET {} (stream)", request.getURI());
+        endpoint.acquire();
+        CloseableHttpResponse response;
         try {
-            if (parameters != null) {
-                shareitServerResponse = rest.exchange(path, method, requestEntity, Object.class, parameters);
-            } else {
-                shareitServerResponse = rest.exchange(path, method, requestEntity, Object.class);
+            response = streamingHttpClient.execute(request);
+        } catch (IOException e) {
+            endpoint.release();
+            if (e instanceof ConnectException) {
+                loadBalancer.onConnectionFailure(endpoint);
+            }
+            throw new ResourceAccessException(
+                    "I/O error on GET request for \"" + request.getURI() + "\": " + e.getMessage(), e);
+        }
+        log.debug("Response {} for HTTP GET {} (stream)", response.getStatusLine().getStatusCode(), request.getURI());
+
+        ResponseEntity.BodyBuilder responseBuilder = ResponseEntity.status(response.getStatusLine().getStatusCode());
+        for (Header header : response.getAllHeaders()) {
+            if (!HOP_BY_HOP_HEADERS.contains(header.getName().toLowerCase())) {
+                responseBuilder.header(header.getName(), header.getValue());
+            }
+        }
+        HttpEntity entity = response.getEntity();
+        return responseBuilder.body(out -> {
+            try (response) {
+                if (entity != null) {
+                    entity.writeTo(out);
+                }
+            } finally {
+                endpoint.release();
+            }
+        });
+    }
+
+    private ResponseEntity<byte[]> uploadStream(URI uri, long userId, InputStream body, ServerEndpoint endpoint) {
+        HttpPost request = new HttpPost(endpoint.resolve(uri));
+        request.setHeader(HttpHeaders.ACCEPT, internalFormat.getMediaType().toString());
+        request.setHeader("X-Sharer-User-Id", String.valueOf(userId));
+        request.setEntity(new InputStreamEntity(body, -1, ContentType.APPLICATION_JSON));
+
+        log.debug("HTTP POST {} (stream)", request.getURI());
+        endpoint.acquire();
+        try (CloseableHttpResponse response = streamingHttpClient.execute(request)) {
+            log.debug("Response {} for HTTP POST {} (stream)",
+                    response.getStatusLine().getStatusCode(), request.getURI());
+            return prepareGatewayResponse(response);
+        } catch (IOException e) {
+            if (e instanceof ConnectException) {
+                loadBalancer.onConnectionFailure(endpoint);
             }
-        } catch (HttpStatusCodeException e) {
-            return ResponseEntity.status(e.getStatusCode()).body(e.getResponseBodyAsByteArray());
+            throw new ResourceAccessException(
+                    "I/O error on POST request for \"" + request.getURI() + "\": " + e.getMessage(), e);
+        } finally {
+            endpoint.release();
         }
-        return prepareGatewayResponse(shareitServerResponse);
     }
 
-    private HttpHeaders defaultHeaders(Long userId) {
-        HttpHeaders headers = new HttpHeaders();
-        headers.setContentType(MediaType.APPLICATION_JSON);
-        headers.setAccept(List.of(MediaType.APPLICATION_JSON));
+    private <T> HttpUriRequest buildRequest(
+            HttpMethod method, URI uri, Long userId,
+            @Nullable T body, HttpHeaders headers) throws JsonProcessingException {
+        RequestBuilder requestBuilder = RequestBuilder.create(method.name())
+                .setUri(uri)
+                .setHeader(HttpHeaders.ACCEPT, internalFormat.getMediaType().toString());
+        if (body != null) {
+            requestBuilder.setEntity(
+                    new ByteArrayEntity(objectMapper.writeValueAsBytes(body), ContentType.APPLICATION_JSON));
+        }
         if (userId != null) {
-            headers.set("X-Sharer-User-Id", String.valueOf(userId));
+            requestBuilder.setHeader("X-Sharer-User-Id", String.valueOf(userId));
         }
-        return headers;
+        headers.forEach((name, values) -> values.forEach(value -> requestBuilder.addHeader(name, value)));
+        return requestBuilder.build();
     }
 
-    private static ResponseEntity<Object> prepareGatewayResponse(ResponseEntity<Object> response) {
-        if (response.getStatusCode().is2xxSuccessful()) {
-            return response;
+    private void recordExchange(HttpMethod method, URI uri, ServerEndpoint endpoint,
+                                @Nullable ResponseEntity<?> response, @Nullable Throwable e, long duration) {
+        String status;
+        if (e instanceof CancellationException) {
+            status = "CANCELLED";
+        } else if (e != null) {
+            status = "IO_ERROR";
+        } else {
+            status = String.valueOf(response.getStatusCodeValue());
         }
+        UriComponents components = UriComponentsBuilder.fromUri(uri).build();
+        String state = MetricsConfig.bookingState(components.getPath(),
+                components.getQueryParams().getFirst(MetricsConfig.STATE_TAG));
+        Timer.builder(EXCHANGE_METRIC)
+                .tag("client", name)
+                .tag("method", method.name())
+                .tag("status", status)
+                .tag("instance", endpoint.getBaseUrl())
+                .tag(MetricsConfig.STATE_TAG, state)
+                .register(meterRegistry)
+                .record(duration, TimeUnit.NANOSECONDS);
+    }
+
+    private static <R> ResponseEntity<R> serviceUnavailable(R body) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(body);
+    }
+
+    private static boolean isSuccessful(ResponseEntity<?> response) {
+        return HttpStatus.Series.resolve(response.getStatusCodeValue()) == HttpStatus.Series.SUCCESSFUL;
+    }
+
+    private ResponseEntity<byte[]> prepareGatewayResponse(HttpResponse response) throws IOException {
+        ResponseEntity.BodyBuilder responseBuilder = ResponseEntity.status(response.getStatusLine().getStatusCode());
 
-        ResponseEntity.BodyBuilder responseBuilder = ResponseEntity.status(response.getStatusCode());
+        HttpEntity entity = response.getEntity();
+        boolean transcode = entity != null && isInternalFormat(entity);
+        for (Header header : response.getAllHeaders()) {
+            String name = header.getName().toLowerCase();
+            if (!HOP_BY_HOP_HEADERS.contains(name) && !(transcode && name.equals("content-type"))) {
+                responseBuilder.header(header.getName(), header.getValue());
+            }
+        }
 
-        if (response.hasBody()) {
-            return responseBuilder.body(response.getBody());
+        if (transcode) {
+            return responseBuilder.contentType(MediaType.APPLICATION_JSON)
+                    .body(transcodeToJson(EntityUtils.toByteArray(entity)));
+        }
+        if (entity != null) {
+            return responseBuilder.body(EntityUtils.toByteArray(entity));
         }
 
         return responseBuilder.build();
     }
+
+    private boolean isInternalFormat(HttpEntity entity) {
+        Header contentType = entity.getContentType();
+        return internalFormat.isBinary() && contentType != null
+                && internalFormat.getMediaType().isCompatibleWith(MediaType.parseMediaType(contentType.getValue()));
+    }
+
+    private byte[] transcodeToJson(byte[] body) throws IOException {
+        ByteArrayOutputStream json = new ByteArrayOutputStream(body.length * 2);
+        try (JsonParser parser = internalFormat.getFactory().createParser(body);
+             JsonGenerator generator = objectMapper.getFactory().createGenerator(json)) {
+            while (parser.nextToken() != null) {
+                generator.copyCurrentEvent(parser);
+            }
+        }
+        return json.toByteArray();
+    }
 }
@@ -0,0 +1,30 @@
+package ru.practicum.shareit.client;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.nio.client.CloseableHttpAsyncClient;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+
+@Getter
+@Component
+@RequiredArgsConstructor
+public class BaseClientSupport {
+
+    private final CloseableHttpAsyncClient httpClient;
+    private final ObjectMapper objectMapper;
+    private final ResponseCache responseCache;
+    private final HttpClientProperties httpClientProperties;
+    private final ServerLoadBalancer loadBalancer;
+    private final RequestHedging requestHedging;
+    private final CircuitBreakerRegistry circuitBreakerRegistry;
+    private final BulkheadRegistry bulkheadRegistry;
+    private final MeterRegistry meterRegistry;
+    private final CloseableHttpClient streamingHttpClient;
+    private final ThreadPoolTaskExecutor streamingExecutor;
+}
@@ -0,0 +1,37 @@
+package ru.practicum.shareit.client;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+public class HedgeBudget {
+
+    private static final long TOKEN = 1000;
+
+    private final long depositPerRequest;
+    private final long capacity;
+    private final AtomicLong balance;
+
+    public HedgeBudget(double budgetPercent, int burst) {
+        this.depositPerRequest = Math.round(TOKEN * budgetPercent / 100);
+        this.capacity = burst * TOKEN;
+        this.balance = new AtomicLong(capacity);
+    }
+
+    public void deposit() {
+        balance.accumulateAndGet(depositPerRequest, (current, deposit) -> Math.min(capacity, current + deposit));
+    }
+
+    public boolean tryWithdraw() {
+        long current;
+        do {
+            current = balance.get();
+            if (current < TOKEN) {
+                return false;
+            }
+        } while (!balance.compareAndSet(current, current - TOKEN));
+        return true;
+    }
+
+    public void refund() {
+        balance.accumulateAndGet(TOKEN, (current, token) -> Math.min(capacity, current + token));
+    }
+}
@@ -0,0 +1,27 @@
+package ru.practicum.shareit.client;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "shareit-gateway.hedging")
+public class HedgingProperties {
+
+    private boolean enabled = false;
+
+    private double percentile = 0.95;
+
+    private Duration minDelay = Duration.ofMillis(10);
+
+    private Duration maxDelay = Duration.ofSeconds(1);
+
+    private Duration delayRefreshInterval = Duration.ofSeconds(1);
+
+    private double budgetPercent = 5;
+
+    private int budgetBurst = 10;
+}
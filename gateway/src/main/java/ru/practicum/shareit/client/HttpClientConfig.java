@@ -0,0 +1,144 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.conn.ConnectionKeepAliveStrategy;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.DefaultConnectionKeepAliveStrategy;
+import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.impl.nio.client.CloseableHttpAsyncClient;
+import org.apache.http.impl.nio.client.HttpAsyncClients;
+import org.apache.http.impl.nio.conn.PoolingNHttpClientConnectionManager;
+import org.apache.http.impl.nio.reactor.DefaultConnectingIOReactor;
+import org.apache.http.impl.nio.reactor.IOReactorConfig;
+import org.apache.http.nio.reactor.IOReactorException;
+import org.apache.http.pool.PoolStats;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.ToIntFunction;
+
+@Configuration
+@EnableConfigurationProperties({HttpClientProperties.class, LoadBalancerProperties.class,
+        ResponseCacheProperties.class, HedgingProperties.class})
+public class HttpClientConfig {
+
+    private static final String POOL_METRIC_PREFIX = "shareit.gateway.http.pool.";
+    private static final String POOL_TAG = "client";
+    private static final String POOL_NAME = "shareit-server";
+
+    @Bean(destroyMethod = "shutdown")
+    public PoolingNHttpClientConnectionManager shareItServerConnectionManager(HttpClientProperties properties)
+            throws IOReactorException {
+        IOReactorConfig ioReactorConfig = IOReactorConfig.custom()
+                .setIoThreadCount(properties.getIoThreads())
+                .setConnectTimeout((int) properties.getConnectTimeout().toMillis())
+                .setSoTimeout((int) properties.getSocketTimeout().toMillis())
+                .setSoKeepAlive(true)
+                .setTcpNoDelay(true)
+                .build();
+        PoolingNHttpClientConnectionManager connectionManager =
+                new PoolingNHttpClientConnectionManager(new DefaultConnectingIOReactor(ioReactorConfig));
+        connectionManager.setMaxTotal(properties.getMaxTotal());
+        connectionManager.setDefaultMaxPerRoute(properties.getMaxPerRoute());
+        return connectionManager;
+    }
+
+    @Bean(destroyMethod = "close")
+    public CloseableHttpAsyncClient shareItServerHttpClient(
+            PoolingNHttpClientConnectionManager connectionManager, HttpClientProperties properties) {
+        RequestConfig requestConfig = RequestConfig.custom()
+                .setConnectTimeout((int) properties.getConnectTimeout().toMillis())
+                .setSocketTimeout((int) properties.getSocketTimeout().toMillis())
+                .setConnectionRequestTimeout((int) properties.getConnectionRequestTimeout().toMillis())
+                .build();
+        CloseableHttpAsyncClient httpClient = HttpAsyncClients.custom()
+                .setConnectionManager(connectionManager)
+                .setConnectionManagerShared(true)
+                .setDefaultRequestConfig(requestConfig)
+                .setKeepAliveStrategy(keepAliveStrategy(properties.getKeepAlive().toMillis()))
+                .build();
+        httpClient.start();
+        return httpClient;
+    }
+
+    @Bean(destroyMethod = "close")
+    public CloseableHttpClient shareItServerStreamingHttpClient(HttpClientProperties properties) {
+        PoolingHttpClientConnectionManager connectionManager = new PoolingHttpClientConnectionManager();
+        connectionManager.setMaxTotal(properties.getStreamingMaxConnections());
+        connectionManager.setDefaultMaxPerRoute(properties.getStreamingMaxConnections());
+        RequestConfig requestConfig = RequestConfig.custom()
+                .setConnectTimeout((int) properties.getConnectTimeout().toMillis())
+                .setSocketTimeout((int) properties.getStreamingSocketTimeout().toMillis())
+                .setConnectionRequestTimeout((int) properties.getConnectionRequestTimeout().toMillis())
+                .build();
+        return HttpClients.custom()
+                .setConnectionManager(connectionManager)
+                .setDefaultRequestConfig(requestConfig)
+                .setKeepAliveStrategy(keepAliveStrategy(properties.getKeepAlive().toMillis()))
+                .evictExpiredConnections()
+                .evictIdleConnections(properties.getIdleTimeout().toMillis(), TimeUnit.MILLISECONDS)
+                .disableContentCompression()
+                .build();
+    }
+
+    @Bean
+    public ThreadPoolTaskExecutor shareItServerStreamingExecutor(HttpClientProperties properties) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(properties.getStreamingMaxConnections());
+        executor.setMaxPoolSize(properties.getStreamingMaxConnections());
+        executor.setQueueCapacity(properties.getStreamingMaxConnections());
+        executor.setThreadNamePrefix("shareit-server-stream-");
+        return executor;
+    }
+
+    @Bean(destroyMethod = "shutdownNow")
+    public ScheduledExecutorService shareItServerConnectionEvictor(
+            PoolingNHttpClientConnectionManager connectionManager, HttpClientProperties properties) {
+        ScheduledExecutorService evictor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "shareit-server-connection-evictor");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long interval = properties.getEvictionInterval().toMillis();
+        long idleTimeout = properties.getIdleTimeout().toMillis();
+        evictor.scheduleWithFixedDelay(() -> {
+            connectionManager.closeExpiredConnections();
+            connectionManager.closeIdleConnections(idleTimeout, TimeUnit.MILLISECONDS);
+        }, interval, interval, TimeUnit.MILLISECONDS);
+        return evictor;
+    }
+
+    @Bean
+    public MeterBinder shareItServerConnectionPoolMetrics(PoolingNHttpClientConnectionManager connectionManager) {
+        return registry -> {
+            poolGauge(registry, connectionManager, "leased", PoolStats::getLeased);
+            poolGauge(registry, connectionManager, "available", PoolStats::getAvailable);
+            poolGauge(registry, connectionManager, "pending", PoolStats::getPending);
+            poolGauge(registry, connectionManager, "max", PoolStats::getMax);
+        };
+    }
+
+    private static void poolGauge(MeterRegistry registry, PoolingNHttpClientConnectionManager connectionManager,
+                                  String name, ToIntFunction<PoolStats> stat) {
+        Gauge.builder(POOL_METRIC_PREFIX + name, connectionManager,
+                        manager -> stat.applyAsInt(manager.getTotalStats()))
+                .tag(POOL_TAG, POOL_NAME)
+                .register(registry);
+    }
+
+    private static ConnectionKeepAliveStrategy keepAliveStrategy(long defaultKeepAlive) {
+        return (response, context) -> {
+            long keepAlive = DefaultConnectionKeepAliveStrategy.INSTANCE.getKeepAliveDuration(response, context);
+            return keepAlive > 0 ? keepAlive : defaultKeepAlive;
+        };
+    }
+}
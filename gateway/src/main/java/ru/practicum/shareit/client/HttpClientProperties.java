@@ -0,0 +1,37 @@
+package ru.practicum.shareit.client;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "shareit-server.http-client")
+public class HttpClientProperties {
+
+    private int maxTotal = 200;
+
+    private int maxPerRoute = 200;
+
+    private int ioThreads = Runtime.getRuntime().availableProcessors();
+
+    private Duration connectTimeout = Duration.ofSeconds(2);
+
+    private Duration socketTimeout = Duration.ofSeconds(30);
+
+    private Duration connectionRequestTimeout = Duration.ofSeconds(5);
+
+    private Duration keepAlive = Duration.ofSeconds(30);
+
+    private Duration idleTimeout = Duration.ofSeconds(60);
+
+    private Duration evictionInterval = Duration.ofSeconds(10);
+
+    private InternalFormat internalFormat = InternalFormat.JSON;
+
+    private int streamingMaxConnections = 20;
+
+    private Duration streamingSocketTimeout = Duration.ofMinutes(5);
+}
@@ -0,0 +1,26 @@
+package ru.practicum.shareit.client;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import lombok.Getter;
+import org.springframework.http.MediaType;
+
+@Getter
+public enum InternalFormat {
+    JSON(MediaType.APPLICATION_JSON, new JsonFactory()),
+    SMILE(new MediaType("application", "x-jackson-smile"), new SmileFactory()),
+    CBOR(MediaType.APPLICATION_CBOR, new CBORFactory());
+
+    private final MediaType mediaType;
+    private final JsonFactory factory;
+
+    InternalFormat(MediaType mediaType, JsonFactory factory) {
+        this.mediaType = mediaType;
+        this.factory = factory;
+    }
+
+    public boolean isBinary() {
+        return this != JSON;
+    }
+}
@@ -0,0 +1,28 @@
+package ru.practicum.shareit.client;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "shareit-server.load-balancer")
+public class LoadBalancerProperties {
+
+    private List<URI> urls = new ArrayList<>();
+
+    private String healthPath = "/actuator/health";
+
+    private Duration healthCheckInterval = Duration.ofSeconds(5);
+
+    private Duration healthCheckTimeout = Duration.ofSeconds(2);
+
+    private int unhealthyThreshold = 2;
+
+    private int healthyThreshold = 2;
+}
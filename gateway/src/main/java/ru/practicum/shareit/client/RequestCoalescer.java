@@ -0,0 +1,34 @@
+package ru.practicum.shareit.client;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+
+public class RequestCoalescer<T> {
+
+    private final ConcurrentMap<String, CompletableFuture<T>> inFlight = new ConcurrentHashMap<>();
+
+    public CompletableFuture<T> coalesce(String key, Supplier<CompletableFuture<T>> call) {
+        CompletableFuture<T> leader = new CompletableFuture<>();
+        CompletableFuture<T> existing = inFlight.putIfAbsent(key, leader);
+        if (existing != null) {
+            return existing.copy();
+        }
+
+        try {
+            call.get().whenComplete((result, e) -> {
+                inFlight.remove(key, leader);
+                if (e != null) {
+                    leader.completeExceptionally(e);
+                } else {
+                    leader.complete(result);
+                }
+            });
+        } catch (RuntimeException e) {
+            inFlight.remove(key, leader);
+            leader.completeExceptionally(e);
+        }
+        return leader.copy();
+    }
+}
@@ -0,0 +1,135 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import org.springframework.lang.Nullable;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+public class RequestHedger {
+
+    private static final String METRIC_PREFIX = "shareit.gateway.hedge.";
+    private static final String CLIENT_TAG = "client";
+
+    private final HedgingProperties properties;
+    private final ScheduledExecutorService scheduler;
+    private final HedgeBudget budget;
+    private final Timer latency;
+    private final Counter requests;
+    private final Counter hedges;
+    private final Counter wins;
+    private final Counter throttled;
+    private volatile long delayNanos;
+
+    RequestHedger(String client, HedgingProperties properties, ScheduledExecutorService scheduler,
+                  MeterRegistry registry) {
+        this.properties = properties;
+        this.scheduler = scheduler;
+        this.budget = new HedgeBudget(properties.getBudgetPercent(), properties.getBudgetBurst());
+        this.latency = Timer.builder(METRIC_PREFIX + "latency")
+                .tag(CLIENT_TAG, client)
+                .publishPercentiles(properties.getPercentile())
+                .register(registry);
+        this.requests = counter(registry, "requests", client);
+        this.hedges = counter(registry, "sent", client);
+        this.wins = counter(registry, "wins", client);
+        this.throttled = counter(registry, "throttled", client);
+        this.delayNanos = properties.getMinDelay().toNanos();
+
+        if (properties.isEnabled()) {
+            long interval = properties.getDelayRefreshInterval().toMillis();
+            scheduler.scheduleWithFixedDelay(this::refreshDelay, interval, interval, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    public boolean isEnabled() {
+        return properties.isEnabled();
+    }
+
+    /**
+     * Отправляет основной запрос и, если он не ответил за {@code delayNanos}, дублирующий. Ответ, для которого
+     * {@code rejected} возвращает {@code true}, сформирован самим шлюзом (bulkhead или предохранитель) и
+     * побеждает только если других попыток не осталось; отклоненный дубль возвращает токен в бюджет.
+     */
+    public <T> CompletableFuture<T> execute(Supplier<CompletableFuture<T>> primary,
+                                            Supplier<CompletableFuture<T>> backup,
+                                            Predicate<T> rejected) {
+        requests.increment();
+        budget.deposit();
+        CompletableFuture<T> result = new CompletableFuture<>();
+        AtomicInteger pending = new AtomicInteger(1);
+
+        CompletableFuture<T> first = primary.get();
+        track(first, result, pending, rejected, null);
+        ScheduledFuture<?> hedge = scheduler.schedule(() -> {
+            if (result.isDone()) {
+                return;
+            }
+            if (!budget.tryWithdraw()) {
+                throttled.increment();
+                return;
+            }
+            CompletableFuture<T> second = backup.get();
+            if (second == null || isRejected(second, rejected)) {
+                budget.refund();
+                return;
+            }
+            pending.incrementAndGet();
+            hedges.increment();
+            result.whenComplete((response, e) -> second.cancel(false));
+            track(second, result, pending, rejected, wins);
+        }, delayNanos, TimeUnit.NANOSECONDS);
+
+        result.whenComplete((response, e) -> {
+            hedge.cancel(false);
+            first.cancel(false);
+        });
+        return result;
+    }
+
+    void refreshDelay() {
+        long percentileNanos = 0;
+        for (ValueAtPercentile value : latency.takeSnapshot().percentileValues()) {
+            percentileNanos = (long) value.value(TimeUnit.NANOSECONDS);
+        }
+        delayNanos = Math.max(properties.getMinDelay().toNanos(),
+                Math.min(properties.getMaxDelay().toNanos(), percentileNanos));
+    }
+
+    private <T> void track(CompletableFuture<T> attempt, CompletableFuture<T> result, AtomicInteger pending,
+                           Predicate<T> rejected, @Nullable Counter onWin) {
+        long start = System.nanoTime();
+        attempt.whenComplete((response, e) -> {
+            if (e == null && !rejected.test(response)) {
+                latency.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                if (result.complete(response) && onWin != null) {
+                    onWin.increment();
+                }
+            } else if (pending.decrementAndGet() == 0) {
+                if (e == null) {
+                    result.complete(response);
+                } else {
+                    result.completeExceptionally(e);
+                }
+            }
+        });
+    }
+
+    private static <T> boolean isRejected(CompletableFuture<T> attempt, Predicate<T> rejected) {
+        return attempt.isDone() && !attempt.isCompletedExceptionally() && rejected.test(attempt.join());
+    }
+
+    private static Counter counter(MeterRegistry registry, String name, String client) {
+        return Counter.builder(METRIC_PREFIX + name)
+                .tag(CLIENT_TAG, client)
+                .register(registry);
+    }
+}
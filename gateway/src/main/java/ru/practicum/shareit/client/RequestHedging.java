@@ -0,0 +1,35 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+
+@Component
+public class RequestHedging {
+
+    private final HedgingProperties properties;
+    private final MeterRegistry registry;
+    private final ScheduledExecutorService scheduler;
+
+    public RequestHedging(HedgingProperties properties, MeterRegistry registry) {
+        this.properties = properties;
+        this.registry = registry;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "shareit-server-request-hedger");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public RequestHedger forClient(String name) {
+        return new RequestHedger(name, properties, scheduler, registry);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdownNow();
+    }
+}
@@ -0,0 +1,154 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.net.URI;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@Component
+public class ResponseCache {
+
+    private static final String METRIC_PREFIX = "shareit.gateway.cache.";
+
+    private final ResponseCacheProperties properties;
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long sizeInBytes;
+
+    private final Counter hits;
+    private final Counter revalidations;
+    private final Counter misses;
+    private final Counter evictions;
+
+    public ResponseCache(ResponseCacheProperties properties, MeterRegistry registry) {
+        this.properties = properties;
+        this.hits = requests(registry, "hit");
+        this.revalidations = requests(registry, "revalidated");
+        this.misses = requests(registry, "miss");
+        this.evictions = Counter.builder(METRIC_PREFIX + "evictions").register(registry);
+        Gauge.builder(METRIC_PREFIX + "size", this, ResponseCache::size).register(registry);
+        Gauge.builder(METRIC_PREFIX + "bytes", this, ResponseCache::sizeInBytes).register(registry);
+    }
+
+    public boolean isEnabled() {
+        return properties.isEnabled();
+    }
+
+    public static String key(URI uri, @Nullable Long userId) {
+        return uri.getRawPath() + (uri.getRawQuery() != null ? "?" + uri.getRawQuery() : "") + "|" + userId;
+    }
+
+    @Nullable
+    public synchronized Entry get(String key) {
+        Entry entry = entries.get(key);
+        if (entry != null && entry.ageMillis() > properties.getTtl().toMillis()) {
+            remove(key);
+            return null;
+        }
+        return entry;
+    }
+
+    public boolean isFresh(Entry entry) {
+        return entry.ageMillis() < properties.getMaxAge().toMillis();
+    }
+
+    public synchronized void put(String key, URI uri, String eTag, ResponseEntity<byte[]> response) {
+        byte[] body = response.getBody();
+        long entrySize = body != null ? body.length : 0;
+        if (entrySize > properties.getMaxEntrySize().toBytes()) {
+            remove(key);
+            return;
+        }
+        Entry previous = entries.put(key, new Entry(uri.getRawPath(), eTag, response, entrySize));
+        if (previous != null) {
+            sizeInBytes -= previous.getSizeInBytes();
+        }
+        sizeInBytes += entrySize;
+        evictEldest();
+    }
+
+    public synchronized void touch(String key, Entry entry) {
+        if (entries.get(key) == entry) {
+            entry.storedAt = System.currentTimeMillis();
+        }
+    }
+
+    public synchronized void evict(String key) {
+        remove(key);
+    }
+
+    public synchronized void evictPath(String path) {
+        Iterator<Map.Entry<String, Entry>> iterator = entries.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Entry entry = iterator.next().getValue();
+            if (path.equals(entry.getPath()) || path.startsWith(entry.getPath() + "/")) {
+                sizeInBytes -= entry.getSizeInBytes();
+                iterator.remove();
+            }
+        }
+    }
+
+    public void hit() {
+        hits.increment();
+    }
+
+    public void revalidated() {
+        revalidations.increment();
+    }
+
+    public void miss() {
+        misses.increment();
+    }
+
+    private synchronized int size() {
+        return entries.size();
+    }
+
+    private synchronized long sizeInBytes() {
+        return sizeInBytes;
+    }
+
+    private void remove(String key) {
+        Entry removed = entries.remove(key);
+        if (removed != null) {
+            sizeInBytes -= removed.getSizeInBytes();
+        }
+    }
+
+    private void evictEldest() {
+        Iterator<Entry> iterator = entries.values().iterator();
+        while (sizeInBytes > properties.getMaxSize().toBytes() && iterator.hasNext()) {
+            sizeInBytes -= iterator.next().getSizeInBytes();
+            iterator.remove();
+            evictions.increment();
+        }
+    }
+
+    private static Counter requests(MeterRegistry registry, String result) {
+        return Counter.builder(METRIC_PREFIX + "requests")
+                .tag("result", result)
+                .register(registry);
+    }
+
+    @Getter
+    @RequiredArgsConstructor
+    public static class Entry {
+        private final String path;
+        private final String eTag;
+        private final ResponseEntity<byte[]> response;
+        private final long sizeInBytes;
+        private volatile long storedAt = System.currentTimeMillis();
+
+        private long ageMillis() {
+            return System.currentTimeMillis() - storedAt;
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package ru.practicum.shareit.client;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "shareit-gateway.cache")
+public class ResponseCacheProperties {
+
+    private boolean enabled = true;
+
+    private DataSize maxSize = DataSize.ofMegabytes(16);
+
+    private DataSize maxEntrySize = DataSize.ofKilobytes(256);
+
+    private Duration ttl = Duration.ofMinutes(10);
+
+    private Duration maxAge = Duration.ZERO;
+}
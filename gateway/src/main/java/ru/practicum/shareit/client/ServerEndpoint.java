@@ -0,0 +1,61 @@
+package ru.practicum.shareit.client;
+
+import lombok.Getter;
+
+import java.net.URI;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class ServerEndpoint {
+
+    @Getter
+    private final String baseUrl;
+    private final AtomicInteger outstanding = new AtomicInteger();
+    @Getter
+    private volatile boolean healthy = true;
+    private int consecutiveSuccesses;
+    private int consecutiveFailures;
+
+    public ServerEndpoint(URI uri) {
+        String url = uri.toString();
+        this.baseUrl = url.endsWith("/") ? url.substring(0, url.length() - 1) : url;
+    }
+
+    public URI resolve(URI relative) {
+        return URI.create(baseUrl + relative);
+    }
+
+    public int getOutstanding() {
+        return outstanding.get();
+    }
+
+    public void acquire() {
+        outstanding.incrementAndGet();
+    }
+
+    public void release() {
+        outstanding.decrementAndGet();
+    }
+
+    synchronized boolean recordSuccess(int healthyThreshold) {
+        consecutiveFailures = 0;
+        if (healthy || ++consecutiveSuccesses < healthyThreshold) {
+            return false;
+        }
+        healthy = true;
+        return true;
+    }
+
+    synchronized boolean recordFailure(int unhealthyThreshold) {
+        consecutiveSuccesses = 0;
+        if (!healthy || ++consecutiveFailures < unhealthyThreshold) {
+            return false;
+        }
+        healthy = false;
+        return true;
+    }
+
+    @Override
+    public String toString() {
+        return baseUrl;
+    }
+}
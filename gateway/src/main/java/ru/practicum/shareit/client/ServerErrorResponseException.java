@@ -0,0 +1,8 @@
+package ru.practicum.shareit.client;
+
+public class ServerErrorResponseException extends RuntimeException {
+
+    public ServerErrorResponseException(int status) {
+        super("Сервер ответил статусом " + status);
+    }
+}
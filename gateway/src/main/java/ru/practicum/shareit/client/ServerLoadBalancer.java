@@ -0,0 +1,186 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.http.HttpResponse;
+import org.apache.http.HttpStatus;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.client.methods.HttpUriRequest;
+import org.apache.http.client.methods.RequestBuilder;
+import org.apache.http.concurrent.FutureCallback;
+import org.apache.http.impl.nio.client.CloseableHttpAsyncClient;
+import org.apache.http.util.EntityUtils;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.net.URI;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+@Slf4j
+@Component
+public class ServerLoadBalancer {
+
+    private static final String METRIC_PREFIX = "shareit.gateway.lb.";
+
+    private final LoadBalancerProperties properties;
+    private final CloseableHttpAsyncClient httpClient;
+    private final List<ServerEndpoint> endpoints;
+    private final RequestConfig healthCheckConfig;
+    private final ScheduledExecutorService healthChecker;
+    private volatile List<ServerEndpoint> healthyEndpoints;
+
+    public ServerLoadBalancer(LoadBalancerProperties properties, CloseableHttpAsyncClient httpClient,
+                              MeterRegistry registry) {
+        if (properties.getUrls().isEmpty()) {
+            throw new IllegalStateException("Не задан ни один адрес shareit-server");
+        }
+        this.properties = properties;
+        this.httpClient = httpClient;
+        this.endpoints = properties.getUrls().stream()
+                .map(ServerEndpoint::new)
+                .collect(Collectors.toUnmodifiableList());
+        this.healthyEndpoints = endpoints;
+        int timeout = (int) properties.getHealthCheckTimeout().toMillis();
+        this.healthCheckConfig = RequestConfig.custom()
+                .setConnectTimeout(timeout)
+                .setSocketTimeout(timeout)
+                .setConnectionRequestTimeout(timeout)
+                .build();
+
+        for (ServerEndpoint endpoint : endpoints) {
+            Gauge.builder(METRIC_PREFIX + "outstanding", endpoint, ServerEndpoint::getOutstanding)
+                    .tag("instance", endpoint.getBaseUrl())
+                    .register(registry);
+            Gauge.builder(METRIC_PREFIX + "healthy", endpoint, e -> e.isHealthy() ? 1 : 0)
+                    .tag("instance", endpoint.getBaseUrl())
+                    .register(registry);
+        }
+
+        long interval = properties.getHealthCheckInterval().toMillis();
+        healthChecker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "shareit-server-health-checker");
+            thread.setDaemon(true);
+            return thread;
+        });
+        healthChecker.scheduleWithFixedDelay(this::checkHealth, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    public ServerEndpoint choose() {
+        List<ServerEndpoint> candidates = healthyEndpoints;
+        if (candidates.isEmpty()) {
+            candidates = endpoints;
+        }
+        int size = candidates.size();
+        if (size == 1) {
+            return candidates.get(0);
+        }
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int first = random.nextInt(size);
+        int second = random.nextInt(size - 1);
+        if (second >= first) {
+            second++;
+        }
+        ServerEndpoint a = candidates.get(first);
+        ServerEndpoint b = candidates.get(second);
+        return a.getOutstanding() <= b.getOutstanding() ? a : b;
+    }
+
+    @Nullable
+    public ServerEndpoint chooseOther(ServerEndpoint excluded) {
+        ServerEndpoint chosen = null;
+        for (ServerEndpoint endpoint : healthyEndpoints) {
+            if (endpoint != excluded
+                    && (chosen == null || endpoint.getOutstanding() < chosen.getOutstanding())) {
+                chosen = endpoint;
+            }
+        }
+        return chosen;
+    }
+
+    public List<ServerEndpoint> getEndpoints() {
+        return endpoints;
+    }
+
+    public List<ServerEndpoint> getHealthyEndpoints() {
+        return healthyEndpoints;
+    }
+
+    public void onConnectionFailure(ServerEndpoint endpoint) {
+        if (endpoint.recordFailure(1)) {
+            log.warn("Экземпляр {} недоступен, выведен из ротации", endpoint);
+            updateHealthyEndpoints();
+        }
+    }
+
+    public CompletableFuture<Void> checkHealth() {
+        return CompletableFuture.allOf(endpoints.stream()
+                .map(this::checkHealth)
+                .toArray(CompletableFuture[]::new));
+    }
+
+    private CompletableFuture<Void> checkHealth(ServerEndpoint endpoint) {
+        CompletableFuture<Void> result = new CompletableFuture<>();
+        HttpUriRequest request = RequestBuilder.get(endpoint.resolve(URI.create(properties.getHealthPath())))
+                .setConfig(healthCheckConfig)
+                .build();
+        httpClient.execute(request, new FutureCallback<>() {
+            @Override
+            public void completed(HttpResponse response) {
+                EntityUtils.consumeQuietly(response.getEntity());
+                int status = response.getStatusLine().getStatusCode();
+                if (status == HttpStatus.SC_OK) {
+                    onHealthy(endpoint);
+                } else {
+                    onUnhealthy(endpoint, "статус " + status);
+                }
+                result.complete(null);
+            }
+
+            @Override
+            public void failed(Exception e) {
+                onUnhealthy(endpoint, e.toString());
+                result.complete(null);
+            }
+
+            @Override
+            public void cancelled() {
+                result.complete(null);
+            }
+        });
+        return result;
+    }
+
+    private void onHealthy(ServerEndpoint endpoint) {
+        if (endpoint.recordSuccess(properties.getHealthyThreshold())) {
+            log.info("Экземпляр {} снова доступен, возвращён в ротацию", endpoint);
+            updateHealthyEndpoints();
+        }
+    }
+
+    private void onUnhealthy(ServerEndpoint endpoint, String reason) {
+        log.debug("Проверка здоровья {} не пройдена: {}", endpoint, reason);
+        if (endpoint.recordFailure(properties.getUnhealthyThreshold())) {
+            log.warn("Экземпляр {} не проходит проверку здоровья, выведен из ротации", endpoint);
+            updateHealthyEndpoints();
+        }
+    }
+
+    private synchronized void updateHealthyEndpoints() {
+        healthyEndpoints = endpoints.stream()
+                .filter(ServerEndpoint::isHealthy)
+                .collect(Collectors.toUnmodifiableList());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        healthChecker.shutdownNow();
+    }
+}
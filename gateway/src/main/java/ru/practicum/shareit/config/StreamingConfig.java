@@ -0,0 +1,29 @@
+package ru.practicum.shareit.config;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.time.Duration;
+
+@Configuration
+public class StreamingConfig implements WebMvcConfigurer {
+
+    private final ThreadPoolTaskExecutor streamingExecutor;
+    private final Duration timeout;
+
+    public StreamingConfig(@Qualifier("shareItServerStreamingExecutor") ThreadPoolTaskExecutor streamingExecutor,
+                           @Value("${shareit-gateway.streaming.timeout:10m}") Duration timeout) {
+        this.streamingExecutor = streamingExecutor;
+        this.timeout = timeout;
+    }
+
+    @Override
+    public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+        configurer.setTaskExecutor(streamingExecutor);
+        configurer.setDefaultTimeout(timeout.toMillis());
+    }
+}
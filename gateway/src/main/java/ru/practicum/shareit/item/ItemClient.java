@@ -1,46 +1,48 @@
 package ru.practicum.shareit.item;
 
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.lang.Nullable;
 import org.springframework.stereotype.Service;
-import org.springframework.web.util.DefaultUriBuilderFactory;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.BaseClientSupport;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 
+import java.io.InputStream;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 @Service
 public class ItemClient extends BaseClient {
 
+    private static final String CLIENT_NAME = "items";
     private static final String API_PREFIX = "/items";
 
     @Autowired
-    public ItemClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
-        super(
-                builder
-                        .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                        .build()
-        );
+    public ItemClient(BaseClientSupport support) {
+        super(API_PREFIX, CLIENT_NAME, support);
+    }
+
+    public <T> CompletableFuture<ResponseEntity<byte[]>> createItem(
+            long userId, ItemDto itemDto, @Nullable String idempotencyKey) {
+        return post("", userId, itemDto, idempotencyKey);
     }
 
-    public <T> ResponseEntity<Object> createItem(long userId, ItemDto itemDto) {
-        return post("", userId, itemDto);
+    public CompletableFuture<ResponseEntity<byte[]>> createItems(long userId, InputStream items) {
+        return postStream("/bulk", userId, items);
     }
 
-    public <T> ResponseEntity<Object> updateItem(long userId, long itemId, ItemDto itemDto) {
+    public <T> CompletableFuture<ResponseEntity<byte[]>> updateItem(long userId, long itemId, ItemDto itemDto) {
         return patch("/" + itemId, userId, itemDto);
     }
 
-    public ResponseEntity<Object> getItem(long itemId, long userId) {
-        return get("/" + itemId, userId, null);
+    public CompletableFuture<ResponseEntity<byte[]>> getItem(long itemId, long userId) {
+        return getCachedHedged("/" + itemId, userId);
     }
 
-    public ResponseEntity<Object> getAllUserItems(long userId, Integer from, Integer size) {
+    public CompletableFuture<ResponseEntity<byte[]>> getAllUserItems(long userId, Integer from, Integer size) {
         Map<String, Object> parameters = Map.of(
                 "from", from,
                 "size", size
@@ -48,7 +50,12 @@ public class ItemClient extends BaseClient {
         return get("?from={from}&size={size}", userId, parameters);
     }
 
-    public ResponseEntity<Object> searchItems(long userId, String searchText, Integer from, Integer size) {
+    public CompletableFuture<ResponseEntity<StreamingResponseBody>> exportAllUserItems(long userId) {
+        return stream("/export", userId);
+    }
+
+    public CompletableFuture<ResponseEntity<byte[]>> searchItems(
+            long userId, String searchText, Integer from, Integer size) {
         Map<String, Object> parameters = Map.of(
                 "text", searchText,
                 "from", from,
@@ -57,7 +64,7 @@ public class ItemClient extends BaseClient {
         return get("/search?text={text}&from={from}&size={size}", userId, parameters);
     }
 
-    public <T> ResponseEntity<Object> postComment(long userId, long itemId, CommentDto commentDto) {
+    public <T> CompletableFuture<ResponseEntity<byte[]>> postComment(long userId, long itemId, CommentDto commentDto) {
         return post("/" + itemId + "/comment", userId, null, commentDto);
     }
 }
@@ -4,12 +4,16 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 
+import javax.servlet.http.HttpServletRequest;
 import javax.validation.Valid;
 import javax.validation.constraints.Max;
 import javax.validation.constraints.Min;
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
 
 @Validated
 @RestController
@@ -20,15 +24,23 @@ public class ItemGatewayController {
     private final ItemClient itemClient;
 
     @PostMapping
-    public ResponseEntity<Object> createItem(
+    public CompletableFuture<ResponseEntity<byte[]>> createItem(
             @RequestHeader("X-Sharer-User-Id") long userId,
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey,
             @Valid @RequestBody ItemDto itemDto) {
-        return itemClient.createItem(userId, itemDto);
+        return itemClient.createItem(userId, itemDto, idempotencyKey);
 
     }
 
+    @PostMapping("/bulk")
+    public CompletableFuture<ResponseEntity<byte[]>> createItems(
+            @RequestHeader("X-Sharer-User-Id") long userId,
+            HttpServletRequest request) throws IOException {
+        return itemClient.createItems(userId, request.getInputStream());
+    }
+
     @PatchMapping("/{itemId}")
-    public ResponseEntity<Object> updateItem(
+    public CompletableFuture<ResponseEntity<byte[]>> updateItem(
             @RequestHeader("X-Sharer-User-Id") long userId,
             @PathVariable long itemId,
             @RequestBody ItemDto itemDto) {
@@ -36,22 +48,28 @@ public class ItemGatewayController {
     }
 
     @GetMapping("/{itemId}")
-    public ResponseEntity<Object> getItem(
+    public CompletableFuture<ResponseEntity<byte[]>> getItem(
             @RequestHeader("X-Sharer-User-Id") long userId,
             @PathVariable long itemId) {
         return itemClient.getItem(itemId, userId);
     }
 
     @GetMapping
-    public ResponseEntity<Object> getAllUserItems(
+    public CompletableFuture<ResponseEntity<byte[]>> getAllUserItems(
             @RequestHeader("X-Sharer-User-Id") long userId,
             @RequestParam(value = "from", defaultValue = "0", required = false) @Min(0) Integer from,
             @RequestParam(value = "size", defaultValue = "10", required = false) @Min(1) @Max(100) Integer size) {
         return itemClient.getAllUserItems(userId, from, size);
     }
 
+    @GetMapping("/export")
+    public CompletableFuture<ResponseEntity<StreamingResponseBody>> exportAllUserItems(
+            @RequestHeader("X-Sharer-User-Id") long userId) {
+        return itemClient.exportAllUserItems(userId);
+    }
+
     @GetMapping("/search")
-    public ResponseEntity<Object> searchItems(
+    public CompletableFuture<ResponseEntity<byte[]>> searchItems(
             @RequestHeader("X-Sharer-User-Id") long userId,
             @RequestParam("text") String searchText,
             @RequestParam(value = "from", defaultValue = "0", required = false) @Min(0) Integer from,
@@ -60,7 +78,7 @@ public class ItemGatewayController {
     }
 
     @PostMapping("/{itemId}/comment")
-    public ResponseEntity<Object> postComment(
+    public CompletableFuture<ResponseEntity<byte[]>> postComment(
             @RequestHeader("X-Sharer-User-Id") long userId,
             @PathVariable long itemId,
             @Valid @RequestBody CommentDto commentDto) {
@@ -0,0 +1,60 @@
+package ru.practicum.shareit.ratelimit;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import javax.servlet.DispatcherType;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class RateLimitInterceptor implements HandlerInterceptor {
+
+    private static final String USER_HEADER = "X-Sharer-User-Id";
+    private static final long NANOS_PER_SECOND = TimeUnit.SECONDS.toNanos(1);
+    private static final String ERROR_BODY = "{\"error\":\"Превышен лимит запросов\"}";
+
+    private final RateLimiter rateLimiter;
+    private final RateLimitProperties properties;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler)
+            throws IOException {
+        if (!properties.isEnabled() || request.getDispatcherType() != DispatcherType.REQUEST) {
+            return true;
+        }
+        String route = (String) request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        if (route == null) {
+            return true;
+        }
+        String client = request.getHeader(USER_HEADER);
+        if (client == null) {
+            client = request.getRemoteAddr();
+        }
+
+        long waitNanos = rateLimiter.tryAcquire(client + "|" + route, properties.budgetFor(route));
+        if (waitNanos == 0) {
+            return true;
+        }
+
+        long retryAfterSeconds = (waitNanos + NANOS_PER_SECOND - 1) / NANOS_PER_SECOND;
+        log.warn("Превышен лимит запросов для '{}' на '{}'", client, route);
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        response.getWriter().write(ERROR_BODY);
+        return false;
+    }
+}
@@ -0,0 +1,40 @@
+package ru.practicum.shareit.ratelimit;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "shareit-gateway.rate-limit")
+public class RateLimitProperties {
+
+    private boolean enabled = true;
+
+    private Budget defaultBudget = new Budget(100, Duration.ofSeconds(1));
+
+    private Map<String, Budget> routes = new HashMap<>();
+
+    private Duration evictionInterval = Duration.ofSeconds(30);
+
+    private int maxBuckets = 100_000;
+
+    public Budget budgetFor(String route) {
+        return routes.getOrDefault(route, defaultBudget);
+    }
+
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Budget {
+        private long capacity;
+        private Duration period;
+    }
+}
@@ -0,0 +1,76 @@
+package ru.practicum.shareit.ratelimit;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@Slf4j
+@Component
+public class RateLimiter {
+
+    private final ConcurrentMap<String, TokenBucket> buckets = new ConcurrentHashMap<>();
+    private final AtomicInteger bucketCount = new AtomicInteger();
+    private final int maxBuckets;
+    private final long evictionIntervalNanos;
+    private final ScheduledExecutorService evictor;
+
+    public RateLimiter(RateLimitProperties properties) {
+        this.maxBuckets = properties.getMaxBuckets();
+        this.evictionIntervalNanos = properties.getEvictionInterval().toNanos();
+        long interval = properties.getEvictionInterval().toMillis();
+        evictor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "rate-limit-bucket-evictor");
+            thread.setDaemon(true);
+            return thread;
+        });
+        evictor.scheduleWithFixedDelay(this::evictIdle, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Возвращает 0, если запрос укладывается в бюджет, иначе — сколько наносекунд ждать до следующей попытки.
+     * Когда в таблице уже {@code maxBuckets} ключей, новые ключи не заводятся до очередной чистки:
+     * поток запросов с уникальными идентификаторами не может раздуть память шлюза.
+     */
+    public long tryAcquire(String key, RateLimitProperties.Budget budget) {
+        TokenBucket bucket = buckets.get(key);
+        if (bucket == null) {
+            bucket = buckets.computeIfAbsent(key, k -> {
+                if (bucketCount.incrementAndGet() > maxBuckets) {
+                    bucketCount.decrementAndGet();
+                    return null;
+                }
+                return new TokenBucket(budget.getCapacity(), budget.getPeriod().toNanos());
+            });
+            if (bucket == null) {
+                log.debug("Достигнут предел в {} счетчиков лимита запросов, ключ '{}' отклонен", maxBuckets, key);
+                return evictionIntervalNanos;
+            }
+        }
+        return bucket.tryConsume(System.nanoTime());
+    }
+
+    public void evictIdle() {
+        long now = System.nanoTime();
+        buckets.forEach((key, bucket) -> {
+            if (bucket.isFull(now) && buckets.remove(key, bucket)) {
+                bucketCount.decrementAndGet();
+            }
+        });
+    }
+
+    public int size() {
+        return buckets.size();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        evictor.shutdownNow();
+    }
+}
@@ -0,0 +1,33 @@
+package ru.practicum.shareit.ratelimit;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+public class TokenBucket {
+
+    private final long nanosPerToken;
+    private final long burstNanos;
+    private final AtomicLong fullAt = new AtomicLong(Long.MIN_VALUE);
+
+    public TokenBucket(long capacity, long periodNanos) {
+        this.nanosPerToken = Math.max(1, periodNanos / capacity);
+        this.burstNanos = nanosPerToken * capacity;
+    }
+
+    public long tryConsume(long now) {
+        while (true) {
+            long current = fullAt.get();
+            long next = Math.max(current, now) + nanosPerToken;
+            long allowedAt = next - burstNanos;
+            if (allowedAt > now) {
+                return allowedAt - now;
+            }
+            if (fullAt.compareAndSet(current, next)) {
+                return 0;
+            }
+        }
+    }
+
+    public boolean isFull(long now) {
+        return fullAt.get() <= now;
+    }
+}
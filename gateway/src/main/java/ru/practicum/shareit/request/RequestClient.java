@@ -1,41 +1,35 @@
 package ru.practicum.shareit.request;
 
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
-import org.springframework.web.util.DefaultUriBuilderFactory;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.BaseClientSupport;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 @Service
 public class RequestClient extends BaseClient {
 
+    private static final String CLIENT_NAME = "requests";
     private static final String API_PREFIX = "/requests";
 
     @Autowired
-    public RequestClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
-        super(
-                builder
-                        .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                        .build()
-        );
+    public RequestClient(BaseClientSupport support) {
+        super(API_PREFIX, CLIENT_NAME, support);
     }
 
-    public <T> ResponseEntity<Object> createItemRequest(long userId, ItemRequestDto itemRequestDto) {
+    public <T> CompletableFuture<ResponseEntity<byte[]>> createItemRequest(long userId, ItemRequestDto itemRequestDto) {
         return post("", userId, itemRequestDto);
     }
 
-    public ResponseEntity<Object> getAllUserItemsRequests(long userId) {
+    public CompletableFuture<ResponseEntity<byte[]>> getAllUserItemsRequests(long userId) {
         return get("", userId, null);
     }
 
-    public ResponseEntity<Object> getAllItems(long userId, Integer from, Integer size) {
+    public CompletableFuture<ResponseEntity<byte[]>> getAllItems(long userId, Integer from, Integer size) {
         Map<String, Object> parameters = Map.of(
                 "from", from,
                 "size", size
@@ -43,7 +37,7 @@ public class RequestClient extends BaseClient {
         return get("/all?from={from}&size={size}", userId, parameters);
     }
 
-    public ResponseEntity<Object> getItemRequest(long userId, long requestId) {
-        return get("/" + requestId, userId, null);
+    public CompletableFuture<ResponseEntity<byte[]>> getItemRequest(long userId, long requestId) {
+        return getCached("/" + requestId, userId);
     }
 }
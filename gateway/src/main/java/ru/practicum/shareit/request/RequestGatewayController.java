@@ -9,6 +9,7 @@ import ru.practicum.shareit.request.dto.ItemRequestDto;
 import javax.validation.Valid;
 import javax.validation.constraints.Max;
 import javax.validation.constraints.Min;
+import java.util.concurrent.CompletableFuture;
 
 @Validated
 @RestController
@@ -19,7 +20,7 @@ public class RequestGatewayController {
     private final RequestClient requestClient;
 
     @PostMapping
-    public ResponseEntity<Object> createItem(
+    public CompletableFuture<ResponseEntity<byte[]>> createItem(
             @RequestHeader("X-Sharer-User-Id") long userId,
             @Valid @RequestBody ItemRequestDto itemRequestDto) {
         return requestClient.createItemRequest(userId, itemRequestDto);
@@ -27,13 +28,13 @@ public class RequestGatewayController {
     }
 
     @GetMapping
-    public ResponseEntity<Object> getAllUserItems(
+    public CompletableFuture<ResponseEntity<byte[]>> getAllUserItems(
             @RequestHeader("X-Sharer-User-Id") long userId) {
         return requestClient.getAllUserItemsRequests(userId);
     }
 
     @GetMapping("/all")
-    public ResponseEntity<Object> getAllItems(
+    public CompletableFuture<ResponseEntity<byte[]>> getAllItems(
             @RequestHeader("X-Sharer-User-Id") long userId,
             @RequestParam(value = "from", defaultValue = "0", required = false) @Min(0) Integer from,
             @RequestParam(value = "size", defaultValue = "10", required = false) @Min(1) @Max(100) Integer size) {
@@ -41,7 +42,7 @@ public class RequestGatewayController {
     }
 
     @GetMapping("/{requestId}")
-    public ResponseEntity<Object> getItemRequest(
+    public CompletableFuture<ResponseEntity<byte[]>> getItemRequest(
             @RequestHeader("X-Sharer-User-Id") long userId,
             @PathVariable long requestId) {
         return requestClient.getItemRequest(userId, requestId);
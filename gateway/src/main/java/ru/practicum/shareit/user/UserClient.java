@@ -1,47 +1,42 @@
 package ru.practicum.shareit.user;
 
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
-import org.springframework.web.util.DefaultUriBuilderFactory;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.BaseClientSupport;
 import ru.practicum.shareit.user.dto.UserDTO;
 
+import java.util.concurrent.CompletableFuture;
+
 @Service
 public class UserClient extends BaseClient {
 
+    private static final String CLIENT_NAME = "users";
     private static final String API_PREFIX = "/users";
 
     @Autowired
-    public UserClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
-        super(
-                builder
-                        .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                        .build()
-        );
+    public UserClient(BaseClientSupport support) {
+        super(API_PREFIX, CLIENT_NAME, support);
     }
 
-    public ResponseEntity<Object> createUser(UserDTO userDTO) {
+    public CompletableFuture<ResponseEntity<byte[]>> createUser(UserDTO userDTO) {
         return post("", userDTO);
     }
 
-    public <T> ResponseEntity<Object> updateUser(long userId, UserDTO userDTO) {
+    public <T> CompletableFuture<ResponseEntity<byte[]>> updateUser(long userId, UserDTO userDTO) {
         return patch("/" + userId, userDTO);
     }
 
-    public ResponseEntity<Object> getUser(long userId) {
-        return get("/" + userId);
+    public CompletableFuture<ResponseEntity<byte[]>> getUser(long userId) {
+        return getCached("/" + userId);
     }
 
-    public ResponseEntity<Object> getAllUsers() {
+    public CompletableFuture<ResponseEntity<byte[]>> getAllUsers() {
         return get("");
     }
 
-    public ResponseEntity<Object> deleteUser(long userId) {
+    public CompletableFuture<ResponseEntity<byte[]>> deleteUser(long userId) {
         return delete("/" + userId);
     }
 }
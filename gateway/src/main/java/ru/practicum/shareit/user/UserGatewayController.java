@@ -7,6 +7,7 @@ import org.springframework.web.bind.annotation.*;
 import ru.practicum.shareit.user.dto.UserDTO;
 
 import javax.validation.Valid;
+import java.util.concurrent.CompletableFuture;
 
 @Validated
 @RestController
@@ -17,28 +18,30 @@ public class UserGatewayController {
     private final UserClient userClient;
 
     @PostMapping
-    public ResponseEntity<Object> createUser(@Valid @RequestBody UserDTO userDto) {
+    public CompletableFuture<ResponseEntity<byte[]>> createUser(@Valid @RequestBody UserDTO userDto) {
         return userClient.createUser(userDto);
     }
 
     @PatchMapping("/{userId}")
-    public ResponseEntity<Object> updateUser(@PathVariable Long userId, @RequestBody UserDTO userDto) {
+    public CompletableFuture<ResponseEntity<byte[]>> updateUser(
+            @PathVariable Long userId,
+            @RequestBody UserDTO userDto) {
         return userClient.updateUser(userId, userDto);
     }
 
     @GetMapping("/{userId}")
-    public ResponseEntity<Object> getUser(@PathVariable long userId) {
+    public CompletableFuture<ResponseEntity<byte[]>> getUser(@PathVariable long userId) {
         return userClient.getUser(userId);
     }
 
     @DeleteMapping("/{userId}")
-    public ResponseEntity<Void> deleteUser(@PathVariable long userId) {
-        userClient.deleteUser(userId);
-        return ResponseEntity.noContent().build();
+    public CompletableFuture<ResponseEntity<Void>> deleteUser(@PathVariable long userId) {
+        return userClient.deleteUser(userId)
+                .thenApply(response -> ResponseEntity.noContent().build());
     }
 
     @GetMapping
-    public ResponseEntity<Object> getAllUsers() {
+    public CompletableFuture<ResponseEntity<byte[]>> getAllUsers() {
         return userClient.getAllUsers();
     }
 }
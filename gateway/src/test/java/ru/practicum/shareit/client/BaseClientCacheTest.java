@@ -0,0 +1,142 @@
+package ru.practicum.shareit.client;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.http.impl.nio.client.CloseableHttpAsyncClient;
+import org.apache.http.impl.nio.client.HttpAsyncClients;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.ResponseEntity;
+import ru.practicum.shareit.user.UserClient;
+import ru.practicum.shareit.user.dto.UserDTO;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BaseClientCacheTest {
+
+    private static final String USER = "{\"id\":1,\"name\":\"user\",\"email\":\"user@user.com\"}";
+    private static final String ETAG = "\"v1\"";
+
+    private final MeterRegistry registry = new SimpleMeterRegistry();
+    private final List<String> ifNoneMatch = new CopyOnWriteArrayList<>();
+
+    private HttpServer server;
+    private CloseableHttpAsyncClient httpClient;
+    private ServerLoadBalancer loadBalancer;
+    private ResponseCacheProperties cacheProperties;
+    private UserClient userClient;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.createContext("/users", this::handle);
+        server.start();
+
+        LoadBalancerProperties properties = new LoadBalancerProperties();
+        properties.setHealthCheckInterval(Duration.ofHours(1));
+        InetSocketAddress address = server.getAddress();
+        properties.getUrls().add(URI.create("http://" + address.getHostString() + ":" + address.getPort()));
+
+        httpClient = HttpAsyncClients.createDefault();
+        httpClient.start();
+        loadBalancer = new ServerLoadBalancer(properties, httpClient, registry);
+        cacheProperties = new ResponseCacheProperties();
+        userClient = new UserClient(new BaseClientSupport(httpClient, new ObjectMapper(),
+                new ResponseCache(cacheProperties, registry), new HttpClientProperties(), loadBalancer,
+                new RequestHedging(new HedgingProperties(), registry),
+                CircuitBreakerRegistry.ofDefaults(), BulkheadRegistry.ofDefaults(), registry, null, null));
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        loadBalancer.shutdown();
+        httpClient.close();
+        server.stop(0);
+    }
+
+    @Test
+    @DisplayName("Повторный запрос уходит с If-None-Match, а на 304 отдается тело из кеша")
+    void getUser_whenServerAnswersNotModified_thenCachedBodyReturned() throws Exception {
+        ResponseEntity<byte[]> first = userClient.getUser(1).get();
+        ResponseEntity<byte[]> second = userClient.getUser(1).get();
+
+        assertEquals(200, first.getStatusCodeValue());
+        assertEquals(200, second.getStatusCodeValue());
+        assertEquals(USER, new String(second.getBody(), StandardCharsets.UTF_8));
+        assertEquals(ETAG, second.getHeaders().getETag());
+        assertEquals(List.of("", ETAG), ifNoneMatch);
+        assertEquals(1, cacheRequests("miss"));
+        assertEquals(1, cacheRequests("revalidated"));
+    }
+
+    @Test
+    @DisplayName("В пределах max-age ответ отдается из кеша без запроса к серверу")
+    void getUser_whenEntryFresh_thenServerNotCalled() throws Exception {
+        cacheProperties.setMaxAge(Duration.ofHours(1));
+
+        userClient.getUser(1).get();
+        ResponseEntity<byte[]> second = userClient.getUser(1).get();
+
+        assertEquals(USER, new String(second.getBody(), StandardCharsets.UTF_8));
+        assertEquals(1, ifNoneMatch.size());
+        assertEquals(1, cacheRequests("hit"));
+    }
+
+    @Test
+    @DisplayName("Успешное изменение ресурса вытесняет его из кеша")
+    void updateUser_whenSuccessful_thenCachedEntryEvicted() throws Exception {
+        userClient.getUser(1).get();
+
+        userClient.updateUser(1, new UserDTO()).get();
+        userClient.getUser(1).get();
+
+        assertEquals(List.of("", ""), ifNoneMatch);
+        assertEquals(2, cacheRequests("miss"));
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        if (!"GET".equals(exchange.getRequestMethod())) {
+            respond(exchange, 200, USER);
+            return;
+        }
+        String condition = exchange.getRequestHeaders().getFirst("If-None-Match");
+        ifNoneMatch.add(condition != null ? condition : "");
+        exchange.getResponseHeaders().add("ETag", ETAG);
+        if (ETAG.equals(condition)) {
+            exchange.sendResponseHeaders(304, -1);
+            exchange.close();
+            return;
+        }
+        respond(exchange, 200, USER);
+    }
+
+    private double cacheRequests(String result) {
+        return registry.get("shareit.gateway.cache.requests").tag("result", result).counter().count();
+    }
+
+    private static void respond(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+}
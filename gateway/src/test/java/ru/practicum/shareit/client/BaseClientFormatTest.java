@@ -0,0 +1,166 @@
+package ru.practicum.shareit.client;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.http.impl.nio.client.CloseableHttpAsyncClient;
+import org.apache.http.impl.nio.client.HttpAsyncClients;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import ru.practicum.shareit.user.UserClient;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BaseClientFormatTest {
+
+    private static final String USER = "{\"id\":1,\"name\":\"user\",\"email\":\"user@user.com\"}";
+    private static final String NOT_FOUND = "{\"error\":\"Пользователя с id 404 нет в базе\"}";
+
+    private final MeterRegistry registry = new SimpleMeterRegistry();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final List<String> accepted = new CopyOnWriteArrayList<>();
+    private final List<String> ifNoneMatch = new CopyOnWriteArrayList<>();
+
+    private HttpServer server;
+    private CloseableHttpAsyncClient httpClient;
+    private ServerLoadBalancer loadBalancer;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.createContext("/users", this::handle);
+        server.start();
+
+        LoadBalancerProperties properties = new LoadBalancerProperties();
+        properties.setHealthCheckInterval(Duration.ofHours(1));
+        InetSocketAddress address = server.getAddress();
+        properties.getUrls().add(URI.create("http://" + address.getHostString() + ":" + address.getPort()));
+
+        httpClient = HttpAsyncClients.createDefault();
+        httpClient.start();
+        loadBalancer = new ServerLoadBalancer(properties, httpClient, registry);
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        loadBalancer.shutdown();
+        httpClient.close();
+        server.stop(0);
+    }
+
+    @ParameterizedTest
+    @EnumSource(value = InternalFormat.class, names = {"SMILE", "CBOR"})
+    @DisplayName("Шлюз запрашивает бинарный формат, а клиенту отдает JSON")
+    void getUser_whenInternalFormatBinary_thenAcceptSentAndBodyTranscoded(InternalFormat format) throws Exception {
+        ResponseEntity<byte[]> response = createUserClient(format).getUser(1).get();
+
+        assertEquals(List.of(format.getMediaType().toString()), accepted);
+        assertEquals(200, response.getStatusCodeValue());
+        assertEquals(MediaType.APPLICATION_JSON, response.getHeaders().getContentType());
+        assertEquals(USER, new String(response.getBody(), StandardCharsets.UTF_8));
+    }
+
+    @ParameterizedTest
+    @EnumSource(value = InternalFormat.class, names = {"SMILE", "CBOR"})
+    @DisplayName("ResponseError в бинарном формате перекодируется в JSON с исходным статусом")
+    void getUser_whenErrorInBinaryFormat_thenErrorTranscoded(InternalFormat format) throws Exception {
+        ResponseEntity<byte[]> response = createUserClient(format).getUser(404).get();
+
+        assertEquals(404, response.getStatusCodeValue());
+        assertEquals(MediaType.APPLICATION_JSON, response.getHeaders().getContentType());
+        assertEquals(NOT_FOUND, new String(response.getBody(), StandardCharsets.UTF_8));
+    }
+
+    @ParameterizedTest
+    @EnumSource(value = InternalFormat.class, names = {"SMILE", "CBOR"})
+    @DisplayName("ETag бинарного ответа отдается клиенту, а на 304 возвращается JSON из кеша")
+    void getUser_whenBinaryResponseNotModified_thenCachedJsonReturned(InternalFormat format) throws Exception {
+        UserClient userClient = createUserClient(format);
+
+        ResponseEntity<byte[]> first = userClient.getUser(1).get();
+        ResponseEntity<byte[]> second = userClient.getUser(1).get();
+
+        assertEquals(List.of("", eTag(format)), ifNoneMatch);
+        assertEquals(eTag(format), first.getHeaders().getETag());
+        assertEquals(200, second.getStatusCodeValue());
+        assertEquals(eTag(format), second.getHeaders().getETag());
+        assertEquals(MediaType.APPLICATION_JSON, second.getHeaders().getContentType());
+        assertEquals(USER, new String(second.getBody(), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    @DisplayName("Во внутреннем формате JSON ответ передается без перекодирования")
+    void getUser_whenInternalFormatJson_thenBodyPassedThrough() throws Exception {
+        ResponseEntity<byte[]> response = createUserClient(InternalFormat.JSON).getUser(1).get();
+
+        assertEquals(List.of(MediaType.APPLICATION_JSON_VALUE), accepted);
+        assertEquals(MediaType.APPLICATION_JSON, response.getHeaders().getContentType());
+        assertEquals(USER, new String(response.getBody(), StandardCharsets.UTF_8));
+    }
+
+    private UserClient createUserClient(InternalFormat format) {
+        HttpClientProperties httpClientProperties = new HttpClientProperties();
+        httpClientProperties.setInternalFormat(format);
+        return new UserClient(new BaseClientSupport(httpClient, objectMapper,
+                new ResponseCache(new ResponseCacheProperties(), registry), httpClientProperties, loadBalancer,
+                new RequestHedging(new HedgingProperties(), registry),
+                CircuitBreakerRegistry.ofDefaults(), BulkheadRegistry.ofDefaults(), registry, null, null));
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        String accept = exchange.getRequestHeaders().getFirst("Accept");
+        accepted.add(accept);
+        InternalFormat format = Arrays.stream(InternalFormat.values())
+                .filter(candidate -> candidate.getMediaType().toString().equals(accept))
+                .findFirst()
+                .orElse(InternalFormat.JSON);
+
+        if (exchange.getRequestURI().getPath().equals("/users/404")) {
+            respond(exchange, 404, format, NOT_FOUND);
+            return;
+        }
+        String condition = exchange.getRequestHeaders().getFirst("If-None-Match");
+        ifNoneMatch.add(condition != null ? condition : "");
+        exchange.getResponseHeaders().add("ETag", eTag(format));
+        if (eTag(format).equals(condition)) {
+            exchange.sendResponseHeaders(304, -1);
+            exchange.close();
+            return;
+        }
+        respond(exchange, 200, format, USER);
+    }
+
+    private void respond(HttpExchange exchange, int status, InternalFormat format, String json) throws IOException {
+        byte[] bytes = new ObjectMapper(format.getFactory().copy()).writeValueAsBytes(objectMapper.readTree(json));
+        exchange.getResponseHeaders().add("Content-Type", format.getMediaType().toString());
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    private static String eTag(InternalFormat format) {
+        return "\"" + format.name().toLowerCase() + "\"";
+    }
+}
@@ -0,0 +1,202 @@
+package ru.practicum.shareit.client;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.http.impl.nio.client.CloseableHttpAsyncClient;
+import org.apache.http.impl.nio.client.HttpAsyncClients;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.client.ResourceAccessException;
+import ru.practicum.shareit.item.ItemClient;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.user.UserClient;
+import ru.practicum.shareit.user.dto.UserDTO;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BaseClientProxyTest {
+
+    private static final String NOT_FOUND = "{\"error\":\"Пользователя с id 404 нет в базе\"}";
+    private static final String BAD_REQUEST = "{\"error\":\"Поле email не может быть пустым\"}";
+    private static final String ERROR_CONTENT_TYPE = "application/json;charset=UTF-8";
+
+    private final MeterRegistry registry = new SimpleMeterRegistry();
+    private final Map<String, String> received = new ConcurrentHashMap<>();
+
+    private HttpServer server;
+    private CloseableHttpAsyncClient httpClient;
+    private ServerLoadBalancer loadBalancer;
+    private BaseClientSupport support;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.createContext("/users", this::handleUsers);
+        server.createContext("/items", this::handleItems);
+        server.start();
+
+        InetSocketAddress address = server.getAddress();
+        httpClient = HttpAsyncClients.createDefault();
+        httpClient.start();
+        support = createSupport(URI.create("http://" + address.getHostString() + ":" + address.getPort()));
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        loadBalancer.shutdown();
+        httpClient.close();
+        server.stop(0);
+    }
+
+    @Test
+    @DisplayName("Ответ 404 с ResponseError передается клиенту без изменений")
+    void getUser_whenServerAnswersNotFound_thenStatusBodyAndContentTypePassedThrough() throws Exception {
+        ResponseEntity<byte[]> response = new UserClient(support).getUser(404).get();
+
+        assertEquals(404, response.getStatusCodeValue());
+        assertArrayEquals(NOT_FOUND.getBytes(StandardCharsets.UTF_8), response.getBody());
+        assertEquals(MediaType.parseMediaType(ERROR_CONTENT_TYPE), response.getHeaders().getContentType());
+    }
+
+    @Test
+    @DisplayName("Тело POST доходит до сервера, а ответ 400 с ResponseError возвращается без изменений")
+    void createUser_whenServerAnswersBadRequest_thenBodySentAndErrorPassedThrough() throws Exception {
+        UserDTO userDTO = new UserDTO();
+        userDTO.setName("user");
+
+        ResponseEntity<byte[]> response = new UserClient(support).createUser(userDTO).get();
+
+        assertEquals("POST", received.get("method"));
+        assertEquals(new ObjectMapper().writeValueAsString(userDTO), received.get("body"));
+        assertTrue(received.get("contentType").startsWith(MediaType.APPLICATION_JSON_VALUE));
+        assertEquals(400, response.getStatusCodeValue());
+        assertArrayEquals(BAD_REQUEST.getBytes(StandardCharsets.UTF_8), response.getBody());
+        assertEquals(MediaType.parseMediaType(ERROR_CONTENT_TYPE), response.getHeaders().getContentType());
+    }
+
+    @Test
+    @DisplayName("POST с пользователем передает заголовок X-Sharer-User-Id и возвращает ответ сервера")
+    void createItem_whenUserIdGiven_thenHeaderAndBodySent() throws Exception {
+        ItemDto itemDto = new ItemDto();
+        itemDto.setName("Щетка");
+        itemDto.setDescription("Для обуви");
+        itemDto.setAvailable(true);
+
+        ResponseEntity<byte[]> response = new ItemClient(support).createItem(7, itemDto, null).get();
+
+        assertEquals("7", received.get("userId"));
+        assertEquals(new ObjectMapper().writeValueAsString(itemDto), received.get("body"));
+        assertEquals(201, response.getStatusCodeValue());
+        assertEquals(received.get("body"), new String(response.getBody(), StandardCharsets.UTF_8));
+        assertEquals(MediaType.APPLICATION_JSON, response.getHeaders().getContentType());
+    }
+
+    @Test
+    @DisplayName("Обрыв ответа на середине тела завершает запрос ResourceAccessException")
+    void getUser_whenResponseTruncated_thenResourceAccessException() throws Exception {
+        try (ServerSocket socket = new ServerSocket(0, 1, InetAddress.getLoopbackAddress())) {
+            Thread truncating = new Thread(() -> {
+                try (Socket connection = socket.accept()) {
+                    connection.getInputStream().read(new byte[8192]);
+                    connection.getOutputStream().write(("HTTP/1.1 200 OK\r\nContent-Type: application/json\r\n"
+                            + "Content-Length: 100\r\n\r\n{\"id\":").getBytes(StandardCharsets.US_ASCII));
+                    connection.getOutputStream().flush();
+                } catch (IOException ignored) {
+                    // соединение закрывается в любом случае
+                }
+            });
+            truncating.start();
+            loadBalancer.shutdown();
+            UserClient userClient = new UserClient(createSupport(URI.create(
+                    "http://" + InetAddress.getLoopbackAddress().getHostAddress() + ":" + socket.getLocalPort())));
+
+            ExecutionException e = assertThrows(ExecutionException.class, () -> userClient.getUser(1).get());
+
+            assertInstanceOf(ResourceAccessException.class, e.getCause());
+            truncating.join();
+        }
+    }
+
+    @Test
+    @DisplayName("Отказ в соединении завершает запрос ResourceAccessException")
+    void getUser_whenConnectionRefused_thenResourceAccessException() throws IOException {
+        int closedPort;
+        try (ServerSocket socket = new ServerSocket(0, 1, InetAddress.getLoopbackAddress())) {
+            closedPort = socket.getLocalPort();
+        }
+        loadBalancer.shutdown();
+        UserClient userClient = new UserClient(createSupport(
+                URI.create("http://" + InetAddress.getLoopbackAddress().getHostAddress() + ":" + closedPort)));
+
+        ExecutionException e = assertThrows(ExecutionException.class, () -> userClient.getUser(1).get());
+
+        assertInstanceOf(ResourceAccessException.class, e.getCause());
+        assertTrue(received.isEmpty());
+    }
+
+    private BaseClientSupport createSupport(URI url) {
+        LoadBalancerProperties properties = new LoadBalancerProperties();
+        properties.setHealthCheckInterval(Duration.ofHours(1));
+        properties.getUrls().add(url);
+        loadBalancer = new ServerLoadBalancer(properties, httpClient, registry);
+        return new BaseClientSupport(httpClient, new ObjectMapper(),
+                new ResponseCache(new ResponseCacheProperties(), registry), new HttpClientProperties(), loadBalancer,
+                new RequestHedging(new HedgingProperties(), registry),
+                CircuitBreakerRegistry.ofDefaults(), BulkheadRegistry.ofDefaults(), registry, null, null);
+    }
+
+    private void handleUsers(HttpExchange exchange) throws IOException {
+        remember(exchange);
+        if ("POST".equals(exchange.getRequestMethod())) {
+            respond(exchange, 400, ERROR_CONTENT_TYPE, BAD_REQUEST);
+        } else {
+            respond(exchange, 404, ERROR_CONTENT_TYPE, NOT_FOUND);
+        }
+    }
+
+    private void handleItems(HttpExchange exchange) throws IOException {
+        remember(exchange);
+        respond(exchange, 201, MediaType.APPLICATION_JSON_VALUE, received.get("body"));
+    }
+
+    private void remember(HttpExchange exchange) throws IOException {
+        received.put("method", exchange.getRequestMethod());
+        received.put("body", new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8));
+        String contentType = exchange.getRequestHeaders().getFirst("Content-Type");
+        received.put("contentType", contentType != null ? contentType : "");
+        String userId = exchange.getRequestHeaders().getFirst("X-Sharer-User-Id");
+        received.put("userId", userId != null ? userId : "");
+    }
+
+    private static void respond(HttpExchange exchange, int status, String contentType, String body)
+            throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", contentType);
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+}
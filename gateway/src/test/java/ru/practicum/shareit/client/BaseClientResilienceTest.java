@@ -0,0 +1,195 @@
+package ru.practicum.shareit.client;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.http.impl.nio.client.CloseableHttpAsyncClient;
+import org.apache.http.impl.nio.client.HttpAsyncClients;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.ResponseEntity;
+import ru.practicum.shareit.booking.BookingClient;
+import ru.practicum.shareit.item.ItemClient;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BaseClientResilienceTest {
+
+    private static final int MAX_CONCURRENT_CALLS = 2;
+    private static final int MINIMUM_NUMBER_OF_CALLS = 4;
+    private static final Duration SLOW_CALL = Duration.ofMillis(100);
+
+    private final MeterRegistry registry = new SimpleMeterRegistry();
+    private final AtomicInteger itemHits = new AtomicInteger();
+    private final AtomicInteger itemStatus = new AtomicInteger(200);
+    private final AtomicInteger itemDelayMillis = new AtomicInteger();
+    private final CountDownLatch itemRelease = new CountDownLatch(1);
+    private volatile boolean blockItems;
+
+    private HttpServer server;
+    private ExecutorService serverExecutor;
+    private CloseableHttpAsyncClient httpClient;
+    private ServerLoadBalancer loadBalancer;
+    private CircuitBreakerRegistry circuitBreakerRegistry;
+    private ItemClient itemClient;
+    private BookingClient bookingClient;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        serverExecutor = Executors.newCachedThreadPool();
+        server.setExecutor(serverExecutor);
+        server.createContext("/items", this::handleItems);
+        server.createContext("/bookings", exchange -> respond(exchange, 200, "{\"id\":1}"));
+        server.start();
+
+        LoadBalancerProperties properties = new LoadBalancerProperties();
+        properties.setHealthCheckInterval(Duration.ofHours(1));
+        InetSocketAddress address = server.getAddress();
+        properties.getUrls().add(URI.create("http://" + address.getHostString() + ":" + address.getPort()));
+
+        httpClient = HttpAsyncClients.custom()
+                .setMaxConnPerRoute(10)
+                .setMaxConnTotal(10)
+                .build();
+        httpClient.start();
+        loadBalancer = new ServerLoadBalancer(properties, httpClient, registry);
+        ResponseCacheProperties cacheProperties = new ResponseCacheProperties();
+        cacheProperties.setEnabled(false);
+        circuitBreakerRegistry = CircuitBreakerRegistry.of(CircuitBreakerConfig.custom()
+                .slidingWindowSize(MINIMUM_NUMBER_OF_CALLS)
+                .minimumNumberOfCalls(MINIMUM_NUMBER_OF_CALLS)
+                .failureRateThreshold(50)
+                .slowCallDurationThreshold(SLOW_CALL)
+                .slowCallRateThreshold(50)
+                .waitDurationInOpenState(Duration.ofHours(1))
+                .build());
+        BulkheadRegistry bulkheadRegistry = BulkheadRegistry.of(BulkheadConfig.custom()
+                .maxConcurrentCalls(MAX_CONCURRENT_CALLS)
+                .maxWaitDuration(Duration.ZERO)
+                .build());
+        BaseClientSupport support = new BaseClientSupport(httpClient, new ObjectMapper(),
+                new ResponseCache(cacheProperties, registry), new HttpClientProperties(), loadBalancer,
+                new RequestHedging(new HedgingProperties(), registry),
+                circuitBreakerRegistry, bulkheadRegistry, registry, null, null);
+        itemClient = new ItemClient(support);
+        bookingClient = new BookingClient(support);
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        itemRelease.countDown();
+        loadBalancer.shutdown();
+        httpClient.close();
+        server.stop(0);
+        serverExecutor.shutdownNow();
+    }
+
+    @Test
+    @DisplayName("При занятых слотах bulkhead запрос сразу получает 503, а бронирования обслуживаются")
+    void getAllUserItems_whenBulkheadFull_thenFailFastAndBookingsNotAffected() throws Exception {
+        blockItems = true;
+        CompletableFuture<ResponseEntity<byte[]>> first = itemClient.getAllUserItems(1, 0, 10);
+        CompletableFuture<ResponseEntity<byte[]>> second = itemClient.getAllUserItems(1, 10, 10);
+
+        CompletableFuture<ResponseEntity<byte[]>> rejected = itemClient.getAllUserItems(1, 20, 10);
+
+        assertTrue(rejected.isDone());
+        assertEquals(503, rejected.get().getStatusCodeValue());
+        assertEquals(200, bookingClient.getBooking(1, 1).get(1, TimeUnit.SECONDS).getStatusCodeValue());
+
+        itemRelease.countDown();
+        assertEquals(200, first.get(1, TimeUnit.SECONDS).getStatusCodeValue());
+        assertEquals(200, second.get(1, TimeUnit.SECONDS).getStatusCodeValue());
+        assertEquals(MAX_CONCURRENT_CALLS, itemHits.get());
+        await(() -> itemClient.getAllUserItems(1, 30, 10).join().getStatusCodeValue() == 200);
+    }
+
+    @Test
+    @DisplayName("Предохранитель размыкается после ответов 5xx и перестает пускать запросы к серверу")
+    void getAllUserItems_whenServerErrors_thenBreakerOpensAndBookingsNotAffected() throws Exception {
+        itemStatus.set(500);
+
+        for (int i = 0; i < MINIMUM_NUMBER_OF_CALLS; i++) {
+            assertEquals(500, itemClient.getAllUserItems(1, i, 10).get(1, TimeUnit.SECONDS).getStatusCodeValue());
+        }
+        await(() -> breaker("items").getState() == CircuitBreaker.State.OPEN);
+
+        assertEquals(503, itemClient.getAllUserItems(1, 0, 10).get(1, TimeUnit.SECONDS).getStatusCodeValue());
+        assertEquals(MINIMUM_NUMBER_OF_CALLS, itemHits.get());
+        assertEquals(200, bookingClient.getBooking(1, 1).get(1, TimeUnit.SECONDS).getStatusCodeValue());
+        assertEquals(CircuitBreaker.State.CLOSED, breaker("bookings").getState());
+    }
+
+    @Test
+    @DisplayName("Предохранитель размыкается, когда сервер отвечает медленнее порога")
+    void getAllUserItems_whenServerSlow_thenBreakerOpens() throws Exception {
+        itemDelayMillis.set((int) SLOW_CALL.toMillis() * 2);
+
+        for (int i = 0; i < MINIMUM_NUMBER_OF_CALLS; i++) {
+            assertEquals(200, itemClient.getAllUserItems(1, i, 10).get(1, TimeUnit.SECONDS).getStatusCodeValue());
+        }
+        await(() -> breaker("items").getState() == CircuitBreaker.State.OPEN);
+
+        assertEquals(503, itemClient.getAllUserItems(1, 0, 10).get(1, TimeUnit.SECONDS).getStatusCodeValue());
+        assertEquals(MINIMUM_NUMBER_OF_CALLS, itemHits.get());
+    }
+
+    private void handleItems(HttpExchange exchange) throws IOException {
+        itemHits.incrementAndGet();
+        try {
+            if (blockItems) {
+                itemRelease.await(5, TimeUnit.SECONDS);
+            }
+            Thread.sleep(itemDelayMillis.get());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        respond(exchange, itemStatus.get(), "[]");
+    }
+
+    private CircuitBreaker breaker(String name) {
+        return circuitBreakerRegistry.circuitBreaker(name);
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(1);
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.nanoTime() < deadline, "Условие не выполнилось за секунду");
+            Thread.sleep(10);
+        }
+    }
+
+    private static void respond(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+}
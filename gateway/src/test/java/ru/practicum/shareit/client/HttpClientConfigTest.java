@@ -0,0 +1,132 @@
+package ru.practicum.shareit.client;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.http.HttpResponse;
+import org.apache.http.client.methods.HttpGet;
+import org.apache.http.impl.nio.client.CloseableHttpAsyncClient;
+import org.apache.http.impl.nio.conn.PoolingNHttpClientConnectionManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HttpClientConfigTest {
+
+    private final ApplicationContextRunner contextRunner = new ApplicationContextRunner()
+            .withUserConfiguration(HttpClientConfig.class)
+            .withPropertyValues(
+                    "shareit-server.http-client.max-total=3",
+                    "shareit-server.http-client.max-per-route=1",
+                    "shareit-server.http-client.io-threads=1");
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    private HttpServer server;
+    private ExecutorService serverExecutor;
+    private String url;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.createContext("/users", this::handle);
+        serverExecutor = Executors.newCachedThreadPool();
+        server.setExecutor(serverExecutor);
+        server.start();
+        InetSocketAddress address = server.getAddress();
+        url = "http://" + address.getHostString() + ":" + address.getPort() + "/users";
+    }
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        server.stop(0);
+        serverExecutor.shutdownNow();
+    }
+
+    @Test
+    @DisplayName("Размеры пула соединений берутся из shareit-server.http-client")
+    void shareItServerConnectionManager_whenPropertiesBound_thenPoolLimitsApplied() {
+        contextRunner.run(context -> {
+            HttpClientProperties properties = context.getBean(HttpClientProperties.class);
+            PoolingNHttpClientConnectionManager connectionManager =
+                    context.getBean(PoolingNHttpClientConnectionManager.class);
+
+            assertEquals(3, properties.getMaxTotal());
+            assertEquals(1, properties.getMaxPerRoute());
+            assertEquals(3, connectionManager.getMaxTotal());
+            assertEquals(1, connectionManager.getDefaultMaxPerRoute());
+            assertEquals(3, connectionManager.getTotalStats().getMax());
+        });
+    }
+
+    @Test
+    @DisplayName("Метрики пула показывают занятые, свободные и ожидающие соединения")
+    void shareItServerConnectionPoolMetrics_whenRequestsInFlight_thenGaugesReportPoolState() {
+        contextRunner.run(context -> {
+            MeterRegistry registry = new SimpleMeterRegistry();
+            context.getBean(MeterBinder.class).bindTo(registry);
+            CloseableHttpAsyncClient httpClient = context.getBean(CloseableHttpAsyncClient.class);
+
+            assertEquals(3, pool(registry, "max"));
+            assertEquals(0, pool(registry, "leased"));
+
+            Future<HttpResponse> first = httpClient.execute(new HttpGet(url), null);
+            Future<HttpResponse> second = httpClient.execute(new HttpGet(url), null);
+
+            waitFor(() -> pool(registry, "leased") == 1 && pool(registry, "pending") == 1);
+            assertEquals(0, pool(registry, "available"));
+
+            release.countDown();
+            assertEquals(200, first.get(5, TimeUnit.SECONDS).getStatusLine().getStatusCode());
+            assertEquals(200, second.get(5, TimeUnit.SECONDS).getStatusLine().getStatusCode());
+
+            waitFor(() -> pool(registry, "leased") == 0 && pool(registry, "available") == 1);
+            assertEquals(0, pool(registry, "pending"));
+        });
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try {
+            release.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        byte[] body = "[]".getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(200, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    private static double pool(MeterRegistry registry, String name) {
+        return registry.get("shareit.gateway.http.pool." + name).tag("client", "shareit-server").gauge().value();
+    }
+
+    private static void waitFor(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.nanoTime() < deadline, "Состояние пула не изменилось за 5 секунд");
+            Thread.sleep(10);
+        }
+    }
+}
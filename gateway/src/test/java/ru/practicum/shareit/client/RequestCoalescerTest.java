@@ -0,0 +1,139 @@
+package ru.practicum.shareit.client;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RequestCoalescerTest {
+
+    private static final int CALLERS = 16;
+
+    private final RequestCoalescer<String> coalescer = new RequestCoalescer<>();
+    private final ExecutorService executor = Executors.newFixedThreadPool(CALLERS);
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    @DisplayName("Одновременные одинаковые запросы разделяют один вызов сервера")
+    void coalesce_whenConcurrentIdenticalRequests_thenSingleUpstreamCall() throws Exception {
+        AtomicInteger calls = new AtomicInteger();
+        CompletableFuture<String> upstream = new CompletableFuture<>();
+
+        List<CompletableFuture<String>> responses = coalesceConcurrently("/users/1", () -> {
+            calls.incrementAndGet();
+            return upstream;
+        });
+        upstream.complete("user");
+
+        for (CompletableFuture<String> response : responses) {
+            assertEquals("user", response.get(1, TimeUnit.SECONDS));
+        }
+        assertEquals(1, calls.get());
+    }
+
+    @Test
+    @DisplayName("Ошибка вызова сервера доходит до всех ожидающих")
+    void coalesce_whenUpstreamFails_thenAllWaitersFail() throws Exception {
+        CompletableFuture<String> upstream = new CompletableFuture<>();
+        IllegalStateException failure = new IllegalStateException("upstream");
+
+        List<CompletableFuture<String>> responses = coalesceConcurrently("/users/1", () -> upstream);
+        upstream.completeExceptionally(failure);
+
+        for (CompletableFuture<String> response : responses) {
+            ExecutionException e = assertThrows(ExecutionException.class, () -> response.get(1, TimeUnit.SECONDS));
+            assertSame(failure, e.getCause());
+        }
+    }
+
+    @Test
+    @DisplayName("После завершения запрос с тем же ключом снова идет на сервер")
+    void coalesce_whenLeaderCompleted_thenNextRequestCallsUpstream() throws Exception {
+        AtomicInteger calls = new AtomicInteger();
+
+        coalescer.coalesce("/users/1", () -> CompletableFuture.completedFuture("first" + calls.incrementAndGet()));
+        String second = coalescer.coalesce("/users/1",
+                () -> CompletableFuture.completedFuture("second" + calls.incrementAndGet())).get();
+
+        assertEquals("second2", second);
+        assertEquals(2, calls.get());
+    }
+
+    @Test
+    @DisplayName("Исключение при запуске вызова не оставляет ключ занятым")
+    void coalesce_whenCallThrows_thenKeyReleased() throws Exception {
+        CompletableFuture<String> failed = coalescer.coalesce("/users/1", () -> {
+            throw new IllegalStateException("boom");
+        });
+
+        assertTrue(failed.isCompletedExceptionally());
+        assertEquals("user", coalescer.coalesce("/users/1", () -> CompletableFuture.completedFuture("user")).get());
+    }
+
+    @Test
+    @DisplayName("Отмена одного ожидающего не отменяет вызов для остальных")
+    void coalesce_whenWaiterCancelled_thenOthersStillComplete() throws Exception {
+        CompletableFuture<String> upstream = new CompletableFuture<>();
+        CompletableFuture<String> first = coalescer.coalesce("/users/1", () -> upstream);
+        CompletableFuture<String> second = coalescer.coalesce("/users/1", () -> upstream);
+
+        first.cancel(false);
+        upstream.complete("user");
+
+        assertFalse(upstream.isCancelled());
+        assertEquals("user", second.get(1, TimeUnit.SECONDS));
+    }
+
+    @Test
+    @DisplayName("Запросы с разными ключами не объединяются")
+    void coalesce_whenKeysDiffer_thenSeparateCalls() throws Exception {
+        AtomicInteger calls = new AtomicInteger();
+        CompletableFuture<String> upstream = new CompletableFuture<>();
+
+        coalescer.coalesce("/users/1", () -> {
+            calls.incrementAndGet();
+            return upstream;
+        });
+        coalescer.coalesce("/users/2", () -> {
+            calls.incrementAndGet();
+            return upstream;
+        });
+
+        assertEquals(2, calls.get());
+    }
+
+    private List<CompletableFuture<String>> coalesceConcurrently(
+            String key, Supplier<CompletableFuture<String>> call) throws Exception {
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<CompletableFuture<String>>> submitted = new ArrayList<>();
+        for (int i = 0; i < CALLERS; i++) {
+            submitted.add(executor.submit(() -> {
+                start.await();
+                return coalescer.coalesce(key, call);
+            }));
+        }
+        start.countDown();
+        List<CompletableFuture<String>> responses = new ArrayList<>();
+        for (Future<CompletableFuture<String>> future : submitted) {
+            responses.add(future.get(1, TimeUnit.SECONDS));
+        }
+        return responses;
+    }
+}
@@ -0,0 +1,187 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RequestHedgerTest {
+
+    private static final Duration DELAY = Duration.ofMillis(100);
+    private static final String REJECTED = "rejected";
+    private static final Predicate<String> IS_REJECTED = REJECTED::equals;
+
+    private final MeterRegistry registry = new SimpleMeterRegistry();
+    private ScheduledExecutorService scheduler;
+    private HedgingProperties properties;
+
+    @BeforeEach
+    void setUp() {
+        scheduler = Executors.newSingleThreadScheduledExecutor();
+        properties = new HedgingProperties();
+        properties.setEnabled(true);
+        properties.setMinDelay(DELAY);
+        properties.setMaxDelay(DELAY);
+        properties.setDelayRefreshInterval(Duration.ofHours(1));
+    }
+
+    @AfterEach
+    void tearDown() {
+        scheduler.shutdownNow();
+    }
+
+    @Test
+    @DisplayName("Дубль отправляется после задержки, его ответ побеждает, а основной запрос отменяется")
+    void execute_whenPrimaryIsSlow_thenBackupSentAfterDelayAndWins() throws Exception {
+        RequestHedger hedger = hedger();
+        CompletableFuture<String> primary = new CompletableFuture<>();
+        AtomicInteger backupCalls = new AtomicInteger();
+
+        long start = System.nanoTime();
+        String response = hedger.execute(() -> primary, () -> {
+            backupCalls.incrementAndGet();
+            return CompletableFuture.completedFuture("backup");
+        }, IS_REJECTED).get(1, TimeUnit.SECONDS);
+        awaitScheduler();
+
+        assertEquals("backup", response);
+        assertTrue(System.nanoTime() - start >= DELAY.toNanos());
+        assertEquals(1, backupCalls.get());
+        assertTrue(primary.isCancelled());
+        assertEquals(1, count("sent"));
+        assertEquals(1, count("wins"));
+    }
+
+    @Test
+    @DisplayName("Если основной запрос ответил до задержки, дубль не отправляется")
+    void execute_whenPrimaryIsFast_thenBackupNotSent() throws Exception {
+        RequestHedger hedger = hedger();
+        AtomicInteger backupCalls = new AtomicInteger();
+
+        String response = hedger.execute(() -> CompletableFuture.completedFuture("primary"), () -> {
+            backupCalls.incrementAndGet();
+            return CompletableFuture.completedFuture("backup");
+        }, IS_REJECTED).get(1, TimeUnit.SECONDS);
+        Thread.sleep(DELAY.toMillis() * 2);
+
+        assertEquals("primary", response);
+        assertEquals(0, backupCalls.get());
+        assertEquals(0, count("sent"));
+    }
+
+    @Test
+    @DisplayName("Если основной запрос ответил раньше дубля, дубль отменяется и победа не засчитывается")
+    void execute_whenPrimaryAnswersAfterBackupSent_thenBackupCancelled() throws Exception {
+        RequestHedger hedger = hedger();
+        CompletableFuture<String> primary = new CompletableFuture<>();
+        CompletableFuture<String> backup = new CompletableFuture<>();
+
+        CompletableFuture<String> result = hedger.execute(() -> primary, () -> backup, IS_REJECTED);
+        Thread.sleep(DELAY.toMillis() * 2);
+        primary.complete("primary");
+
+        assertEquals("primary", result.get(1, TimeUnit.SECONDS));
+        assertTrue(backup.isCancelled());
+        assertEquals(1, count("sent"));
+        assertEquals(0, count("wins"));
+    }
+
+    @Test
+    @DisplayName("Исчерпанный бюджет не дает отправить дубль")
+    void execute_whenBudgetExhausted_thenHedgeThrottled() throws Exception {
+        properties.setBudgetPercent(0);
+        properties.setBudgetBurst(1);
+        RequestHedger hedger = hedger();
+
+        for (int i = 0; i < 2; i++) {
+            CompletableFuture<String> primary = new CompletableFuture<>();
+            CompletableFuture<String> result = hedger.execute(() -> primary,
+                    () -> new CompletableFuture<>(), IS_REJECTED);
+            Thread.sleep(DELAY.toMillis() * 2);
+            primary.complete("primary");
+            result.get(1, TimeUnit.SECONDS);
+        }
+
+        assertEquals(1, count("sent"));
+        assertEquals(1, count("throttled"));
+    }
+
+    @Test
+    @DisplayName("Если другого экземпляра нет, токен возвращается в бюджет")
+    void execute_whenNoOtherInstance_thenBudgetRefunded() throws Exception {
+        properties.setBudgetPercent(0);
+        properties.setBudgetBurst(1);
+        RequestHedger hedger = hedger();
+
+        CompletableFuture<String> slow = new CompletableFuture<>();
+        CompletableFuture<String> first = hedger.execute(() -> slow, () -> null, IS_REJECTED);
+        Thread.sleep(DELAY.toMillis() * 2);
+        slow.complete("primary");
+        assertEquals("primary", first.get(1, TimeUnit.SECONDS));
+
+        String response = hedger.execute(CompletableFuture::new,
+                () -> CompletableFuture.completedFuture("backup"), IS_REJECTED).get(1, TimeUnit.SECONDS);
+
+        assertEquals("backup", response);
+        assertEquals(1, count("sent"));
+        assertEquals(0, count("throttled"));
+    }
+
+    @Test
+    @DisplayName("Отказ, сформированный шлюзом для дубля, не побеждает и возвращает токен в бюджет")
+    void execute_whenBackupRejectedLocally_thenPrimaryResponseReturned() throws Exception {
+        properties.setBudgetPercent(0);
+        properties.setBudgetBurst(1);
+        RequestHedger hedger = hedger();
+        CompletableFuture<String> primary = new CompletableFuture<>();
+
+        CompletableFuture<String> result = hedger.execute(() -> primary,
+                () -> CompletableFuture.completedFuture(REJECTED), IS_REJECTED);
+        Thread.sleep(DELAY.toMillis() * 2);
+
+        assertFalse(result.isDone());
+        assertFalse(primary.isCancelled());
+        primary.complete("primary");
+        assertEquals("primary", result.get(1, TimeUnit.SECONDS));
+        assertEquals(0, count("sent"));
+
+        String response = hedger.execute(CompletableFuture::new,
+                () -> CompletableFuture.completedFuture("backup"), IS_REJECTED).get(1, TimeUnit.SECONDS);
+        assertEquals("backup", response);
+    }
+
+    @Test
+    @DisplayName("Отказ шлюза для основного запроса возвращается, если других попыток нет")
+    void execute_whenPrimaryRejectedLocally_thenRejectionReturned() throws Exception {
+        RequestHedger hedger = hedger();
+
+        String response = hedger.execute(() -> CompletableFuture.completedFuture(REJECTED),
+                () -> CompletableFuture.completedFuture("backup"), IS_REJECTED).get(1, TimeUnit.SECONDS);
+
+        assertEquals(REJECTED, response);
+    }
+
+    private RequestHedger hedger() {
+        return new RequestHedger("test", properties, scheduler, registry);
+    }
+
+    private void awaitScheduler() throws Exception {
+        scheduler.submit(() -> { }).get(1, TimeUnit.SECONDS);
+    }
+
+    private double count(String name) {
+        return registry.get("shareit.gateway.hedge." + name).tag("client", "test").counter().count();
+    }
+}
@@ -0,0 +1,155 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.ResponseEntity;
+import org.springframework.util.unit.DataSize;
+
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ResponseCacheTest {
+
+    private final MeterRegistry registry = new SimpleMeterRegistry();
+    private ResponseCacheProperties properties;
+    private ResponseCache cache;
+
+    @BeforeEach
+    void setUp() {
+        properties = new ResponseCacheProperties();
+        properties.setMaxSize(DataSize.ofBytes(10));
+        properties.setMaxEntrySize(DataSize.ofBytes(6));
+        cache = new ResponseCache(properties, registry);
+    }
+
+    @Test
+    @DisplayName("Ключ включает путь, параметры запроса и пользователя")
+    void key_thenContainsPathQueryAndUser() {
+        assertEquals("/items/1|2", ResponseCache.key(URI.create("/items/1"), 2L));
+        assertEquals("/items?from=0|null", ResponseCache.key(URI.create("/items?from=0"), null));
+    }
+
+    @Test
+    @DisplayName("Сохраненный ответ возвращается вместе с ETag")
+    void get_whenPut_thenEntryWithETagReturned() {
+        put("/users/1", "\"v1\"", "abcd");
+
+        ResponseCache.Entry entry = cache.get("/users/1|null");
+
+        assertNotNull(entry);
+        assertEquals("\"v1\"", entry.getETag());
+        assertArrayEquals(bytes("abcd"), entry.getResponse().getBody());
+        assertEquals(4, bytesGauge());
+    }
+
+    @Test
+    @DisplayName("При превышении байтового бюджета вытесняются самые старые записи")
+    void put_whenByteBudgetExceeded_thenEldestEvicted() {
+        put("/users/1", "\"1\"", "aaaa");
+        put("/users/2", "\"2\"", "bbbb");
+        put("/users/3", "\"3\"", "cccc");
+
+        assertNull(cache.get("/users/1|null"));
+        assertNotNull(cache.get("/users/2|null"));
+        assertNotNull(cache.get("/users/3|null"));
+        assertEquals(8, bytesGauge());
+        assertEquals(1, registry.get("shareit.gateway.cache.evictions").counter().count());
+    }
+
+    @Test
+    @DisplayName("Прочитанная запись становится самой свежей и не вытесняется первой")
+    void put_whenEldestWasRead_thenLeastRecentlyUsedEvicted() {
+        put("/users/1", "\"1\"", "aaaa");
+        put("/users/2", "\"2\"", "bbbb");
+        cache.get("/users/1|null");
+
+        put("/users/3", "\"3\"", "cccc");
+
+        assertNotNull(cache.get("/users/1|null"));
+        assertNull(cache.get("/users/2|null"));
+    }
+
+    @Test
+    @DisplayName("Ответ больше предела записи не кешируется и вытесняет прежнюю версию")
+    void put_whenEntryTooLarge_thenNotStoredAndPreviousRemoved() {
+        put("/users/1", "\"1\"", "aaaa");
+
+        put("/users/1", "\"2\"", "aaaaaaa");
+
+        assertNull(cache.get("/users/1|null"));
+        assertEquals(0, bytesGauge());
+    }
+
+    @Test
+    @DisplayName("Запись старше TTL не возвращается")
+    void get_whenTtlExpired_thenNull() throws InterruptedException {
+        properties.setTtl(Duration.ofMillis(50));
+        put("/users/1", "\"1\"", "aaaa");
+
+        Thread.sleep(100);
+
+        assertNull(cache.get("/users/1|null"));
+        assertEquals(0, bytesGauge());
+    }
+
+    @Test
+    @DisplayName("Подтвержденная сервером запись снова отсчитывает TTL")
+    void touch_whenRevalidated_thenTtlRestarted() throws InterruptedException {
+        properties.setTtl(Duration.ofMillis(300));
+        put("/users/1", "\"1\"", "aaaa");
+
+        Thread.sleep(200);
+        cache.touch("/users/1|null", cache.get("/users/1|null"));
+        Thread.sleep(200);
+
+        assertNotNull(cache.get("/users/1|null"));
+    }
+
+    @Test
+    @DisplayName("Запись свежа только в пределах max-age")
+    void isFresh_thenDependsOnMaxAge() {
+        put("/users/1", "\"1\"", "aaaa");
+        ResponseCache.Entry entry = cache.get("/users/1|null");
+
+        assertFalse(cache.isFresh(entry));
+        properties.setMaxAge(Duration.ofHours(1));
+        assertTrue(cache.isFresh(entry));
+    }
+
+    @Test
+    @DisplayName("Изменение ресурса вытесняет его записи и записи родительского ресурса")
+    void evictPath_thenResourceAndParentEntriesRemoved() {
+        properties.setMaxSize(DataSize.ofKilobytes(1));
+        put("/items/1", "\"1\"", "a");
+        put("/items/1?from=0", "\"2\"", "b");
+        put("/items/12", "\"3\"", "c");
+        put("/items", "\"4\"", "d");
+
+        cache.evictPath("/items/1");
+
+        assertNull(cache.get("/items/1|null"));
+        assertNull(cache.get("/items/1?from=0|null"));
+        assertNotNull(cache.get("/items/12|null"));
+        assertNull(cache.get("/items|null"));
+        assertEquals(1, bytesGauge());
+    }
+
+    private void put(String path, String eTag, String body) {
+        URI uri = URI.create(path);
+        cache.put(ResponseCache.key(uri, null), uri, eTag, ResponseEntity.ok().eTag(eTag).body(bytes(body)));
+    }
+
+    private double bytesGauge() {
+        return registry.get("shareit.gateway.cache.bytes").gauge().value();
+    }
+
+    private static byte[] bytes(String body) {
+        return body.getBytes(StandardCharsets.UTF_8);
+    }
+}
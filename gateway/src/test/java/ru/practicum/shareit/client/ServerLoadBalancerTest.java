@@ -0,0 +1,163 @@
+package ru.practicum.shareit.client;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.http.impl.nio.client.CloseableHttpAsyncClient;
+import org.apache.http.impl.nio.client.HttpAsyncClients;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.ResponseEntity;
+import ru.practicum.shareit.user.UserClient;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Экземпляры shareit-server заменены заглушками {@link HttpServer}: модуль шлюза не зависит от модуля сервера,
+ * а балансировщику нужны только ответы {@code /actuator/health} и доступность экземпляра по сети. Заглушки
+ * отвечают на проверку здоровья так же, как Spring Boot Actuator: 200 и {@code UP} или 503 и {@code DOWN}.
+ */
+class ServerLoadBalancerTest {
+
+    private static final String ACTUATOR_CONTENT_TYPE = "application/vnd.spring-boot.actuator.v3+json";
+
+    private static final int INSTANCES = 3;
+    private static final int REQUESTS = 60;
+
+    private final List<HttpServer> servers = new ArrayList<>();
+    private final List<AtomicInteger> hits = new ArrayList<>();
+    private final List<AtomicInteger> healthStatuses = new ArrayList<>();
+
+    private CloseableHttpAsyncClient httpClient;
+    private ServerLoadBalancer loadBalancer;
+    private UserClient userClient;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        LoadBalancerProperties properties = new LoadBalancerProperties();
+        properties.setHealthCheckInterval(Duration.ofHours(1));
+        properties.setHealthyThreshold(1);
+        properties.setUnhealthyThreshold(1);
+        for (int i = 0; i < INSTANCES; i++) {
+            HttpServer server = startServer();
+            InetSocketAddress address = server.getAddress();
+            properties.getUrls().add(URI.create("http://" + address.getHostString() + ":" + address.getPort()));
+        }
+
+        httpClient = HttpAsyncClients.createDefault();
+        httpClient.start();
+        MeterRegistry registry = new SimpleMeterRegistry();
+        loadBalancer = new ServerLoadBalancer(properties, httpClient, registry);
+        ResponseCacheProperties cacheProperties = new ResponseCacheProperties();
+        cacheProperties.setEnabled(false);
+        userClient = new UserClient(new BaseClientSupport(httpClient, new ObjectMapper(),
+                new ResponseCache(cacheProperties, registry), new HttpClientProperties(), loadBalancer,
+                new RequestHedging(new HedgingProperties(), registry),
+                CircuitBreakerRegistry.ofDefaults(), BulkheadRegistry.ofDefaults(), registry, null, null));
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        loadBalancer.shutdown();
+        httpClient.close();
+        servers.forEach(server -> server.stop(0));
+    }
+
+    @Test
+    @DisplayName("Запросы распределяются между всеми экземплярами сервера")
+    void getUser_whenAllInstancesHealthy_thenRequestsSpreadAcrossInstances() throws Exception {
+        sendRequests();
+
+        assertEquals(REQUESTS, hits.stream().mapToInt(AtomicInteger::get).sum());
+        hits.forEach(count -> assertTrue(count.get() > 0));
+    }
+
+    @Test
+    @DisplayName("Экземпляр, не прошедший проверку здоровья, выводится из ротации и возвращается после восстановления")
+    void checkHealth_whenInstanceDown_thenTakenOutOfRotation() throws Exception {
+        healthStatuses.get(1).set(503);
+        loadBalancer.checkHealth().get();
+
+        assertEquals(INSTANCES - 1, loadBalancer.getHealthyEndpoints().size());
+        sendRequests();
+        assertEquals(0, hits.get(1).get());
+
+        healthStatuses.get(1).set(200);
+        loadBalancer.checkHealth().get();
+
+        assertEquals(INSTANCES, loadBalancer.getHealthyEndpoints().size());
+        sendRequests();
+        assertTrue(hits.get(1).get() > 0);
+    }
+
+    @Test
+    @DisplayName("Недоступный по сети экземпляр выводится из ротации после первой ошибки соединения")
+    void getUser_whenInstanceStopped_thenTakenOutOfRotation() throws Exception {
+        servers.get(2).stop(0);
+
+        int failures = 0;
+        for (int i = 0; i < REQUESTS; i++) {
+            if (!userClient.getUser(1).handle((response, e) -> e == null).get()) {
+                failures++;
+            }
+        }
+
+        assertTrue(failures <= 1);
+        assertFalse(loadBalancer.getEndpoints().get(2).isHealthy());
+        assertEquals(REQUESTS - failures, hits.get(0).get() + hits.get(1).get());
+    }
+
+    private void sendRequests() throws Exception {
+        for (int i = 0; i < REQUESTS; i++) {
+            ResponseEntity<byte[]> response = userClient.getUser(1).get();
+            assertEquals(200, response.getStatusCodeValue());
+        }
+    }
+
+    private HttpServer startServer() throws IOException {
+        AtomicInteger hitCount = new AtomicInteger();
+        AtomicInteger healthStatus = new AtomicInteger(200);
+        HttpServer server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.createContext("/actuator/health", exchange -> {
+            int status = healthStatus.get();
+            respond(exchange, status, ACTUATOR_CONTENT_TYPE,
+                    status == 200 ? "{\"status\":\"UP\"}" : "{\"status\":\"DOWN\"}");
+        });
+        server.createContext("/users", exchange -> {
+            hitCount.incrementAndGet();
+            respond(exchange, 200, "application/json", "{\"id\":1,\"name\":\"user\",\"email\":\"user@user.com\"}");
+        });
+        server.start();
+        servers.add(server);
+        hits.add(hitCount);
+        healthStatuses.add(healthStatus);
+        return server;
+    }
+
+    private static void respond(HttpExchange exchange, int status, String contentType, String body)
+            throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", contentType);
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package ru.practicum.shareit.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.http.impl.nio.client.CloseableHttpAsyncClient;
+import org.apache.http.impl.nio.client.HttpAsyncClients;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.booking.BookingClient;
+import ru.practicum.shareit.booking.BookingState;
+import ru.practicum.shareit.client.BaseClientSupport;
+import ru.practicum.shareit.client.HedgingProperties;
+import ru.practicum.shareit.client.HttpClientProperties;
+import ru.practicum.shareit.client.LoadBalancerProperties;
+import ru.practicum.shareit.client.RequestHedging;
+import ru.practicum.shareit.client.ResponseCache;
+import ru.practicum.shareit.client.ResponseCacheProperties;
+import ru.practicum.shareit.client.ServerLoadBalancer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MetricsConfigTest {
+
+    @Test
+    @DisplayName("Тег state ограничен списком состояний бронирования")
+    void bookingState_whenValueOutsideList_thenUnknown() {
+        for (BookingState state : BookingState.values()) {
+            assertEquals(state.name(), MetricsConfig.bookingState("/bookings", state.name()));
+        }
+        assertEquals("UNKNOWN", MetricsConfig.bookingState("/bookings/owner", "waiting"));
+        assertEquals("UNKNOWN", MetricsConfig.bookingState("/bookings", "1' or '1'='1"));
+        assertEquals("ALL", MetricsConfig.bookingState("/bookings", null));
+        assertEquals("none", MetricsConfig.bookingState("/bookings/1", "WAITING"));
+        assertEquals("none", MetricsConfig.bookingState("/users", null));
+        assertEquals("none", MetricsConfig.bookingState(null, null));
+    }
+
+    @Test
+    @DisplayName("Таймер запросов шлюза к серверу помечен состоянием бронирования")
+    void exchangeTimer_whenBookingListRequested_thenStateTagged() throws Exception {
+        HttpServer server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.createContext("/bookings", MetricsConfigTest::respondEmptyList);
+        server.start();
+        MeterRegistry registry = new SimpleMeterRegistry();
+        LoadBalancerProperties properties = new LoadBalancerProperties();
+        properties.setHealthCheckInterval(Duration.ofHours(1));
+        InetSocketAddress address = server.getAddress();
+        properties.getUrls().add(URI.create("http://" + address.getHostString() + ":" + address.getPort()));
+        CloseableHttpAsyncClient httpClient = HttpAsyncClients.createDefault();
+        httpClient.start();
+        ServerLoadBalancer loadBalancer = new ServerLoadBalancer(properties, httpClient, registry);
+        try {
+            BookingClient bookingClient = new BookingClient(new BaseClientSupport(httpClient, new ObjectMapper(),
+                    new ResponseCache(new ResponseCacheProperties(), registry), new HttpClientProperties(),
+                    loadBalancer, new RequestHedging(new HedgingProperties(), registry),
+                    CircuitBreakerRegistry.ofDefaults(), BulkheadRegistry.ofDefaults(), registry, null, null));
+
+            bookingClient.getUserAllBooking(1, "WAITING", 0, 10, null).get();
+            bookingClient.getAllBookingByOwner(1, "NOT_A_STATE", 0, 10, null).get();
+            bookingClient.getBooking(1, 1).get();
+
+            assertEquals(1, exchanges(registry, "WAITING"));
+            assertEquals(1, exchanges(registry, "UNKNOWN"));
+            assertEquals(1, exchanges(registry, "none"));
+        } finally {
+            loadBalancer.shutdown();
+            httpClient.close();
+            server.stop(0);
+        }
+    }
+
+    private static long exchanges(MeterRegistry registry, String state) {
+        return registry.get("shareit.gateway.client.requests")
+                .tag("client", "bookings")
+                .tag(MetricsConfig.STATE_TAG, state)
+                .timer()
+                .count();
+    }
+
+    private static void respondEmptyList(HttpExchange exchange) throws IOException {
+        byte[] bytes = "[]".getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(200, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package ru.practicum.shareit.ratelimit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.time.Duration;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RateLimitInterceptorTest {
+
+    private RateLimitProperties properties;
+    private RateLimiter rateLimiter;
+    private RateLimitInterceptor interceptor;
+
+    @BeforeEach
+    void setUp() {
+        properties = new RateLimitProperties();
+        properties.setDefaultBudget(new RateLimitProperties.Budget(100, Duration.ofSeconds(1)));
+        properties.getRoutes().put("/items/search", new RateLimitProperties.Budget(2, Duration.ofSeconds(2)));
+        properties.setEvictionInterval(Duration.ofHours(1));
+        properties.setMaxBuckets(3);
+        rateLimiter = new RateLimiter(properties);
+        interceptor = new RateLimitInterceptor(rateLimiter, properties);
+    }
+
+    @AfterEach
+    void tearDown() {
+        rateLimiter.shutdown();
+    }
+
+    @Test
+    @DisplayName("Запрос сверх бюджета маршрута получает 429 и Retry-After")
+    void preHandle_whenBudgetExhausted_thenTooManyRequestsWithRetryAfter() throws Exception {
+        assertTrue(send("1", "/items/search").isEmpty());
+        assertTrue(send("1", "/items/search").isEmpty());
+
+        MockHttpServletResponse response = send("1", "/items/search").orElseThrow();
+
+        assertEquals(429, response.getStatus());
+        assertEquals("1", response.getHeader("Retry-After"));
+        assertTrue(response.getContentAsString().contains("Превышен лимит запросов"));
+    }
+
+    @Test
+    @DisplayName("Бюджет считается отдельно для каждого пользователя и маршрута")
+    void preHandle_whenBudgetExhausted_thenOtherRoutesAndUsersNotAffected() throws Exception {
+        send("1", "/items/search");
+        send("1", "/items/search");
+        assertTrue(send("1", "/items/search").isPresent());
+
+        assertTrue(send("1", "/items").isEmpty());
+        assertTrue(send("2", "/items/search").isEmpty());
+        assertEquals(3, rateLimiter.size());
+    }
+
+    @Test
+    @DisplayName("Новые ключи сверх предела таблицы отклоняются до чистки, после чистки принимаются")
+    void preHandle_whenBucketLimitReached_thenNewKeysRejectedUntilEviction() throws Exception {
+        send("1", "/items");
+        send("2", "/items");
+        send("3", "/items");
+
+        MockHttpServletResponse response = send("4", "/items").orElseThrow();
+        assertEquals(429, response.getStatus());
+        assertEquals(String.valueOf(Duration.ofHours(1).toSeconds()), response.getHeader("Retry-After"));
+        assertEquals(3, rateLimiter.size());
+
+        Thread.sleep(50);
+        rateLimiter.evictIdle();
+
+        assertEquals(0, rateLimiter.size());
+        assertTrue(send("4", "/items").isEmpty());
+        assertEquals(1, rateLimiter.size());
+    }
+
+    @Test
+    @DisplayName("Чистка не удаляет счетчик, бюджет которого еще не восстановился")
+    void evictIdle_whenBucketNotRefilled_thenBucketKept() throws Exception {
+        send("1", "/items/search");
+        send("1", "/items/search");
+
+        rateLimiter.evictIdle();
+
+        assertEquals(1, rateLimiter.size());
+        assertTrue(send("1", "/items/search").isPresent());
+    }
+
+    private Optional<MockHttpServletResponse> send(String userId, String route) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", route);
+        request.addHeader("X-Sharer-User-Id", userId);
+        request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, route);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        return interceptor.preHandle(request, response, new Object())
+                ? Optional.empty()
+                : Optional.of(response);
+    }
+}
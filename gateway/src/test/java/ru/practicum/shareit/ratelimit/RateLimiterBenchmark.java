@@ -0,0 +1,66 @@
+package ru.practicum.shareit.ratelimit;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RateLimiterBenchmark {
+
+    private static final int USERS = 10_000;
+
+    private RateLimiter rateLimiter;
+    private RateLimitProperties.Budget budget;
+    private String[] keys;
+
+    @Setup
+    public void setUp() {
+        RateLimitProperties properties = new RateLimitProperties();
+        rateLimiter = new RateLimiter(properties);
+        budget = new RateLimitProperties.Budget(1_000_000, Duration.ofSeconds(1));
+        keys = new String[USERS];
+        for (int i = 0; i < USERS; i++) {
+            keys[i] = i + "|/items/search";
+            rateLimiter.tryAcquire(keys[i], budget);
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        rateLimiter.shutdown();
+    }
+
+    @Benchmark
+    public long tryAcquireManyUsers() {
+        return rateLimiter.tryAcquire(keys[ThreadLocalRandom.current().nextInt(USERS)], budget);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public long tryAcquireManyUsersContended() {
+        return rateLimiter.tryAcquire(keys[ThreadLocalRandom.current().nextInt(USERS)], budget);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public long tryAcquireSingleHotUser() {
+        return rateLimiter.tryAcquire(keys[0], budget);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(RateLimiterBenchmark.class.getSimpleName())
+                .build())
+                .run();
+    }
+}
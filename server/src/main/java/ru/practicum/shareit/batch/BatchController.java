@@ -0,0 +1,25 @@
+package ru.practicum.shareit.batch;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import ru.practicum.shareit.batch.dto.BatchOperationDto;
+import ru.practicum.shareit.batch.dto.BatchResultDto;
+import ru.practicum.shareit.batch.service.BatchService;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/batch")
+@RequiredArgsConstructor
+public class BatchController {
+
+    private final BatchService batchService;
+
+    @PostMapping
+    public ResponseEntity<List<BatchResultDto>> execute(
+            @RequestHeader(value = "X-Sharer-User-Id", required = false) Long userId,
+            @RequestBody List<BatchOperationDto> operations) {
+        return ResponseEntity.ok().body(batchService.execute(userId, operations));
+    }
+}
@@ -0,0 +1,17 @@
+package ru.practicum.shareit.batch.dto;
+
+import lombok.Getter;
+import lombok.Setter;
+import lombok.ToString;
+
+@Getter
+@Setter
+@ToString
+public class BatchOperationDto {
+
+    private String id;
+
+    private String method = "GET";
+
+    private String path;
+}
@@ -0,0 +1,20 @@
+package ru.practicum.shareit.batch.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.ToString;
+
+import java.util.Map;
+
+@Getter
+@ToString
+@RequiredArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_EMPTY)
+public class BatchResultDto {
+
+    private final String id;
+    private final int status;
+    private final Map<String, String> headers;
+    private final Object body;
+}
@@ -0,0 +1,11 @@
+package ru.practicum.shareit.batch.service;
+
+import ru.practicum.shareit.batch.dto.BatchOperationDto;
+import ru.practicum.shareit.batch.dto.BatchResultDto;
+
+import java.util.List;
+
+public interface BatchService {
+
+    List<BatchResultDto> execute(Long userId, List<BatchOperationDto> operations);
+}
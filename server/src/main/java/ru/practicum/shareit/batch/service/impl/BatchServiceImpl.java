@@ -0,0 +1,250 @@
+package ru.practicum.shareit.batch.service.impl;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.TypeMismatchException;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationContext;
+import org.springframework.core.DefaultParameterNameDiscoverer;
+import org.springframework.core.MethodParameter;
+import org.springframework.core.ParameterNameDiscoverer;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Service;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.util.LinkedMultiValueMap;
+import org.springframework.util.MultiValueMap;
+import org.springframework.util.PathMatcher;
+import org.springframework.web.bind.ServletRequestBindingException;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.bind.support.DefaultDataBinderFactory;
+import org.springframework.web.bind.support.WebDataBinderFactory;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.method.ControllerAdviceBean;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.method.annotation.ExceptionHandlerMethodResolver;
+import org.springframework.web.method.support.HandlerMethodArgumentResolverComposite;
+import org.springframework.web.method.support.InvocableHandlerMethod;
+import org.springframework.web.method.support.ModelAndViewContainer;
+import org.springframework.web.servlet.mvc.method.RequestMappingInfo;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerAdapter;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerMapping;
+import org.springframework.web.util.UriComponents;
+import org.springframework.web.util.UriComponentsBuilder;
+import org.springframework.web.util.UriUtils;
+import ru.practicum.shareit.batch.dto.BatchOperationDto;
+import ru.practicum.shareit.batch.dto.BatchResultDto;
+import ru.practicum.shareit.batch.service.BatchService;
+import ru.practicum.shareit.exception.BatchSizeExceededException;
+import ru.practicum.shareit.exception.ResponseError;
+
+import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.stream.Collectors;
+
+/**
+ * Выполняет GET-запросы пакета теми же обработчиками, что и Spring MVC. Маршруты берутся из
+ * {@link RequestMappingHandlerMapping}, аргументы разбираются резолверами {@link RequestMappingHandlerAdapter},
+ * ошибки обрабатываются методами {@code @ExceptionHandler} из {@code @ControllerAdvice}. В пакет попадают
+ * обработчики, которые возвращают {@link ResponseEntity} и читают только заголовок пользователя,
+ * параметры запроса и переменные пути.
+ */
+@Slf4j
+@Service
+public class BatchServiceImpl implements BatchService {
+
+    private static final String USER_HEADER = "X-Sharer-User-Id";
+
+    private final Executor batchExecutor;
+    private final int maxOperations;
+    private final List<Route> routes;
+    private final HandlerMethodArgumentResolverComposite argumentResolvers =
+            new HandlerMethodArgumentResolverComposite();
+    private final WebDataBinderFactory binderFactory;
+    private final ParameterNameDiscoverer parameterNameDiscoverer = new DefaultParameterNameDiscoverer();
+    private final Map<ControllerAdviceBean, ExceptionHandlerMethodResolver> exceptionHandlers = new LinkedHashMap<>();
+    private final PathMatcher pathMatcher = new AntPathMatcher();
+
+    public BatchServiceImpl(@Qualifier("requestMappingHandlerMapping") RequestMappingHandlerMapping handlerMapping,
+                            RequestMappingHandlerAdapter handlerAdapter,
+                            ApplicationContext applicationContext,
+                            @Qualifier("batchExecutor") Executor batchExecutor,
+                            @Value("${shareit.batch.max-operations:20}") int maxOperations) {
+        this.batchExecutor = batchExecutor;
+        this.maxOperations = maxOperations;
+        this.routes = handlerMapping.getHandlerMethods().entrySet().stream()
+                .filter(mapping -> isBatchable(mapping.getKey(), mapping.getValue()))
+                .flatMap(mapping -> mapping.getKey().getPatternValues().stream()
+                        .map(pattern -> new Route(pattern, mapping.getValue())))
+                .collect(Collectors.toList());
+        this.argumentResolvers.addResolvers(handlerAdapter.getArgumentResolvers());
+        this.binderFactory = new DefaultDataBinderFactory(handlerAdapter.getWebBindingInitializer());
+        ControllerAdviceBean.findAnnotatedBeans(applicationContext).stream()
+                .filter(advice -> advice.getBeanType() != null)
+                .forEach(advice -> exceptionHandlers.put(advice,
+                        new ExceptionHandlerMethodResolver(advice.getBeanType())));
+    }
+
+    @Override
+    public List<BatchResultDto> execute(Long userId, List<BatchOperationDto> operations) {
+        if (operations.size() > maxOperations) {
+            throw new BatchSizeExceededException(
+                    String.format("В пакете не может быть больше %d запросов", maxOperations));
+        }
+
+        List<CompletableFuture<BatchResultDto>> results = operations.stream()
+                .map(operation -> CompletableFuture.supplyAsync(
+                        () -> executeOperation(userId, operation), batchExecutor))
+                .collect(Collectors.toList());
+        log.info("Выполнен пакет из {} запросов", operations.size());
+
+        return results.stream()
+                .map(CompletableFuture::join)
+                .collect(Collectors.toList());
+    }
+
+    Set<String> routePatterns() {
+        return routes.stream()
+                .map(route -> route.pattern)
+                .collect(Collectors.toSet());
+    }
+
+    @Nullable
+    HandlerMethod findHandler(String path) {
+        Route route = findRoute(path);
+        return route != null ? route.handlerMethod : null;
+    }
+
+    private BatchResultDto executeOperation(Long userId, BatchOperationDto operation) {
+        HandlerMethod handler = null;
+        NativeWebRequest request = null;
+        try {
+            if (!HttpMethod.GET.matches(operation.getMethod())) {
+                return new BatchResultDto(operation.getId(), HttpStatus.METHOD_NOT_ALLOWED.value(), null,
+                        new ResponseError("В пакете поддерживаются только GET-запросы"));
+            }
+            UriComponents uri = UriComponentsBuilder.fromUriString(operation.getPath()).build();
+            String path = uri.getPath();
+            Route route = path != null ? findRoute(path) : null;
+            if (route == null) {
+                return new BatchResultDto(operation.getId(), HttpStatus.NOT_FOUND.value(), null,
+                        new ResponseError(String.format("Путь %s не поддерживается", operation.getPath())));
+            }
+            handler = route.handlerMethod.createWithResolvedBean();
+            request = new BatchWebRequest(path, USER_HEADER, userId, decode(uri.getQueryParams()),
+                    decode(pathMatcher.extractUriTemplateVariables(route.pattern, path)));
+            return toResult(operation.getId(), invoke(handler, request));
+        } catch (Exception e) {
+            return toErrorResult(operation.getId(), handler, request, e);
+        }
+    }
+
+    @Nullable
+    private Route findRoute(String path) {
+        Comparator<String> specificity = pathMatcher.getPatternComparator(path);
+        return routes.stream()
+                .filter(route -> pathMatcher.match(route.pattern, path))
+                .min((first, second) -> specificity.compare(first.pattern, second.pattern))
+                .orElse(null);
+    }
+
+    private ResponseEntity<?> invoke(HandlerMethod handler, NativeWebRequest request, Object... providedArgs)
+            throws Exception {
+        InvocableHandlerMethod invocable = new InvocableHandlerMethod(handler);
+        invocable.setHandlerMethodArgumentResolvers(argumentResolvers);
+        invocable.setDataBinderFactory(binderFactory);
+        invocable.setParameterNameDiscoverer(parameterNameDiscoverer);
+        return (ResponseEntity<?>) invocable.invokeForRequest(request, new ModelAndViewContainer(), providedArgs);
+    }
+
+    private BatchResultDto toResult(String id, ResponseEntity<?> response) {
+        return new BatchResultDto(id, response.getStatusCodeValue(),
+                response.getHeaders().toSingleValueMap(), response.getBody());
+    }
+
+    private BatchResultDto toErrorResult(String id, @Nullable HandlerMethod handler,
+                                         @Nullable NativeWebRequest request, Exception e) {
+        log.error(e.getMessage());
+        if (handler != null && request != null) {
+            for (Map.Entry<ControllerAdviceBean, ExceptionHandlerMethodResolver> advice
+                    : exceptionHandlers.entrySet()) {
+                if (!advice.getKey().isApplicableToBeanType(handler.getBeanType())) {
+                    continue;
+                }
+                Method method = advice.getValue().resolveMethodByThrowable(e);
+                if (method == null) {
+                    continue;
+                }
+                try {
+                    return toResult(id, invoke(new HandlerMethod(advice.getKey().resolveBean(), method),
+                            request, e, handler));
+                } catch (Exception ex) {
+                    log.error(ex.getMessage());
+                    break;
+                }
+            }
+        }
+
+        ResponseStatus responseStatus = AnnotatedElementUtils.findMergedAnnotation(e.getClass(), ResponseStatus.class);
+        HttpStatus status;
+        if (responseStatus != null) {
+            status = responseStatus.code();
+        } else if (e instanceof ServletRequestBindingException || e instanceof TypeMismatchException
+                || e instanceof IllegalArgumentException) {
+            status = HttpStatus.BAD_REQUEST;
+        } else {
+            status = HttpStatus.INTERNAL_SERVER_ERROR;
+        }
+        return new BatchResultDto(id, status.value(), null, new ResponseError(e.getMessage()));
+    }
+
+    private static boolean isBatchable(RequestMappingInfo mapping, HandlerMethod handlerMethod) {
+        return mapping.getMethodsCondition().getMethods().contains(RequestMethod.GET)
+                && ResponseEntity.class.isAssignableFrom(handlerMethod.getReturnType().getParameterType())
+                && Arrays.stream(handlerMethod.getMethodParameters()).allMatch(BatchServiceImpl::isBindable);
+    }
+
+    private static boolean isBindable(MethodParameter parameter) {
+        RequestHeader header = parameter.getParameterAnnotation(RequestHeader.class);
+        if (header != null) {
+            return USER_HEADER.equalsIgnoreCase(header.name());
+        }
+        return parameter.hasParameterAnnotation(PathVariable.class)
+                || parameter.hasParameterAnnotation(RequestParam.class);
+    }
+
+    private static MultiValueMap<String, String> decode(MultiValueMap<String, String> encoded) {
+        MultiValueMap<String, String> decoded = new LinkedMultiValueMap<>();
+        encoded.forEach((name, values) -> values.forEach(value ->
+                decoded.add(name, value != null ? UriUtils.decode(value, StandardCharsets.UTF_8) : "")));
+        return decoded;
+    }
+
+    private static Map<String, String> decode(Map<String, String> encoded) {
+        Map<String, String> decoded = new LinkedHashMap<>();
+        encoded.forEach((name, value) -> decoded.put(name, UriUtils.decode(value, StandardCharsets.UTF_8)));
+        return decoded;
+    }
+
+    @RequiredArgsConstructor
+    private static class Route {
+        private final String pattern;
+        private final HandlerMethod handlerMethod;
+    }
+}
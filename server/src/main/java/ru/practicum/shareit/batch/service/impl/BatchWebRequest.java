@@ -0,0 +1,205 @@
+package ru.practicum.shareit.batch.service.impl;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.lang.Nullable;
+import org.springframework.util.MultiValueMap;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.security.Principal;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Запрос из пакета в том виде, в котором его читают стандартные резолверы аргументов Spring MVC:
+ * заголовок пользователя, параметры запроса и переменные пути. Сервлетного запроса за ним нет,
+ * поэтому {@link #getNativeRequest(Class)} всегда возвращает {@code null}.
+ */
+class BatchWebRequest implements NativeWebRequest {
+
+    private final String path;
+    private final HttpHeaders headers = new HttpHeaders();
+    private final MultiValueMap<String, String> parameters;
+    private final Map<String, Object> attributes = new HashMap<>();
+
+    BatchWebRequest(String path, @Nullable String userHeader, @Nullable Long userId,
+                    MultiValueMap<String, String> parameters, Map<String, String> pathVariables) {
+        this.path = path;
+        this.parameters = parameters;
+        if (userHeader != null && userId != null) {
+            headers.add(userHeader, String.valueOf(userId));
+        }
+        attributes.put(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE, pathVariables);
+    }
+
+    @Override
+    @Nullable
+    public Object getNativeRequest() {
+        return null;
+    }
+
+    @Override
+    @Nullable
+    public Object getNativeResponse() {
+        return null;
+    }
+
+    @Override
+    @Nullable
+    public <T> T getNativeRequest(@Nullable Class<T> requiredType) {
+        return null;
+    }
+
+    @Override
+    @Nullable
+    public <T> T getNativeResponse(@Nullable Class<T> requiredType) {
+        return null;
+    }
+
+    @Override
+    @Nullable
+    public String getHeader(String headerName) {
+        return headers.getFirst(headerName);
+    }
+
+    @Override
+    @Nullable
+    public String[] getHeaderValues(String headerName) {
+        return toArray(headers, headerName);
+    }
+
+    @Override
+    public Iterator<String> getHeaderNames() {
+        return headers.keySet().iterator();
+    }
+
+    @Override
+    @Nullable
+    public String getParameter(String paramName) {
+        return parameters.getFirst(paramName);
+    }
+
+    @Override
+    @Nullable
+    public String[] getParameterValues(String paramName) {
+        return toArray(parameters, paramName);
+    }
+
+    @Override
+    public Iterator<String> getParameterNames() {
+        return parameters.keySet().iterator();
+    }
+
+    @Override
+    public Map<String, String[]> getParameterMap() {
+        Map<String, String[]> parameterMap = new HashMap<>();
+        parameters.keySet().forEach(name -> parameterMap.put(name, toArray(parameters, name)));
+        return parameterMap;
+    }
+
+    @Override
+    public Locale getLocale() {
+        return Locale.getDefault();
+    }
+
+    @Override
+    public String getContextPath() {
+        return "";
+    }
+
+    @Override
+    @Nullable
+    public String getRemoteUser() {
+        return null;
+    }
+
+    @Override
+    @Nullable
+    public Principal getUserPrincipal() {
+        return null;
+    }
+
+    @Override
+    public boolean isUserInRole(String role) {
+        return false;
+    }
+
+    @Override
+    public boolean isSecure() {
+        return false;
+    }
+
+    @Override
+    public boolean checkNotModified(long lastModifiedTimestamp) {
+        return false;
+    }
+
+    @Override
+    public boolean checkNotModified(@Nullable String etag) {
+        return false;
+    }
+
+    @Override
+    public boolean checkNotModified(@Nullable String etag, long lastModifiedTimestamp) {
+        return false;
+    }
+
+    @Override
+    public String getDescription(boolean includeClientInfo) {
+        return "batch uri=" + path;
+    }
+
+    @Override
+    @Nullable
+    public Object getAttribute(String name, int scope) {
+        return scope == SCOPE_REQUEST ? attributes.get(name) : null;
+    }
+
+    @Override
+    public void setAttribute(String name, Object value, int scope) {
+        if (scope == SCOPE_REQUEST) {
+            attributes.put(name, value);
+        }
+    }
+
+    @Override
+    public void removeAttribute(String name, int scope) {
+        if (scope == SCOPE_REQUEST) {
+            attributes.remove(name);
+        }
+    }
+
+    @Override
+    public String[] getAttributeNames(int scope) {
+        return scope == SCOPE_REQUEST ? attributes.keySet().toArray(new String[0]) : new String[0];
+    }
+
+    @Override
+    public void registerDestructionCallback(String name, Runnable callback, int scope) {
+    }
+
+    @Override
+    @Nullable
+    public Object resolveReference(String key) {
+        return null;
+    }
+
+    @Override
+    public String getSessionId() {
+        throw new IllegalStateException("У запроса из пакета нет сессии");
+    }
+
+    @Override
+    public Object getSessionMutex() {
+        return this;
+    }
+
+    @Nullable
+    private static String[] toArray(MultiValueMap<String, String> values, String name) {
+        List<String> list = values.get(name);
+        return list == null || list.isEmpty() ? null : list.toArray(new String[0]);
+    }
+}
@@ -3,9 +3,15 @@ package ru.practicum.shareit.booking;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.WebAsyncTask;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionResultDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingPageDto;
 import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.export.ExportTasks;
 
+import javax.servlet.http.HttpServletResponse;
 import java.util.List;
 
 
@@ -14,7 +20,10 @@ import java.util.List;
 @RequestMapping("/bookings")
 public class BookingController {
 
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
     private final BookingService bookingService;
+    private final ExportTasks exportTasks;
 
     @PostMapping
     public ResponseEntity<BookingDto> createBooking(
@@ -23,6 +32,13 @@ public class BookingController {
         return ResponseEntity.ok().body(bookingService.createBooking(userId, bookingDto));
     }
 
+    @PatchMapping("/bulk")
+    public ResponseEntity<List<BookingDecisionResultDto>> approvingBookings(
+            @RequestHeader("X-Sharer-User-Id") long userId,
+            @RequestBody List<BookingDecisionDto> decisions) {
+        return ResponseEntity.ok().body(bookingService.approvingBookings(userId, decisions));
+    }
+
     @PatchMapping("/{bookingId}")
     public ResponseEntity<BookingDto> approvingBooking(
             @RequestHeader("X-Sharer-User-Id") long userId,
@@ -43,7 +59,11 @@ public class BookingController {
             @RequestHeader("X-Sharer-User-Id") long userId,
             @RequestParam(name = "state", defaultValue = "ALL", required = false) String state,
             @RequestParam(value = "from", defaultValue = "0", required = false) Integer from,
-            @RequestParam(value = "size", defaultValue = "10", required = false) Integer size) {
+            @RequestParam(value = "size", defaultValue = "10", required = false) Integer size,
+            @RequestParam(value = "cursor", required = false) String cursor) {
+        if (cursor != null) {
+            return toCursorResponse(bookingService.getUserBookingsAfterCursor(userId, state, cursor, size));
+        }
         return ResponseEntity.ok().body(bookingService.getUserAllBooking(userId, state, from, size));
     }
 
@@ -52,8 +72,27 @@ public class BookingController {
             @RequestHeader("X-Sharer-User-Id") long userId,
             @RequestParam(name = "state", defaultValue = "ALL", required = false) String state,
             @RequestParam(value = "from", defaultValue = "0", required = false) Integer from,
-            @RequestParam(value = "size", defaultValue = "10", required = false) Integer size) {
+            @RequestParam(value = "size", defaultValue = "10", required = false) Integer size,
+            @RequestParam(value = "cursor", required = false) String cursor) {
+        if (cursor != null) {
+            return toCursorResponse(bookingService.getOwnerBookingsAfterCursor(userId, state, cursor, size));
+        }
         return ResponseEntity.ok().body(bookingService.getAllBookingByOwner(userId, state, from, size));
 
     }
+
+    @GetMapping("/owner/export")
+    public WebAsyncTask<Void> exportAllBookingByOwner(
+            @RequestHeader("X-Sharer-User-Id") long userId,
+            HttpServletResponse response) {
+        return exportTasks.stream(bookingService.exportAllBookingByOwner(userId), response);
+    }
+
+    private ResponseEntity<List<BookingDto>> toCursorResponse(BookingPageDto page) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.getNextCursor() != null) {
+            response.header(NEXT_CURSOR_HEADER, page.getNextCursor());
+        }
+        return response.body(page.getBookings());
+    }
 }
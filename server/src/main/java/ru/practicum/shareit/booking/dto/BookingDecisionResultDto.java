@@ -0,0 +1,28 @@
+package ru.practicum.shareit.booking.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.ToString;
+import org.springframework.http.HttpStatus;
+import ru.practicum.shareit.booking.model.BookingStatus;
+
+@Getter
+@ToString
+@RequiredArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BookingDecisionResultDto {
+
+    private final Long bookingId;
+    private final int status;
+    private final BookingStatus bookingStatus;
+    private final String error;
+
+    public static BookingDecisionResultDto applied(Long bookingId, BookingStatus bookingStatus) {
+        return new BookingDecisionResultDto(bookingId, HttpStatus.OK.value(), bookingStatus, null);
+    }
+
+    public static BookingDecisionResultDto rejected(Long bookingId, HttpStatus status, String error) {
+        return new BookingDecisionResultDto(bookingId, status.value(), null, error);
+    }
+}
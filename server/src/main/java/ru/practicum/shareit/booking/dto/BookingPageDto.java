@@ -0,0 +1,16 @@
+package ru.practicum.shareit.booking.dto;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.ToString;
+
+import java.util.List;
+
+@Getter
+@ToString
+@RequiredArgsConstructor
+public class BookingPageDto {
+
+    private final List<BookingDto> bookings;
+    private final String nextCursor;
+}
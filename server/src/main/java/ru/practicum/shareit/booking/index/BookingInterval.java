@@ -0,0 +1,18 @@
+package ru.practicum.shareit.booking.index;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.ToString;
+
+import java.time.LocalDateTime;
+
+@Getter
+@ToString
+@RequiredArgsConstructor
+public class BookingInterval {
+
+    private final Long bookingId;
+    private final Long itemId;
+    private final LocalDateTime start;
+    private final LocalDateTime end;
+}
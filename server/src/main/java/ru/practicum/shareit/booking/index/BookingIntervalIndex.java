@@ -0,0 +1,293 @@
+package ru.practicum.shareit.booking.index;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.storage.BookingRepository;
+import ru.practicum.shareit.user.event.UserDeletedEvent;
+
+import javax.annotation.PostConstruct;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Collectors;
+
+@Slf4j
+@Component
+public class BookingIntervalIndex {
+
+    private final BookingRepository bookingRepository;
+    private final Duration retention;
+    private final Lock[] stripes;
+    private final Map<Long, BookingInterval> pending = new ConcurrentHashMap<>();
+    private volatile Map<Long, ItemIntervals> items = new ConcurrentHashMap<>();
+
+    public BookingIntervalIndex(BookingRepository bookingRepository,
+                                @Value("${shareit.booking.index.retention:30d}") Duration retention,
+                                @Value("${shareit.booking.index.lock-stripes:64}") int lockStripes) {
+        this.bookingRepository = bookingRepository;
+        this.retention = retention;
+        this.stripes = new Lock[Integer.highestOneBit(Math.max(1, lockStripes - 1)) << 1];
+        for (int i = 0; i < stripes.length; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+    }
+
+    @PostConstruct
+    public void build() {
+        for (Lock stripe : stripes) {
+            stripe.lock();
+        }
+        try {
+            List<BookingInterval> intervals =
+                    bookingRepository.findAllIntervalsByStatusAndEndAfter(BookingStatus.APPROVED, horizon());
+            Map<Long, ItemIntervals> built = intervals.stream()
+                    .collect(Collectors.groupingBy(BookingInterval::getItemId, ConcurrentHashMap::new,
+                            Collectors.collectingAndThen(Collectors.toList(), ItemIntervals::of)));
+            for (BookingInterval reserved : pending.values()) {
+                ItemIntervals current = built.getOrDefault(reserved.getItemId(), ItemIntervals.EMPTY);
+                built.put(reserved.getItemId(), current.without(reserved.getBookingId()).with(
+                        reserved.getBookingId(), toEpochMilli(reserved.getStart()), toEpochMilli(reserved.getEnd())));
+            }
+
+            items = built;
+            log.info("Индекс интервалов бронирований построен: вещей - {}, бронирований - {}, "
+                    + "незавершенных резервов - {}", built.size(), intervals.size(), pending.size());
+        } finally {
+            for (int i = stripes.length - 1; i >= 0; i--) {
+                stripes[i].unlock();
+            }
+        }
+    }
+
+    public OptionalLong findConflict(long itemId, LocalDateTime start, LocalDateTime end) {
+        ItemIntervals intervals = items.get(itemId);
+        if (intervals == null) {
+            return OptionalLong.empty();
+        }
+        return intervals.findOverlap(toEpochMilli(start), toEpochMilli(end));
+    }
+
+    public OptionalLong reserve(long itemId, long bookingId, LocalDateTime start, LocalDateTime end) {
+        long from = toEpochMilli(start);
+        long to = toEpochMilli(end);
+        Lock lock = stripe(itemId);
+        lock.lock();
+        try {
+            ItemIntervals current = items.getOrDefault(itemId, ItemIntervals.EMPTY);
+            OptionalLong conflict = current.findOverlap(from, to);
+            if (conflict.isPresent()) {
+                return conflict;
+            }
+            items.put(itemId, current.withoutExpired(toEpochMilli(horizon())).with(bookingId, from, to));
+            trackUntilCompletion(new BookingInterval(bookingId, itemId, start, end));
+        } finally {
+            lock.unlock();
+        }
+        return OptionalLong.empty();
+    }
+
+    public void release(long itemId, long bookingId) {
+        Lock lock = stripe(itemId);
+        lock.lock();
+        try {
+            ItemIntervals current = items.get(itemId);
+            if (current == null) {
+                return;
+            }
+            ItemIntervals updated = current.without(bookingId);
+            if (updated.isEmpty()) {
+                items.remove(itemId);
+            } else {
+                items.put(itemId, updated);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onUserDeleted(UserDeletedEvent event) {
+        log.info("Пользователь с id '{}' удален, индекс интервалов бронирований перестраивается", event.getUserId());
+        build();
+    }
+
+    private void trackUntilCompletion(BookingInterval reserved) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        pending.put(reserved.getBookingId(), reserved);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                long itemId = reserved.getItemId();
+                Lock lock = stripe(itemId);
+                lock.lock();
+                try {
+                    pending.remove(reserved.getBookingId(), reserved);
+                    if (status != STATUS_COMMITTED) {
+                        release(itemId, reserved.getBookingId());
+                    }
+                } finally {
+                    lock.unlock();
+                }
+            }
+        });
+    }
+
+    private Lock stripe(long itemId) {
+        int hash = Long.hashCode(itemId);
+        return stripes[(hash ^ (hash >>> 16)) & (stripes.length - 1)];
+    }
+
+    private LocalDateTime horizon() {
+        return LocalDateTime.now().minus(retention);
+    }
+
+    private static long toEpochMilli(LocalDateTime dateTime) {
+        return dateTime.toInstant(ZoneOffset.UTC).toEpochMilli();
+    }
+
+    @RequiredArgsConstructor
+    static class ItemIntervals {
+
+        static final ItemIntervals EMPTY = new ItemIntervals(new long[0], new long[0], new long[0], new long[0]);
+
+        private final long[] starts;
+        private final long[] ends;
+        private final long[] maxEnds;
+        private final long[] bookingIds;
+
+        static ItemIntervals of(List<BookingInterval> intervals) {
+            List<BookingInterval> sorted = new ArrayList<>(intervals);
+            sorted.sort(Comparator.comparing(BookingInterval::getStart));
+            long[] starts = new long[sorted.size()];
+            long[] ends = new long[sorted.size()];
+            long[] bookingIds = new long[sorted.size()];
+            for (int i = 0; i < sorted.size(); i++) {
+                BookingInterval interval = sorted.get(i);
+                starts[i] = toEpochMilli(interval.getStart());
+                ends[i] = toEpochMilli(interval.getEnd());
+                bookingIds[i] = interval.getBookingId();
+            }
+            return of(starts, ends, bookingIds);
+        }
+
+        static ItemIntervals of(long[] starts, long[] ends, long[] bookingIds) {
+            return new ItemIntervals(starts, ends, prefixMax(ends), bookingIds);
+        }
+
+        boolean isEmpty() {
+            return starts.length == 0;
+        }
+
+        OptionalLong findOverlap(long start, long end) {
+            int candidates = lowerBound(starts, end);
+            if (candidates == 0 || maxEnds[candidates - 1] <= start) {
+                return OptionalLong.empty();
+            }
+            return OptionalLong.of(bookingIds[upperBound(maxEnds, start)]);
+        }
+
+        ItemIntervals with(long bookingId, long start, long end) {
+            int position = lowerBound(starts, start);
+            return of(insert(starts, position, start), insert(ends, position, end),
+                    insert(bookingIds, position, bookingId));
+        }
+
+        ItemIntervals without(long bookingId) {
+            for (int i = 0; i < bookingIds.length; i++) {
+                if (bookingIds[i] == bookingId) {
+                    return of(remove(starts, i), remove(ends, i), remove(bookingIds, i));
+                }
+            }
+            return this;
+        }
+
+        ItemIntervals withoutExpired(long horizon) {
+            int kept = 0;
+            for (long end : ends) {
+                if (end > horizon) {
+                    kept++;
+                }
+            }
+            if (kept == ends.length) {
+                return this;
+            }
+            long[] keptStarts = new long[kept];
+            long[] keptEnds = new long[kept];
+            long[] keptIds = new long[kept];
+            for (int i = 0, j = 0; i < ends.length; i++) {
+                if (ends[i] > horizon) {
+                    keptStarts[j] = starts[i];
+                    keptEnds[j] = ends[i];
+                    keptIds[j++] = bookingIds[i];
+                }
+            }
+            return of(keptStarts, keptEnds, keptIds);
+        }
+
+        private static long[] prefixMax(long[] ends) {
+            long[] maxEnds = new long[ends.length];
+            long max = Long.MIN_VALUE;
+            for (int i = 0; i < ends.length; i++) {
+                max = Math.max(max, ends[i]);
+                maxEnds[i] = max;
+            }
+            return maxEnds;
+        }
+
+        private static int lowerBound(long[] values, long key) {
+            int low = 0;
+            int high = values.length;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (values[mid] < key) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+
+        private static int upperBound(long[] values, long key) {
+            int low = 0;
+            int high = values.length;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (values[mid] <= key) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+
+        private static long[] insert(long[] values, int position, long value) {
+            long[] updated = new long[values.length + 1];
+            System.arraycopy(values, 0, updated, 0, position);
+            updated[position] = value;
+            System.arraycopy(values, position, updated, position + 1, values.length - position);
+            return updated;
+        }
+
+        private static long[] remove(long[] values, int position) {
+            long[] updated = new long[values.length - 1];
+            System.arraycopy(values, 0, updated, 0, position);
+            System.arraycopy(values, position + 1, updated, position, values.length - position - 1);
+            return updated;
+        }
+    }
+}
@@ -18,7 +18,8 @@ public class Booking {
 
     @Id
     @Column(name = "id")
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "booking_seq")
+    @SequenceGenerator(name = "booking_seq", sequenceName = "booking_seq", allocationSize = 50)
     private long id;
 
     @Column(name = "start_date", nullable = false)
@@ -36,7 +37,7 @@ public class Booking {
     private User booker;
 
     @Column(name = "status")
-    private String status;
+    private BookingStatus status;
 
 
 }
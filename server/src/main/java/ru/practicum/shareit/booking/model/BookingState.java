@@ -0,0 +1,24 @@
+package ru.practicum.shareit.booking.model;
+
+import ru.practicum.shareit.exception.UnknownStateException;
+
+public enum BookingState {
+
+    ALL,
+    CURRENT,
+    PAST,
+    FUTURE,
+    WAITING,
+    APPROVED,
+    REJECTED,
+    CANCELED;
+
+    public static BookingState from(String state) {
+        for (BookingState value : values()) {
+            if (value.name().equals(state)) {
+                return value;
+            }
+        }
+        throw new UnknownStateException(String.format("Unknown state: %s", state));
+    }
+}
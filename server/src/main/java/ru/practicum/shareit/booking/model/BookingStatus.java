@@ -0,0 +1,25 @@
+package ru.practicum.shareit.booking.model;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+@Getter
+@RequiredArgsConstructor
+public enum BookingStatus {
+
+    WAITING((short) 0),
+    APPROVED((short) 1),
+    REJECTED((short) 2),
+    CANCELED((short) 3);
+
+    private final short code;
+
+    public static BookingStatus fromCode(short code) {
+        for (BookingStatus status : values()) {
+            if (status.code == code) {
+                return status;
+            }
+        }
+        throw new IllegalArgumentException(String.format("Неизвестный код статуса брони: %d", code));
+    }
+}
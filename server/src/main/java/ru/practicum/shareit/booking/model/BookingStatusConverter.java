@@ -0,0 +1,18 @@
+package ru.practicum.shareit.booking.model;
+
+import javax.persistence.AttributeConverter;
+import javax.persistence.Converter;
+
+@Converter(autoApply = true)
+public class BookingStatusConverter implements AttributeConverter<BookingStatus, Short> {
+
+    @Override
+    public Short convertToDatabaseColumn(BookingStatus status) {
+        return status == null ? null : status.getCode();
+    }
+
+    @Override
+    public BookingStatus convertToEntityAttribute(Short code) {
+        return code == null ? null : BookingStatus.fromCode(code);
+    }
+}
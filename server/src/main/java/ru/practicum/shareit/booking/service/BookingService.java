@@ -1,6 +1,10 @@
 package ru.practicum.shareit.booking.service;
 
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionResultDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingPageDto;
 
 import java.util.List;
 
@@ -10,9 +14,17 @@ public interface BookingService {
 
     BookingDto approvingBooking(long userId, long bookingId, boolean approved);
 
+    List<BookingDecisionResultDto> approvingBookings(long userId, List<BookingDecisionDto> decisions);
+
     BookingDto getBooking(long userId, long bookingId);
 
     List<BookingDto> getUserAllBooking(long userId, String state, int from, int size);
 
     List<BookingDto> getAllBookingByOwner(long userId, String state, int from, int size);
+
+    BookingPageDto getUserBookingsAfterCursor(long userId, String state, String cursor, int size);
+
+    BookingPageDto getOwnerBookingsAfterCursor(long userId, String state, String cursor, int size);
+
+    StreamingResponseBody exportAllBookingByOwner(long userId);
 }
@@ -5,21 +5,33 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.converter.HttpMessageNotReadableException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionResultDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingPageDto;
+import ru.practicum.shareit.booking.index.BookingIntervalIndex;
 import ru.practicum.shareit.booking.mapper.BookingMapper;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingState;
+import ru.practicum.shareit.booking.model.BookingStatus;
 import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.booking.storage.BookingCursor;
 import ru.practicum.shareit.booking.storage.BookingRepository;
 import ru.practicum.shareit.exception.*;
+import ru.practicum.shareit.export.NdjsonExporter;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.storage.ItemRepository;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.storage.UserRepository;
 
-import java.util.List;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Slf4j
@@ -34,6 +46,10 @@ public class BookingServiceImpl implements BookingService {
 
     private final UserRepository userRepository;
 
+    private final NdjsonExporter ndjsonExporter;
+
+    private final BookingIntervalIndex bookingIntervalIndex;
+
 
     @Override
     @Transactional
@@ -50,10 +66,15 @@ public class BookingServiceImpl implements BookingService {
                     String.format("Вещь %s не доступна для бронирования для пользователя %s", item, user));
         }
         endDateValidate(bookingDto);
+        bookingIntervalIndex.findConflict(item.getId(), bookingDto.getStart(), bookingDto.getEnd())
+                .ifPresent(bookingId -> {
+                    throw new BookingOverlapException(String.format(
+                            "Вещь %s уже забронирована на эти даты (бронь с id %d)", item, bookingId));
+                });
         Booking booking = bookingRepository.save(BookingMapper.INSTANCE.toBooking(bookingDto));
         booking.setItem(item);
         booking.setBooker(user);
-        booking.setStatus("WAITING");
+        booking.setStatus(BookingStatus.WAITING);
 
         log.info("Пользователь '{}' создал запрос на бронь вещь - '{}'", user, item);
         return BookingMapper.INSTANCE.toBookingReplyDto(booking);
@@ -62,8 +83,10 @@ public class BookingServiceImpl implements BookingService {
     @Override
     @Transactional
     public BookingDto approvingBooking(long userId, long bookingId, boolean approved) {
-        Booking booking = ifBookingExistReturnBooking(bookingId);
-        Item item = itemRepository.findById(booking.getItem().getId())
+        Booking booking = bookingRepository.findWithItemByIdForUpdate(bookingId)
+                .orElseThrow(() -> new BookingNotFoundException(
+                        String.format("Брони с id %d - не существует", bookingId)));
+        Item item = itemRepository.findByIdForUpdate(booking.getItem().getId())
                 .orElseThrow(() -> new ItemNotFoundException(
                         String.format("Вещи с id %d нет в базе", (booking.getItem().getId()))));
         ifUserExistReturnUser(userId);
@@ -72,8 +95,21 @@ public class BookingServiceImpl implements BookingService {
             throw new BookingNotFoundException(
                     String.format("Вещь %s не принадлежит пользователю с id %d", booking.getItem(), userId));
         }
-        if (booking.getStatus().equals("WAITING")) {
-            booking.setStatus(approved ? "APPROVED" : "REJECTED");
+        if (booking.getStatus() == BookingStatus.WAITING) {
+            if (approved) {
+                bookingIntervalIndex.reserve(item.getId(), bookingId, booking.getStart(), booking.getEnd())
+                        .ifPresent(conflictId -> {
+                            throw new BookingOverlapException(String.format(
+                                    "Бронь с id %d пересекается с подтвержденной бронью с id %d",
+                                    bookingId, conflictId));
+                        });
+                if (bookingRepository.existsApprovedOverlap(item.getId(), bookingId, booking.getStart(),
+                        booking.getEnd())) {
+                    throw new BookingOverlapException(String.format(
+                            "Бронь с id %d пересекается с подтвержденной бронью", bookingId));
+                }
+            }
+            booking.setStatus(approved ? BookingStatus.APPROVED : BookingStatus.REJECTED);
         } else {
             throw new HttpMessageNotReadableException("Статус брони уже изменен");
         }
@@ -81,6 +117,59 @@ public class BookingServiceImpl implements BookingService {
         return BookingMapper.INSTANCE.toBookingReplyDto(booking);
     }
 
+    @Override
+    @Transactional
+    public List<BookingDecisionResultDto> approvingBookings(long userId, List<BookingDecisionDto> decisions) {
+        ifUserExistReturnUser(userId);
+        Set<Long> bookingIds = decisions.stream()
+                .map(BookingDecisionDto::getBookingId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        Map<Long, Booking> bookings = bookingIds.isEmpty()
+                ? Map.of()
+                : bookingRepository.findAllWithItemByIdInForUpdate(bookingIds).stream()
+                .collect(Collectors.toMap(Booking::getId, Function.identity()));
+        Set<Long> approvedItemIds = decisions.stream()
+                .filter(decision -> decision.getBookingId() != null && Boolean.TRUE.equals(decision.getApproved()))
+                .map(decision -> bookings.get(decision.getBookingId()))
+                .filter(Objects::nonNull)
+                .map(booking -> booking.getItem().getId())
+                .collect(Collectors.toSet());
+        if (!approvedItemIds.isEmpty()) {
+            itemRepository.findAllByIdInForUpdate(approvedItemIds);
+        }
+
+        List<BookingDecisionResultDto> results = new ArrayList<>(decisions.size());
+        Set<Long> decided = new HashSet<>();
+        List<Long> approvedIds = new ArrayList<>();
+        List<Long> rejectedIds = new ArrayList<>();
+        for (BookingDecisionDto decision : decisions) {
+            BookingDecisionResultDto result = decide(userId, decision, bookings, decided);
+            results.add(result);
+            if (result.getBookingStatus() != null) {
+                (decision.getApproved() ? approvedIds : rejectedIds).add(decision.getBookingId());
+            }
+        }
+
+        if (!approvedIds.isEmpty() || !rejectedIds.isEmpty()) {
+            List<Long> changedIds = new ArrayList<>(approvedIds);
+            changedIds.addAll(rejectedIds);
+            int updated = approvedIds.isEmpty()
+                    ? bookingRepository.updateWaitingStatuses(
+                            rejectedIds, BookingStatus.REJECTED, BookingStatus.APPROVED, changedIds)
+                    : bookingRepository.updateWaitingStatuses(
+                            approvedIds, BookingStatus.APPROVED, BookingStatus.REJECTED, changedIds);
+            if (updated != changedIds.size()) {
+                throw new BookingStatusConflictException(String.format(
+                        "Статус изменен только у %d броней из %d: остальные уже не ожидают подтверждения",
+                        updated, changedIds.size()));
+            }
+        }
+        log.info("Пользователь с id '{}' подтвердил {} и отклонил {} броней из {}",
+                userId, approvedIds.size(), rejectedIds.size(), decisions.size());
+        return results;
+    }
+
     @Override
     public BookingDto getBooking(long userId, long bookingId) {
         Booking booking = ifBookingExistReturnBooking(bookingId);
@@ -119,7 +208,7 @@ public class BookingServiceImpl implements BookingService {
                 throw new NotFoundException("Бронирований нет");
             }
         }
-        List<Booking> bookings = getBookingListForOwnerByState(userId, state, pageable).getContent();
+        List<Booking> bookings = bookingPage.getContent();
 
         log.info("Получен список бронирований вещей пользователя с id '{}' с параметром '{}' ", userId, state);
         return bookings.stream()
@@ -128,6 +217,43 @@ public class BookingServiceImpl implements BookingService {
 
     }
 
+    @Override
+    public BookingPageDto getUserBookingsAfterCursor(long userId, String state, String cursor, int size) {
+        ifUserExistReturnUser(userId);
+        List<Booking> bookings = getBookingListByStateAfterCursor(userId, state, BookingCursor.decode(cursor), size);
+
+        log.info("Получена страница бронирований с параметром '{}' пользователя с id '{}'", state, userId);
+        return toBookingPage(bookings, size);
+    }
+
+    @Override
+    public BookingPageDto getOwnerBookingsAfterCursor(long userId, String state, String cursor, int size) {
+        ifUserExistReturnUser(userId);
+        List<Booking> bookings =
+                getBookingListForOwnerByStateAfterCursor(userId, state, BookingCursor.decode(cursor), size);
+
+        log.info("Получена страница бронирований вещей пользователя с id '{}' с параметром '{}' ", userId, state);
+        return toBookingPage(bookings, size);
+    }
+
+    @Override
+    public StreamingResponseBody exportAllBookingByOwner(long userId) {
+        ifUserExistReturnUser(userId);
+
+        log.info("Начата выгрузка бронирований вещей пользователя с id '{}'", userId);
+        return ndjsonExporter.export(() -> bookingRepository.streamAllByOwnerId(userId),
+                BookingMapper.INSTANCE::toBookingReplyDto);
+    }
+
+    private BookingPageDto toBookingPage(List<Booking> bookings, int size) {
+        String nextCursor = bookings.size() < size
+                ? null
+                : BookingCursor.after(bookings.get(bookings.size() - 1)).encode();
+        return new BookingPageDto(bookings.stream()
+                .map(BookingMapper.INSTANCE::toBookingReplyDto)
+                .collect(Collectors.toList()), nextCursor);
+    }
+
     private Page<Booking> getElementsFromPage(long userId, String state, int from, int size) {
         Pageable pageable = PageRequest.of(from / size, size);
 
@@ -143,51 +269,67 @@ public class BookingServiceImpl implements BookingService {
     }
 
     private Page<Booking> getBookingListByState(long userId, String state, Pageable pageable) {
-
-        switch (state) {
-            case "ALL":
-                return bookingRepository.findAllByBookerIdOrderByStartDateDesc(userId, pageable);
-
-            case "PAST":
-                return bookingRepository.findAllByBookerIdAndEndDateBefore(userId, pageable);
-
-            case "FUTURE":
-                return bookingRepository.findAllByBookerIdAndStartDateAfter(userId, pageable);
-
-            case "CURRENT":
-                return bookingRepository.findAllByBookerIdAndDateBeforeAndDateAfter(userId, pageable);
-
-            case "WAITING":
-            case "REJECTED":
-                return bookingRepository.findAllByBookerIdAndStatusOrderByStartDateDesc(userId, state, pageable);
-
-            default:
-                throw new UnknownStateException(String.format("Unknown state: %s", state));
-        }
+        return bookingRepository.findAllByBookerIdAndState(
+                userId, BookingState.from(state), LocalDateTime.now(), pageable);
     }
 
     private Page<Booking> getBookingListForOwnerByState(long userId, String state, Pageable pageable) {
+        return bookingRepository.findAllByOwnerIdAndState(
+                userId, BookingState.from(state), LocalDateTime.now(), pageable);
+    }
 
-        switch (state) {
-            case "ALL":
-                return bookingRepository.findAllByOwnerIdOrderByStartDateDesc(userId, pageable);
-
-            case "PAST":
-                return bookingRepository.findAllByOwnerIdAndEndDateBefore(userId, pageable);
-
-            case "FUTURE":
-                return bookingRepository.findAllByOwnerIdAndStartDateAfter(userId, pageable);
-
-            case "CURRENT":
-                return bookingRepository.findAllByOwnerIdAndDateBeforeAndDateAfter(userId, pageable);
+    private List<Booking> getBookingListByStateAfterCursor(long userId, String state, BookingCursor cursor, int size) {
+        return bookingRepository.findAllByBookerIdAndStateAfterCursor(
+                userId, BookingState.from(state), LocalDateTime.now(), cursor, size);
+    }
 
-            case "WAITING":
-            case "REJECTED":
-                return bookingRepository.findAllByOwnerIdAndStatusOrderByStartDateDesc(userId, state, pageable);
+    private List<Booking> getBookingListForOwnerByStateAfterCursor(
+            long userId, String state, BookingCursor cursor, int size) {
+        return bookingRepository.findAllByOwnerIdAndStateAfterCursor(
+                userId, BookingState.from(state), LocalDateTime.now(), cursor, size);
+    }
 
-            default:
-                throw new UnknownStateException(String.format("Unknown state: %s", state));
+    private BookingDecisionResultDto decide(
+            long userId, BookingDecisionDto decision, Map<Long, Booking> bookings, Set<Long> decided) {
+        Long bookingId = decision.getBookingId();
+        if (bookingId == null || decision.getApproved() == null) {
+            return BookingDecisionResultDto.rejected(bookingId, HttpStatus.BAD_REQUEST,
+                    "Поля bookingId и approved не могут быть пустыми");
+        }
+        if (!decided.add(bookingId)) {
+            return BookingDecisionResultDto.rejected(bookingId, HttpStatus.BAD_REQUEST,
+                    String.format("Бронь с id %d указана повторно", bookingId));
+        }
+        Booking booking = bookings.get(bookingId);
+        if (booking == null) {
+            return BookingDecisionResultDto.rejected(bookingId, HttpStatus.NOT_FOUND,
+                    String.format("Брони с id %d - не существует", bookingId));
+        }
+        Item item = booking.getItem();
+        if (userId != item.getUser().getId()) {
+            return BookingDecisionResultDto.rejected(bookingId, HttpStatus.NOT_FOUND,
+                    String.format("Вещь с id %d не принадлежит пользователю с id %d", item.getId(), userId));
+        }
+        if (booking.getStatus() != BookingStatus.WAITING) {
+            return BookingDecisionResultDto.rejected(bookingId, HttpStatus.BAD_REQUEST, "Статус брони уже изменен");
+        }
+        if (decision.getApproved()) {
+            OptionalLong conflict =
+                    bookingIntervalIndex.reserve(item.getId(), bookingId, booking.getStart(), booking.getEnd());
+            if (conflict.isPresent()) {
+                return BookingDecisionResultDto.rejected(bookingId, HttpStatus.CONFLICT, String.format(
+                        "Бронь с id %d пересекается с подтвержденной бронью с id %d",
+                        bookingId, conflict.getAsLong()));
+            }
+            if (bookingRepository.existsApprovedOverlap(item.getId(), bookingId, booking.getStart(),
+                    booking.getEnd())) {
+                bookingIntervalIndex.release(item.getId(), bookingId);
+                return BookingDecisionResultDto.rejected(bookingId, HttpStatus.CONFLICT, String.format(
+                        "Бронь с id %d пересекается с подтвержденной бронью", bookingId));
+            }
         }
+        return BookingDecisionResultDto.applied(bookingId,
+                decision.getApproved() ? BookingStatus.APPROVED : BookingStatus.REJECTED);
     }
 
     private Booking ifBookingExistReturnBooking(long bookingId) {
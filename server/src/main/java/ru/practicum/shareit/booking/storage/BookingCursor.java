@@ -0,0 +1,51 @@
+package ru.practicum.shareit.booking.storage;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.ToString;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.exception.InvalidCursorException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+@Getter
+@ToString
+@RequiredArgsConstructor
+public class BookingCursor {
+
+    private static final String SEPARATOR = "_";
+    private static final LocalDateTime FIRST_PAGE_START = LocalDateTime.of(9999, 12, 31, 23, 59, 59);
+
+    private final LocalDateTime start;
+    private final long id;
+
+    public static BookingCursor first() {
+        return new BookingCursor(FIRST_PAGE_START, Long.MAX_VALUE);
+    }
+
+    public static BookingCursor after(Booking booking) {
+        return new BookingCursor(booking.getStart(), booking.getId());
+    }
+
+    public static BookingCursor decode(String token) {
+        if (token == null || token.isBlank()) {
+            return first();
+        }
+        try {
+            String value = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = value.lastIndexOf(SEPARATOR);
+            return new BookingCursor(LocalDateTime.parse(value.substring(0, separator)),
+                    Long.parseLong(value.substring(separator + 1)));
+        } catch (IllegalArgumentException | IndexOutOfBoundsException | DateTimeParseException e) {
+            throw new InvalidCursorException(String.format("Некорректный курсор: %s", token));
+        }
+    }
+
+    public String encode() {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((start + SEPARATOR + id).getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -1,107 +1,106 @@
 package ru.practicum.shareit.booking.storage;
 
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
+import ru.practicum.shareit.booking.index.BookingInterval;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
 
+import javax.persistence.LockModeType;
+import javax.persistence.QueryHint;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
-@Repository
-public interface BookingRepository extends JpaRepository<Booking, Long> {
-
-    @Query("select b " +
-            "from Booking b " +
-            "where b.booker.id = ?1 " +
-            "ORDER by b.start DESC")
-    Page<Booking> findAllByBookerIdOrderByStartDateDesc(long bookerId, Pageable pageable);
-
-    @Query("select b " +
-            "from Booking b " +
-            "where b.booker.id = ?1 " +
-            "and b.end < CURRENT_TIMESTAMP " +
-            "ORDER by b.start DESC")
-    Page<Booking> findAllByBookerIdAndEndDateBefore(long bookerId, Pageable pageable);
-
-    @Query("select b " +
-            "from Booking b " +
-            "where b.booker.id = ?1 " +
-            "and b.start > CURRENT_TIMESTAMP " +
-            "ORDER by b.start DESC")
-    Page<Booking> findAllByBookerIdAndStartDateAfter(long bookerId, Pageable pageable);
-
-    @Query("select b " +
-            "from Booking b " +
-            "where b.booker.id = ?1 " +
-            "AND b.start <= CURRENT_TIMESTAMP " +
-            "AND b.end >= CURRENT_TIMESTAMP " +
-            "ORDER by b.start DESC")
-    Page<Booking> findAllByBookerIdAndDateBeforeAndDateAfter(long bookerId, Pageable pageable);
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.QueryHints.HINT_READONLY;
 
-    @Query("select b " +
-            "from Booking b " +
-            "where b.booker.id = ?1 " +
-            "and b.status = ?2 " +
-            "ORDER by b.start DESC")
-    Page<Booking> findAllByBookerIdAndStatusOrderByStartDateDesc(long bookerId, String status, Pageable pageable);
-
-
-    @Query("select b " +
-            "from Booking as b " +
-            "join b.item as i " +
-            "where i.user.id = ?1 " +
-            "order by b.start desc")
-    Page<Booking> findAllByOwnerIdOrderByStartDateDesc(long ownerId, Pageable pageable);
+@Repository
+public interface BookingRepository extends JpaRepository<Booking, Long>, BookingStateRepository {
 
+    @QueryHints({
+            @QueryHint(name = HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HINT_READONLY, value = "true")})
     @Query("select b " +
             "from Booking as b " +
-            "join b.item as i " +
+            "join fetch b.item as i " +
+            "join fetch b.booker " +
             "where i.user.id = ?1 " +
-            "and b.end < CURRENT_TIMESTAMP " +
-            "order by b.start desc")
-    Page<Booking> findAllByOwnerIdAndEndDateBefore(long ownerId, Pageable pageable);
+            "order by b.start desc, b.id desc")
+    Stream<Booking> streamAllByOwnerId(long ownerId);
 
-    @Query("select b " +
+    @Query("select new ru.practicum.shareit.booking.index.BookingInterval(b.id, b.item.id, b.start, b.end) " +
             "from Booking as b " +
-            "join b.item as i " +
-            "where i.user.id = ?1 " +
-            "and b.start > CURRENT_TIMESTAMP " +
-            "order by b.start desc")
-    Page<Booking> findAllByOwnerIdAndStartDateAfter(long ownerId, Pageable pageable);
+            "where b.status = ?1 and b.end > ?2")
+    List<BookingInterval> findAllIntervalsByStatusAndEndAfter(BookingStatus status, LocalDateTime end);
 
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
     @Query("select b " +
             "from Booking as b " +
-            "join b.item as i " +
-            "where i.user.id = ?1 " +
-            "AND b.start <= now() " +
-            "AND b.end >= now() " +
-            "order by b.start desc")
-    Page<Booking> findAllByOwnerIdAndDateBeforeAndDateAfter(long ownerId, Pageable pageable);
+            "join fetch b.item " +
+            "where b.id in ?1")
+    List<Booking> findAllWithItemByIdInForUpdate(Collection<Long> bookingIds);
 
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
     @Query("select b " +
             "from Booking as b " +
-            "join b.item as i " +
-            "where i.user.id = ?1 " +
-            "and b.status = ?2 " +
-            "order by b.start desc")
-    Page<Booking> findAllByOwnerIdAndStatusOrderByStartDateDesc(long ownerId, String status, Pageable pageable);
+            "join fetch b.item " +
+            "where b.id = ?1")
+    Optional<Booking> findWithItemByIdForUpdate(long bookingId);
+
+    default boolean existsApprovedOverlap(long itemId, long bookingId, LocalDateTime start, LocalDateTime end) {
+        return existsByItemIdAndStatusAndStartBeforeAndEndAfterAndIdNot(
+                itemId, BookingStatus.APPROVED, end, start, bookingId);
+    }
+
+    boolean existsByItemIdAndStatusAndStartBeforeAndEndAfterAndIdNot(long itemId, BookingStatus status,
+                                                                      LocalDateTime end, LocalDateTime start,
+                                                                      long bookingId);
+
+    default int updateWaitingStatuses(Collection<Long> matchedIds, BookingStatus matchedStatus,
+                                      BookingStatus otherStatus, Collection<Long> bookingIds) {
+        return updateStatusCodes(matchedIds, matchedStatus.getCode(), otherStatus.getCode(), bookingIds,
+                BookingStatus.WAITING);
+    }
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Booking b " +
+            "set b.status = case when b.id in ?1 then ?2 else ?3 end " +
+            "where b.id in ?4 " +
+            "and b.status = ?5")
+    int updateStatusCodes(Collection<Long> matchedIds, short matchedCode, short otherCode,
+                          Collection<Long> bookingIds, BookingStatus currentStatus);
 
     @Query("select b " +
             "from Booking b " +
-            "where b.item.id = ?1 " +
-            "and b.start < CURRENT_TIMESTAMP " +
-            "ORDER by b.start DESC")
-    List<Booking> findFirstByItemIdAndEndDateBefore(long itemId);
+            "where b.item.id in ?1 " +
+            "and b.start = (select max(lb.start) " +
+            "from Booking lb " +
+            "where lb.item.id = b.item.id " +
+            "and lb.start < ?2)")
+    List<Booking> findLastBookingsByItemIds(Collection<Long> itemIds, LocalDateTime now);
+
+    default List<Booking> findNextBookingsByItemIds(Collection<Long> itemIds, LocalDateTime now) {
+        return findNextBookingsByItemIdsAndStatus(itemIds, now, BookingStatus.APPROVED);
+    }
 
     @Query("select b " +
             "from Booking b " +
-            "where b.item.id = ?1 " +
-            "and b.start > CURRENT_TIMESTAMP " +
-            "and b.status = 'APPROVED' " +
-            "ORDER by b.start asc")
-    List<Booking> findFirstByItemIdAndStartDateAfter(long itemId);
+            "where b.item.id in ?1 " +
+            "and b.status = ?3 " +
+            "and b.start = (select min(nb.start) " +
+            "from Booking nb " +
+            "where nb.item.id = b.item.id " +
+            "and nb.start > ?2 " +
+            "and nb.status = ?3)")
+    List<Booking> findNextBookingsByItemIdsAndStatus(Collection<Long> itemIds, LocalDateTime now,
+                                                     BookingStatus status);
 
     List<Booking> findAllByItemIdAndBookerId(long itemId, long bookerId);
 }
@@ -0,0 +1,22 @@
+package ru.practicum.shareit.booking.storage;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingState;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface BookingStateRepository {
+
+    Page<Booking> findAllByBookerIdAndState(long bookerId, BookingState state, LocalDateTime now, Pageable pageable);
+
+    Page<Booking> findAllByOwnerIdAndState(long ownerId, BookingState state, LocalDateTime now, Pageable pageable);
+
+    List<Booking> findAllByBookerIdAndStateAfterCursor(
+            long bookerId, BookingState state, LocalDateTime now, BookingCursor cursor, int size);
+
+    List<Booking> findAllByOwnerIdAndStateAfterCursor(
+            long ownerId, BookingState state, LocalDateTime now, BookingCursor cursor, int size);
+}
@@ -0,0 +1,97 @@
+package ru.practicum.shareit.booking.storage;
+
+import com.querydsl.core.BooleanBuilder;
+import com.querydsl.core.types.Predicate;
+import com.querydsl.jpa.impl.JPAQuery;
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.support.PageableExecutionUtils;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingState;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.model.QBooking;
+
+import javax.persistence.EntityManager;
+import java.time.LocalDateTime;
+import java.util.List;
+
+public class BookingStateRepositoryImpl implements BookingStateRepository {
+
+    private static final QBooking BOOKING = QBooking.booking;
+
+    private final JPAQueryFactory queryFactory;
+
+    public BookingStateRepositoryImpl(EntityManager entityManager) {
+        this.queryFactory = new JPAQueryFactory(entityManager);
+    }
+
+    @Override
+    public Page<Booking> findAllByBookerIdAndState(
+            long bookerId, BookingState state, LocalDateTime now, Pageable pageable) {
+        return findPage(byState(BOOKING.booker.id.eq(bookerId), state, now), pageable);
+    }
+
+    @Override
+    public Page<Booking> findAllByOwnerIdAndState(
+            long ownerId, BookingState state, LocalDateTime now, Pageable pageable) {
+        return findPage(byState(BOOKING.item.user.id.eq(ownerId), state, now), pageable);
+    }
+
+    @Override
+    public List<Booking> findAllByBookerIdAndStateAfterCursor(
+            long bookerId, BookingState state, LocalDateTime now, BookingCursor cursor, int size) {
+        return findAfterCursor(byState(BOOKING.booker.id.eq(bookerId), state, now), cursor, size);
+    }
+
+    @Override
+    public List<Booking> findAllByOwnerIdAndStateAfterCursor(
+            long ownerId, BookingState state, LocalDateTime now, BookingCursor cursor, int size) {
+        return findAfterCursor(byState(BOOKING.item.user.id.eq(ownerId), state, now), cursor, size);
+    }
+
+    private Page<Booking> findPage(Predicate where, Pageable pageable) {
+        List<Booking> bookings = select(where)
+                .offset(pageable.getOffset())
+                .limit(pageable.getPageSize())
+                .fetch();
+        JPAQuery<Long> count = queryFactory.select(BOOKING.count())
+                .from(BOOKING)
+                .where(where);
+        return PageableExecutionUtils.getPage(bookings, pageable, count::fetchOne);
+    }
+
+    private List<Booking> findAfterCursor(BooleanBuilder where, BookingCursor cursor, int size) {
+        where.and(BOOKING.start.lt(cursor.getStart())
+                .or(BOOKING.start.eq(cursor.getStart()).and(BOOKING.id.lt(cursor.getId()))));
+        return select(where)
+                .limit(size)
+                .fetch();
+    }
+
+    private JPAQuery<Booking> select(Predicate where) {
+        return queryFactory.selectFrom(BOOKING)
+                .where(where)
+                .orderBy(BOOKING.start.desc(), BOOKING.id.desc());
+    }
+
+    private BooleanBuilder byState(Predicate party, BookingState state, LocalDateTime now) {
+        BooleanBuilder where = new BooleanBuilder(party);
+        switch (state) {
+            case ALL:
+                return where;
+
+            case CURRENT:
+                return where.and(BOOKING.start.loe(now)).and(BOOKING.end.goe(now));
+
+            case PAST:
+                return where.and(BOOKING.end.lt(now));
+
+            case FUTURE:
+                return where.and(BOOKING.start.gt(now));
+
+            default:
+                return where.and(BOOKING.status.eq(BookingStatus.valueOf(state.name())));
+        }
+    }
+}
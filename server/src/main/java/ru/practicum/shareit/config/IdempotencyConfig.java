@@ -0,0 +1,23 @@
+package ru.practicum.shareit.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import ru.practicum.shareit.idempotency.IdempotencyFilter;
+import ru.practicum.shareit.idempotency.service.IdempotencyService;
+
+@Configuration
+@EnableScheduling
+public class IdempotencyConfig {
+
+    @Bean
+    public FilterRegistrationBean<IdempotencyFilter> idempotencyFilter(IdempotencyService idempotencyService,
+                                                                       ObjectMapper objectMapper) {
+        FilterRegistrationBean<IdempotencyFilter> registration =
+                new FilterRegistrationBean<>(new IdempotencyFilter(idempotencyService, objectMapper));
+        registration.addUrlPatterns("/bookings", "/items");
+        return registration;
+    }
+}
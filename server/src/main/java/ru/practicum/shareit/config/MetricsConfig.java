@@ -0,0 +1,56 @@
+package ru.practicum.shareit.config;
+
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.Tags;
+import org.springframework.boot.actuate.metrics.web.servlet.WebMvcTagsContributor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.lang.Nullable;
+import ru.practicum.shareit.booking.model.BookingState;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.util.Arrays;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+@Configuration
+public class MetricsConfig {
+
+    private static final String STATE_TAG = "state";
+
+    private static final String NO_STATE = "none";
+    private static final String UNKNOWN_STATE = "UNKNOWN";
+
+    private static final Set<String> BOOKING_LIST_PATHS = Set.of("/bookings", "/bookings/owner");
+
+    private static final Set<String> BOOKING_STATES = Arrays.stream(BookingState.values())
+            .map(Enum::name)
+            .collect(Collectors.toUnmodifiableSet());
+
+    @Bean
+    public WebMvcTagsContributor bookingStateTagsContributor() {
+        return new WebMvcTagsContributor() {
+            @Override
+            public Iterable<Tag> getTags(HttpServletRequest request, HttpServletResponse response,
+                                         Object handler, Throwable exception) {
+                return Tags.of(STATE_TAG, bookingState(request.getRequestURI(), request.getParameter(STATE_TAG)));
+            }
+
+            @Override
+            public Iterable<Tag> getLongRequestTags(HttpServletRequest request, Object handler) {
+                return Tags.of(STATE_TAG, bookingState(request.getRequestURI(), request.getParameter(STATE_TAG)));
+            }
+        };
+    }
+
+    static String bookingState(@Nullable String path, @Nullable String state) {
+        if (path == null || !BOOKING_LIST_PATHS.contains(path)) {
+            return NO_STATE;
+        }
+        if (state == null) {
+            return BookingState.ALL.name();
+        }
+        return BOOKING_STATES.contains(state) ? state : UNKNOWN_STATE;
+    }
+}
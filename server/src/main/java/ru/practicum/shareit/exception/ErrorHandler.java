@@ -67,5 +67,37 @@ public class ErrorHandler {
                 .body(new ResponseError(e.getMessage()));
     }
 
+    @ExceptionHandler(InvalidCursorException.class)
+    public ResponseEntity<ResponseError> invalidCursorException(InvalidCursorException e) {
+        log.error(e.getMessage());
+        return ResponseEntity
+                .status(HttpStatus.BAD_REQUEST)
+                .body(new ResponseError(e.getMessage()));
+    }
+
+    @ExceptionHandler(BatchSizeExceededException.class)
+    public ResponseEntity<ResponseError> batchSizeExceededException(BatchSizeExceededException e) {
+        log.error(e.getMessage());
+        return ResponseEntity
+                .status(HttpStatus.BAD_REQUEST)
+                .body(new ResponseError(e.getMessage()));
+    }
+
+    @ExceptionHandler(BookingOverlapException.class)
+    public ResponseEntity<ResponseError> bookingOverlapException(BookingOverlapException e) {
+        log.error(e.getMessage());
+        return ResponseEntity
+                .status(HttpStatus.CONFLICT)
+                .body(new ResponseError(e.getMessage()));
+    }
+
+    @ExceptionHandler(BookingStatusConflictException.class)
+    public ResponseEntity<ResponseError> bookingStatusConflictException(BookingStatusConflictException e) {
+        log.error(e.getMessage());
+        return ResponseEntity
+                .status(HttpStatus.CONFLICT)
+                .body(new ResponseError(e.getMessage()));
+    }
+
 
 }
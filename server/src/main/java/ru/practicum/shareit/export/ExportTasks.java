@@ -0,0 +1,38 @@
+package ru.practicum.shareit.export;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.async.WebAsyncTask;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import javax.servlet.http.HttpServletResponse;
+import java.time.Duration;
+
+/**
+ * Запускает выгрузку на отдельном пуле и со своим таймаутом, не меняя настройки async для остальных
+ * эндпоинтов. Тело пишется прямо в ответ: контроллер принимает {@link HttpServletResponse}, поэтому
+ * после завершения задачи Spring MVC считает запрос обработанным.
+ */
+@Component
+public class ExportTasks {
+
+    private final AsyncTaskExecutor exportExecutor;
+    private final long timeoutMillis;
+
+    public ExportTasks(@Qualifier("exportExecutor") AsyncTaskExecutor exportExecutor,
+                       @Value("${shareit.export.timeout:10m}") Duration timeout) {
+        this.exportExecutor = exportExecutor;
+        this.timeoutMillis = timeout.toMillis();
+    }
+
+    public WebAsyncTask<Void> stream(StreamingResponseBody body, HttpServletResponse response) {
+        response.setContentType(NdjsonExporter.APPLICATION_NDJSON.toString());
+        return new WebAsyncTask<>(timeoutMillis, exportExecutor, () -> {
+            body.writeTo(response.getOutputStream());
+            response.flushBuffer();
+            return null;
+        });
+    }
+}
@@ -0,0 +1,77 @@
+package ru.practicum.shareit.export;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import javax.persistence.EntityManager;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+@Slf4j
+@Component
+public class NdjsonExporter {
+
+    public static final MediaType APPLICATION_NDJSON = MediaType.parseMediaType("application/x-ndjson");
+
+    private static final int CLEAR_INTERVAL = 500;
+
+    private final ObjectMapper objectMapper;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+
+    public NdjsonExporter(ObjectMapper objectMapper, EntityManager entityManager,
+                          PlatformTransactionManager transactionManager) {
+        this.objectMapper = objectMapper;
+        this.entityManager = entityManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+    }
+
+    public <T> StreamingResponseBody export(Supplier<Stream<T>> rows, Function<T, ?> mapper) {
+        return out -> {
+            try {
+                Long count = transactionTemplate.execute(status -> {
+                    try {
+                        return write(rows.get(), mapper, out);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+                log.info("Выгружено {} записей", count);
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+        };
+    }
+
+    <T> long write(Stream<T> rows, Function<T, ?> mapper, OutputStream out) throws IOException {
+        ObjectWriter writer = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        long count = 0;
+        try (rows; JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.setRootValueSeparator(null);
+            Iterator<T> iterator = rows.iterator();
+            while (iterator.hasNext()) {
+                writer.writeValue(generator, mapper.apply(iterator.next()));
+                generator.writeRaw('\n');
+                if (++count % CLEAR_INTERVAL == 0) {
+                    entityManager.clear();
+                }
+            }
+        }
+        return count;
+    }
+}
@@ -0,0 +1,199 @@
+package ru.practicum.shareit.idempotency;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.util.StreamUtils;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+import ru.practicum.shareit.exception.IdempotencyKeyInProgressException;
+import ru.practicum.shareit.exception.IdempotencyKeyReusedException;
+import ru.practicum.shareit.exception.ResponseError;
+import ru.practicum.shareit.idempotency.model.IdempotencyRecord;
+import ru.practicum.shareit.idempotency.service.IdempotencyService;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ReadListener;
+import javax.servlet.ServletException;
+import javax.servlet.ServletInputStream;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletRequestWrapper;
+import javax.servlet.http.HttpServletResponse;
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.Optional;
+
+@Slf4j
+@RequiredArgsConstructor
+public class IdempotencyFilter extends OncePerRequestFilter {
+
+    public static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+    public static final String IDEMPOTENT_REPLAYED_HEADER = "Idempotent-Replayed";
+    private static final String USER_ID_HEADER = "X-Sharer-User-Id";
+    private static final int MAX_KEY_LENGTH = 64;
+
+    private final IdempotencyService idempotencyService;
+    private final ObjectMapper objectMapper;
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !HttpMethod.POST.matches(request.getMethod())
+                || request.getHeader(IDEMPOTENCY_KEY_HEADER) == null
+                || request.getHeader(USER_ID_HEADER) == null;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        long userId;
+        try {
+            userId = Long.parseLong(request.getHeader(USER_ID_HEADER));
+        } catch (NumberFormatException e) {
+            chain.doFilter(request, response);
+            return;
+        }
+        String idempotencyKey = request.getHeader(IDEMPOTENCY_KEY_HEADER);
+        if (idempotencyKey.isBlank() || idempotencyKey.length() > MAX_KEY_LENGTH) {
+            writeError(response, HttpStatus.BAD_REQUEST, "Заголовок " + IDEMPOTENCY_KEY_HEADER
+                    + " должен содержать от 1 до " + MAX_KEY_LENGTH + " символов");
+            return;
+        }
+
+        byte[] body = StreamUtils.copyToByteArray(request.getInputStream());
+        Optional<IdempotencyRecord> stored;
+        try {
+            stored = idempotencyService.begin(userId, idempotencyKey, requestHash(request, body));
+        } catch (IdempotencyKeyReusedException e) {
+            log.error(e.getMessage());
+            writeError(response, HttpStatus.UNPROCESSABLE_ENTITY, e.getMessage());
+            return;
+        } catch (IdempotencyKeyInProgressException e) {
+            log.error(e.getMessage());
+            writeError(response, HttpStatus.CONFLICT, e.getMessage());
+            return;
+        }
+        if (stored.isPresent()) {
+            replay(response, stored.get());
+            return;
+        }
+
+        ContentCachingResponseWrapper responseWrapper = new ContentCachingResponseWrapper(response);
+        boolean completed = false;
+        try {
+            chain.doFilter(new CachedBodyRequest(request, body), responseWrapper);
+            if (HttpStatus.Series.resolve(responseWrapper.getStatus()) != HttpStatus.Series.SERVER_ERROR) {
+                idempotencyService.complete(userId, idempotencyKey, responseWrapper.getStatus(),
+                        responseWrapper.getContentType(), responseWrapper.getContentAsByteArray());
+                completed = true;
+            }
+        } finally {
+            if (!completed) {
+                idempotencyService.release(userId, idempotencyKey);
+            }
+        }
+        responseWrapper.copyBodyToResponse();
+    }
+
+    private void replay(HttpServletResponse response, IdempotencyRecord record) throws IOException {
+        response.setStatus(record.getResponseStatus());
+        response.setHeader(IDEMPOTENT_REPLAYED_HEADER, "true");
+        if (record.getResponseContentType() != null) {
+            response.setContentType(record.getResponseContentType());
+        }
+        byte[] body = record.getResponseBody();
+        if (body != null) {
+            response.setContentLength(body.length);
+            response.getOutputStream().write(body);
+        }
+    }
+
+    private void writeError(HttpServletResponse response, HttpStatus status, String message) throws IOException {
+        response.setStatus(status.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        objectMapper.writeValue(response.getOutputStream(), new ResponseError(message));
+    }
+
+    private static String requestHash(HttpServletRequest request, byte[] body) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(request.getMethod().getBytes(StandardCharsets.UTF_8));
+            digest.update(request.getRequestURI().getBytes(StandardCharsets.UTF_8));
+            if (request.getQueryString() != null) {
+                digest.update(request.getQueryString().getBytes(StandardCharsets.UTF_8));
+            }
+            digest.update(body);
+            return Base64.getEncoder().encodeToString(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    static class CachedBodyRequest extends HttpServletRequestWrapper {
+
+        private final byte[] body;
+
+        CachedBodyRequest(HttpServletRequest request, byte[] body) {
+            super(request);
+            this.body = body;
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            ByteArrayInputStream in = new ByteArrayInputStream(body);
+            return new ServletInputStream() {
+                @Override
+                public boolean isFinished() {
+                    return in.available() == 0;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                @Override
+                public void setReadListener(ReadListener readListener) {
+                    try {
+                        if (!isFinished()) {
+                            readListener.onDataAvailable();
+                        }
+                        if (isFinished()) {
+                            readListener.onAllDataRead();
+                        }
+                    } catch (IOException e) {
+                        readListener.onError(e);
+                    }
+                }
+
+                @Override
+                public int read() {
+                    return in.read();
+                }
+
+                @Override
+                public int read(byte[] b, int off, int len) {
+                    return in.read(b, off, len);
+                }
+            };
+        }
+
+        @Override
+        public BufferedReader getReader() {
+            Charset charset = getCharacterEncoding() != null
+                    ? Charset.forName(getCharacterEncoding())
+                    : StandardCharsets.UTF_8;
+            return new BufferedReader(new InputStreamReader(getInputStream(), charset));
+        }
+    }
+}
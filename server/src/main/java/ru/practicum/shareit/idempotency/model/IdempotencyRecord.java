@@ -0,0 +1,55 @@
+package ru.practicum.shareit.idempotency.model;
+
+import lombok.*;
+
+import javax.persistence.*;
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+@Getter
+@Setter
+@ToString
+@Entity
+@Table(name = "idempotency_keys", schema = "public")
+@IdClass(IdempotencyRecord.Key.class)
+@NoArgsConstructor
+public class IdempotencyRecord {
+
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+
+    @Id
+    @Column(name = "idempotency_key")
+    private String idempotencyKey;
+
+    @Column(name = "request_hash", nullable = false)
+    private String requestHash;
+
+    @Column(name = "response_status")
+    private Integer responseStatus;
+
+    @Column(name = "response_content_type")
+    private String responseContentType;
+
+    @ToString.Exclude
+    @Column(name = "response_body")
+    private byte[] responseBody;
+
+    @Column(name = "created", nullable = false)
+    private LocalDateTime created;
+
+    public boolean isCompleted() {
+        return responseStatus != null;
+    }
+
+    @Getter
+    @Setter
+    @EqualsAndHashCode
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private Long userId;
+        private String idempotencyKey;
+    }
+}
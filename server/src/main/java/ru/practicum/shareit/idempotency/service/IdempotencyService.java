@@ -0,0 +1,16 @@
+package ru.practicum.shareit.idempotency.service;
+
+import ru.practicum.shareit.idempotency.model.IdempotencyRecord;
+
+import java.util.Optional;
+
+public interface IdempotencyService {
+
+    Optional<IdempotencyRecord> begin(long userId, String idempotencyKey, String requestHash);
+
+    void complete(long userId, String idempotencyKey, int status, String contentType, byte[] body);
+
+    void release(long userId, String idempotencyKey);
+
+    int purgeExpired();
+}
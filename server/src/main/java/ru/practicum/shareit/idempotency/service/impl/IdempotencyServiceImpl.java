@@ -0,0 +1,188 @@
+package ru.practicum.shareit.idempotency.service.impl;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import ru.practicum.shareit.exception.IdempotencyKeyInProgressException;
+import ru.practicum.shareit.exception.IdempotencyKeyReusedException;
+import ru.practicum.shareit.idempotency.model.IdempotencyRecord;
+import ru.practicum.shareit.idempotency.service.IdempotencyService;
+import ru.practicum.shareit.idempotency.storage.IdempotencyRecordRepository;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+@Slf4j
+@Service
+public class IdempotencyServiceImpl implements IdempotencyService {
+
+    private static final long POLL_INTERVAL_MILLIS = 50;
+
+    private final IdempotencyRecordRepository repository;
+    private final Duration ttl;
+    private final Duration lockTimeout;
+    private final Duration waitTimeout;
+    private final ConcurrentMap<IdempotencyRecord.Key, Execution> inFlight = new ConcurrentHashMap<>();
+
+    public IdempotencyServiceImpl(IdempotencyRecordRepository repository,
+                                  @Value("${shareit.idempotency.ttl:24h}") Duration ttl,
+                                  @Value("${shareit.idempotency.lock-timeout:1m}") Duration lockTimeout,
+                                  @Value("${shareit.idempotency.wait-timeout:10s}") Duration waitTimeout) {
+        this.repository = repository;
+        this.ttl = ttl;
+        this.lockTimeout = lockTimeout;
+        this.waitTimeout = waitTimeout;
+    }
+
+    @Override
+    public Optional<IdempotencyRecord> begin(long userId, String idempotencyKey, String requestHash) {
+        IdempotencyRecord.Key key = new IdempotencyRecord.Key(userId, idempotencyKey);
+        Execution running = inFlight.putIfAbsent(key, new Execution(requestHash));
+        if (running != null) {
+            log.info("Запрос с ключом идемпотентности {} уже выполняется, ожидаем его результат", idempotencyKey);
+            IdempotencyRecord record = await(running.result, idempotencyKey);
+            if (record == null) {
+                return begin(userId, idempotencyKey, requestHash);
+            }
+            return Optional.of(verify(record, requestHash));
+        }
+
+        try {
+            IdempotencyRecord record = findOrReserve(key, requestHash);
+            if (record == null) {
+                return Optional.empty();
+            }
+            finish(key, record);
+            log.info("Повтор запроса с ключом идемпотентности {}, возвращаем сохранённый ответ", idempotencyKey);
+            return Optional.of(verify(record, requestHash));
+        } catch (RuntimeException e) {
+            finish(key, null);
+            throw e;
+        }
+    }
+
+    @Override
+    public void complete(long userId, String idempotencyKey, int status, String contentType, byte[] body) {
+        repository.complete(userId, idempotencyKey, status, contentType, body);
+        IdempotencyRecord.Key key = new IdempotencyRecord.Key(userId, idempotencyKey);
+        Execution execution = inFlight.get(key);
+        if (execution == null) {
+            return;
+        }
+        IdempotencyRecord record = new IdempotencyRecord();
+        record.setUserId(userId);
+        record.setIdempotencyKey(idempotencyKey);
+        record.setRequestHash(execution.requestHash);
+        record.setResponseStatus(status);
+        record.setResponseContentType(contentType);
+        record.setResponseBody(body);
+        finish(key, record);
+    }
+
+    @Override
+    public void release(long userId, String idempotencyKey) {
+        repository.deletePending(userId, idempotencyKey);
+        finish(new IdempotencyRecord.Key(userId, idempotencyKey), null);
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${shareit.idempotency.cleanup-interval:10m}",
+            initialDelayString = "${shareit.idempotency.cleanup-interval:10m}")
+    public int purgeExpired() {
+        int deleted = repository.deleteAllCreatedBefore(LocalDateTime.now().minus(ttl));
+        log.info("Удалено {} устаревших ключей идемпотентности", deleted);
+        return deleted;
+    }
+
+    private IdempotencyRecord findOrReserve(IdempotencyRecord.Key key, String requestHash) {
+        long deadline = System.nanoTime() + waitTimeout.toNanos();
+        while (true) {
+            LocalDateTime now = LocalDateTime.now();
+            Optional<IdempotencyRecord> stored = repository.findById(key);
+            if (stored.isPresent() && isExpired(stored.get(), now)) {
+                repository.deleteStale(key.getUserId(), key.getIdempotencyKey(), stored.get().getCreated());
+                stored = Optional.empty();
+            }
+            if (stored.isPresent()) {
+                if (stored.get().isCompleted()) {
+                    return stored.get();
+                }
+                if (System.nanoTime() > deadline) {
+                    throw inProgress(key.getIdempotencyKey());
+                }
+                sleep(key.getIdempotencyKey());
+                continue;
+            }
+
+            try {
+                repository.insertPending(key.getUserId(), key.getIdempotencyKey(), requestHash, now);
+                return null;
+            } catch (DataIntegrityViolationException e) {
+                log.info("Ключ идемпотентности {} одновременно занят другим экземпляром", key.getIdempotencyKey());
+            }
+        }
+    }
+
+    private boolean isExpired(IdempotencyRecord record, LocalDateTime now) {
+        Duration timeout = record.isCompleted() ? ttl : lockTimeout;
+        return record.getCreated().isBefore(now.minus(timeout));
+    }
+
+    private IdempotencyRecord await(CompletableFuture<IdempotencyRecord> running, String idempotencyKey) {
+        try {
+            return running.get(waitTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException | ExecutionException e) {
+            throw inProgress(idempotencyKey);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw inProgress(idempotencyKey);
+        }
+    }
+
+    private void sleep(String idempotencyKey) {
+        try {
+            Thread.sleep(POLL_INTERVAL_MILLIS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw inProgress(idempotencyKey);
+        }
+    }
+
+    private void finish(IdempotencyRecord.Key key, IdempotencyRecord record) {
+        Execution execution = inFlight.remove(key);
+        if (execution != null) {
+            execution.result.complete(record);
+        }
+    }
+
+    private static IdempotencyRecord verify(IdempotencyRecord record, String requestHash) {
+        if (!requestHash.equals(record.getRequestHash())) {
+            throw new IdempotencyKeyReusedException(
+                    "Ключ идемпотентности " + record.getIdempotencyKey() + " уже использован для другого запроса");
+        }
+        return record;
+    }
+
+    private static IdempotencyKeyInProgressException inProgress(String idempotencyKey) {
+        return new IdempotencyKeyInProgressException(
+                "Запрос с ключом идемпотентности " + idempotencyKey + " ещё выполняется");
+    }
+
+    private static class Execution {
+        private final String requestHash;
+        private final CompletableFuture<IdempotencyRecord> result = new CompletableFuture<>();
+
+        private Execution(String requestHash) {
+            this.requestHash = requestHash;
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package ru.practicum.shareit.idempotency.storage;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.idempotency.model.IdempotencyRecord;
+
+import java.time.LocalDateTime;
+
+public interface IdempotencyRecordRepository extends JpaRepository<IdempotencyRecord, IdempotencyRecord.Key> {
+
+    @Transactional
+    @Modifying
+    @Query(value = "insert into idempotency_keys (user_id, idempotency_key, request_hash, created) "
+            + "values (?1, ?2, ?3, ?4)", nativeQuery = true)
+    void insertPending(long userId, String idempotencyKey, String requestHash, LocalDateTime created);
+
+    @Transactional
+    @Modifying
+    @Query("update IdempotencyRecord r set r.responseStatus = ?3, r.responseContentType = ?4, r.responseBody = ?5 "
+            + "where r.userId = ?1 and r.idempotencyKey = ?2")
+    int complete(long userId, String idempotencyKey, int status, String contentType, byte[] body);
+
+    @Transactional
+    @Modifying
+    @Query("delete from IdempotencyRecord r "
+            + "where r.userId = ?1 and r.idempotencyKey = ?2 and r.responseStatus is null")
+    int deletePending(long userId, String idempotencyKey);
+
+    @Transactional
+    @Modifying
+    @Query("delete from IdempotencyRecord r "
+            + "where r.userId = ?1 and r.idempotencyKey = ?2 and r.created = ?3")
+    int deleteStale(long userId, String idempotencyKey, LocalDateTime created);
+
+    @Transactional
+    @Modifying
+    @Query("delete from IdempotencyRecord r where r.created < ?1")
+    int deleteAllCreatedBefore(LocalDateTime threshold);
+}
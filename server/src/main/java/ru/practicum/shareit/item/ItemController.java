@@ -3,10 +3,17 @@ package ru.practicum.shareit.item;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.WebAsyncTask;
+import org.springframework.web.filter.ShallowEtagHeaderFilter;
+import ru.practicum.shareit.export.ExportTasks;
 import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemBulkResultDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.service.ItemService;
 
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
 import java.util.List;
 
 
@@ -17,6 +24,7 @@ public class ItemController {
 
 
     private final ItemService itemService;
+    private final ExportTasks exportTasks;
 
     @PostMapping
     public ResponseEntity<ItemDto> createItem(
@@ -26,6 +34,13 @@ public class ItemController {
 
     }
 
+    @PostMapping("/bulk")
+    public ResponseEntity<List<ItemBulkResultDto>> createItems(
+            @RequestHeader("X-Sharer-User-Id") long userId,
+            HttpServletRequest request) throws IOException {
+        return ResponseEntity.ok().body(itemService.createItems(userId, request.getInputStream()));
+    }
+
     @PatchMapping("/{itemId}")
     public ResponseEntity<ItemDto> updateItem(
             @RequestHeader("X-Sharer-User-Id") long userId,
@@ -49,6 +64,15 @@ public class ItemController {
         return ResponseEntity.ok().body(itemService.getAllUserItems(userId, from, size));
     }
 
+    @GetMapping("/export")
+    public WebAsyncTask<Void> exportAllUserItems(
+            @RequestHeader("X-Sharer-User-Id") long userId,
+            HttpServletRequest request,
+            HttpServletResponse response) {
+        ShallowEtagHeaderFilter.disableContentCaching(request);
+        return exportTasks.stream(itemService.exportAllUserItems(userId), response);
+    }
+
     @GetMapping("/search")
     public ResponseEntity<List<ItemDto>> searchItems(
             @RequestHeader("X-Sharer-User-Id") long userId,
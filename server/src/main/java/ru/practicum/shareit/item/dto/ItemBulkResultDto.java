@@ -0,0 +1,27 @@
+package ru.practicum.shareit.item.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.ToString;
+import org.springframework.http.HttpStatus;
+
+@Getter
+@ToString
+@RequiredArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ItemBulkResultDto {
+
+    private final int index;
+    private final int status;
+    private final Long id;
+    private final String error;
+
+    public static ItemBulkResultDto created(int index, long id) {
+        return new ItemBulkResultDto(index, HttpStatus.OK.value(), id, null);
+    }
+
+    public static ItemBulkResultDto rejected(int index, HttpStatus status, String error) {
+        return new ItemBulkResultDto(index, status.value(), null, error);
+    }
+}
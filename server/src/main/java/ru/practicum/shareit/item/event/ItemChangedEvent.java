@@ -0,0 +1,24 @@
+package ru.practicum.shareit.item.event;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.ToString;
+import ru.practicum.shareit.item.model.Item;
+
+@Getter
+@ToString
+@RequiredArgsConstructor
+public class ItemChangedEvent {
+
+    private final Long itemId;
+    private final String name;
+    private final String description;
+    private final boolean available;
+    private final Long requestId;
+
+    public static ItemChangedEvent of(Item item) {
+        return new ItemChangedEvent(item.getId(), item.getName(), item.getDescription(),
+                Boolean.TRUE.equals(item.getAvailable()),
+                item.getRequest() != null ? item.getRequest().getId() : null);
+    }
+}
@@ -0,0 +1,26 @@
+package ru.practicum.shareit.item.search.impl;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.search.ItemSearchEngine;
+import ru.practicum.shareit.item.storage.ItemRepository;
+
+import java.util.List;
+
+@Component
+@ConditionalOnProperty(name = "shareit.search.engine", havingValue = "sql", matchIfMissing = true)
+@Profile("!ci & !test")
+@RequiredArgsConstructor
+public class FullTextItemSearchEngine implements ItemSearchEngine {
+
+    private final ItemRepository itemRepository;
+
+    @Override
+    public List<Item> search(String searchText, Pageable pageable) {
+        return itemRepository.searchAvailableByFullText(searchText, pageable);
+    }
+}
@@ -0,0 +1,203 @@
+package ru.practicum.shareit.item.search.impl;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import ru.practicum.shareit.item.event.ItemChangedEvent;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.search.ItemSearchEngine;
+import ru.practicum.shareit.item.storage.ItemRepository;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.user.event.UserDeletedEvent;
+
+import javax.annotation.PostConstruct;
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "shareit.search.engine", havingValue = "index")
+@RequiredArgsConstructor
+public class InvertedIndexItemSearchEngine implements ItemSearchEngine {
+
+    private static final int GRAM_LENGTH = 3;
+
+    private final ItemRepository itemRepository;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<String, long[]> postings = new HashMap<>();
+    private final NavigableMap<Long, IndexedItem> items = new TreeMap<>();
+
+    @PostConstruct
+    public void build() {
+        List<IndexedItem> available = itemRepository.findAllByAvailableTrueOrderByIdAsc().stream()
+                .map(item -> IndexedItem.of(ItemChangedEvent.of(item)))
+                .collect(Collectors.toList());
+        Map<String, LongStream.Builder> builders = new HashMap<>();
+        for (IndexedItem item : available) {
+            for (String gram : item.grams()) {
+                builders.computeIfAbsent(gram, key -> LongStream.builder()).add(item.id);
+            }
+        }
+
+        lock.writeLock().lock();
+        try {
+            postings.clear();
+            items.clear();
+            builders.forEach((gram, ids) -> postings.put(gram, ids.build().toArray()));
+            available.forEach(item -> items.put(item.id, item));
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Поисковый индекс построен: вещей - {}, триграмм - {}", available.size(), builders.size());
+    }
+
+    @Override
+    public List<Item> search(String searchText, Pageable pageable) {
+        String query = searchText.toLowerCase(Locale.ROOT);
+        lock.readLock().lock();
+        try {
+            LongStream candidates = query.length() < GRAM_LENGTH
+                    ? items.keySet().stream().mapToLong(Long::longValue)
+                    : LongStream.of(intersect(trigrams(query)));
+            return candidates
+                    .mapToObj(items::get)
+                    .filter(item -> item.matches(query))
+                    .skip(pageable.getOffset())
+                    .limit(pageable.getPageSize())
+                    .map(IndexedItem::toItem)
+                    .collect(Collectors.toList());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onItemChanged(ItemChangedEvent event) {
+        lock.writeLock().lock();
+        try {
+            IndexedItem previous = items.remove(event.getItemId());
+            if (previous != null) {
+                previous.grams().forEach(gram -> removePosting(gram, previous.id));
+            }
+            if (event.isAvailable()) {
+                IndexedItem item = IndexedItem.of(event);
+                items.put(item.id, item);
+                item.grams().forEach(gram -> addPosting(gram, item.id));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onUserDeleted(UserDeletedEvent event) {
+        log.info("Пользователь с id '{}' удален, поисковый индекс перестраивается", event.getUserId());
+        build();
+    }
+
+    private long[] intersect(Set<String> grams) {
+        List<long[]> lists = new ArrayList<>(grams.size());
+        for (String gram : grams) {
+            long[] ids = postings.get(gram);
+            if (ids == null) {
+                return new long[0];
+            }
+            lists.add(ids);
+        }
+        lists.sort(Comparator.comparingInt(ids -> ids.length));
+
+        long[] result = lists.get(0);
+        for (int i = 1; i < lists.size() && result.length > 0; i++) {
+            long[] other = lists.get(i);
+            result = Arrays.stream(result)
+                    .filter(id -> Arrays.binarySearch(other, id) >= 0)
+                    .toArray();
+        }
+        return result;
+    }
+
+    private void addPosting(String gram, long id) {
+        long[] ids = postings.getOrDefault(gram, new long[0]);
+        int position = Arrays.binarySearch(ids, id);
+        if (position >= 0) {
+            return;
+        }
+        int insertAt = -position - 1;
+        long[] updated = new long[ids.length + 1];
+        System.arraycopy(ids, 0, updated, 0, insertAt);
+        updated[insertAt] = id;
+        System.arraycopy(ids, insertAt, updated, insertAt + 1, ids.length - insertAt);
+        postings.put(gram, updated);
+    }
+
+    private void removePosting(String gram, long id) {
+        long[] ids = postings.get(gram);
+        if (ids == null) {
+            return;
+        }
+        int position = Arrays.binarySearch(ids, id);
+        if (position < 0) {
+            return;
+        }
+        if (ids.length == 1) {
+            postings.remove(gram);
+            return;
+        }
+        long[] updated = new long[ids.length - 1];
+        System.arraycopy(ids, 0, updated, 0, position);
+        System.arraycopy(ids, position + 1, updated, position, ids.length - position - 1);
+        postings.put(gram, updated);
+    }
+
+    private static Set<String> trigrams(String text) {
+        Set<String> grams = new HashSet<>();
+        for (int i = 0; i + GRAM_LENGTH <= text.length(); i++) {
+            grams.add(text.substring(i, i + GRAM_LENGTH));
+        }
+        return grams;
+    }
+
+    @RequiredArgsConstructor
+    private static class IndexedItem {
+        private final long id;
+        private final String name;
+        private final String description;
+        private final String lowerName;
+        private final String lowerDescription;
+        private final Long requestId;
+
+        static IndexedItem of(ItemChangedEvent event) {
+            String name = event.getName() != null ? event.getName() : "";
+            String description = event.getDescription() != null ? event.getDescription() : "";
+            return new IndexedItem(event.getItemId(), name, description,
+                    name.toLowerCase(Locale.ROOT), description.toLowerCase(Locale.ROOT), event.getRequestId());
+        }
+
+        Set<String> grams() {
+            Set<String> grams = trigrams(lowerName);
+            grams.addAll(trigrams(lowerDescription));
+            return grams;
+        }
+
+        boolean matches(String query) {
+            return lowerName.contains(query) || lowerDescription.contains(query);
+        }
+
+        Item toItem() {
+            ItemRequest request = null;
+            if (requestId != null) {
+                request = new ItemRequest();
+                request.setId(requestId);
+            }
+            return new Item(id, name, description, true, null, request);
+        }
+    }
+}
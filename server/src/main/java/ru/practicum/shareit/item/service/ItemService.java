@@ -1,21 +1,29 @@
 package ru.practicum.shareit.item.service;
 
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemBulkResultDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.model.Item;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
 
 public interface ItemService {
 
     ItemDto createItem(long userId, ItemDto itemDto);
 
+    List<ItemBulkResultDto> createItems(long userId, InputStream items) throws IOException;
+
     ItemDto updateItem(long userId, long itemId, ItemDto itemDto);
 
     ItemDto getItem(long itemId, long userId);
 
     List<ItemDto> getAllUserItems(long userId, Integer from, Integer size);
 
+    StreamingResponseBody exportAllUserItems(long userId);
+
     List<ItemDto> searchItems(long userId, String text, Integer from, Integer size);
 
     Item ifItemExistReturnItem(long itemId);
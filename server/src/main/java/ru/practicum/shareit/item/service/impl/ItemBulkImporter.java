@@ -0,0 +1,221 @@
+package ru.practicum.shareit.item.service.impl;
+
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.TreeNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.item.dto.ItemBulkResultDto;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.event.ItemChangedEvent;
+import ru.practicum.shareit.item.mapper.ItemMapper;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.storage.ItemRepository;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.request.storage.ItemRequestRepository;
+import ru.practicum.shareit.user.model.User;
+
+import javax.persistence.EntityManager;
+import javax.validation.ConstraintViolation;
+import javax.validation.Validator;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.*;
+import java.util.stream.Collectors;
+
+@Slf4j
+@Component
+public class ItemBulkImporter {
+
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private final ItemRepository itemRepository;
+    private final ItemRequestRepository requestRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final int chunkSize;
+
+    public ItemBulkImporter(ObjectMapper objectMapper,
+                            Validator validator,
+                            ItemRepository itemRepository,
+                            ItemRequestRepository requestRepository,
+                            ApplicationEventPublisher eventPublisher,
+                            EntityManager entityManager,
+                            PlatformTransactionManager transactionManager,
+                            @Value("${shareit.items.bulk.chunk-size:500}") int chunkSize) {
+        this.objectMapper = objectMapper;
+        this.validator = validator;
+        this.itemRepository = itemRepository;
+        this.requestRepository = requestRepository;
+        this.eventPublisher = eventPublisher;
+        this.entityManager = entityManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.chunkSize = chunkSize;
+    }
+
+    public List<ItemBulkResultDto> importItems(User owner, InputStream items) throws IOException {
+        List<ItemBulkResultDto> results = new ArrayList<>();
+        Requests requests = new Requests();
+        List<Element> chunk = new ArrayList<>(chunkSize);
+        int index = 0;
+        String framingError = null;
+        try (JsonParser parser = objectMapper.getFactory().createParser(items)) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw new HttpMessageNotReadableException("Ожидается JSON-массив вещей");
+            }
+            for (; ; index++) {
+                TreeNode element;
+                try {
+                    JsonToken token = parser.nextToken();
+                    if (token == null) {
+                        framingError = "JSON-массив вещей не закрыт";
+                        break;
+                    }
+                    if (token == JsonToken.END_ARRAY) {
+                        break;
+                    }
+                    element = parser.readValueAsTree();
+                } catch (JsonParseException e) {
+                    framingError = "Некорректный JSON-массив вещей: " + e.getOriginalMessage();
+                    break;
+                }
+                ItemDto itemDto;
+                try {
+                    itemDto = objectMapper.treeToValue(element, ItemDto.class);
+                } catch (JsonProcessingException e) {
+                    results.add(ItemBulkResultDto.rejected(index, HttpStatus.BAD_REQUEST,
+                            "Некорректный элемент: " + e.getOriginalMessage()));
+                    continue;
+                }
+                String violations = validate(itemDto);
+                if (violations != null) {
+                    results.add(ItemBulkResultDto.rejected(index, HttpStatus.BAD_REQUEST, violations));
+                    continue;
+                }
+                chunk.add(new Element(index, itemDto));
+                if (chunk.size() == chunkSize) {
+                    results.addAll(persist(owner, chunk, requests));
+                    chunk.clear();
+                }
+            }
+        }
+        if (!chunk.isEmpty()) {
+            results.addAll(persist(owner, chunk, requests));
+        }
+        results.sort(Comparator.comparingInt(ItemBulkResultDto::getIndex));
+        if (framingError != null) {
+            // Уже сохраненные чанки не откатываются: вместо 400 на весь запрос отдаем отчет
+            // по прочитанным элементам и ошибку на позиции, где поток оборвался.
+            log.warn("Пакет вещей пользователя '{}' прерван на элементе {}: {}", owner, index, framingError);
+            results.add(ItemBulkResultDto.rejected(index, HttpStatus.BAD_REQUEST, framingError));
+        }
+        log.info("Пользователь '{}' загрузил пакет вещей: элементов - {}", owner, results.size());
+        return results;
+    }
+
+    private List<ItemBulkResultDto> persist(User owner, List<Element> chunk, Requests requests) {
+        requests.resolve(chunk.stream()
+                .map(element -> element.itemDto.getRequestId())
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet()));
+
+        List<ItemBulkResultDto> results = new ArrayList<>(chunk.size());
+        List<Element> accepted = new ArrayList<>(chunk.size());
+        for (Element element : chunk) {
+            Long requestId = element.itemDto.getRequestId();
+            if (requestId != null && !requests.found.containsKey(requestId)) {
+                results.add(ItemBulkResultDto.rejected(element.index, HttpStatus.NOT_FOUND,
+                        String.format("Запроса с id %d нет в базе", requestId)));
+            } else {
+                accepted.add(element);
+            }
+        }
+        if (accepted.isEmpty()) {
+            return results;
+        }
+
+        List<Item> saved;
+        try {
+            saved = transactionTemplate.execute(status -> {
+                List<Item> chunkItems = accepted.stream()
+                        .map(element -> toItem(element.itemDto, owner, requests))
+                        .collect(Collectors.toList());
+                itemRepository.saveAll(chunkItems);
+                entityManager.flush();
+                chunkItems.forEach(item -> eventPublisher.publishEvent(ItemChangedEvent.of(item)));
+                entityManager.clear();
+                return chunkItems;
+            });
+        } catch (DataAccessException | TransactionException e) {
+            log.error("Не удалось сохранить пакет из {} вещей: {}", accepted.size(), e.getMessage());
+            accepted.forEach(element -> results.add(ItemBulkResultDto.rejected(element.index,
+                    HttpStatus.INTERNAL_SERVER_ERROR, "Не удалось сохранить вещь")));
+            return results;
+        }
+        for (int i = 0; i < accepted.size(); i++) {
+            results.add(ItemBulkResultDto.created(accepted.get(i).index, saved.get(i).getId()));
+        }
+        return results;
+    }
+
+    private String validate(ItemDto itemDto) {
+        if (itemDto == null) {
+            return "Элемент не может быть пустым";
+        }
+        Set<ConstraintViolation<ItemDto>> violations = validator.validate(itemDto);
+        if (violations.isEmpty()) {
+            return null;
+        }
+        return violations.stream()
+                .map(ConstraintViolation::getMessage)
+                .sorted()
+                .collect(Collectors.joining("; "));
+    }
+
+    private static Item toItem(ItemDto itemDto, User owner, Requests requests) {
+        Item item = ItemMapper.INSTANCE.toItem(itemDto);
+        item.setId(null);
+        item.setUser(owner);
+        if (itemDto.getRequestId() != null) {
+            item.setRequest(requests.found.get(itemDto.getRequestId()));
+        }
+        return item;
+    }
+
+    @RequiredArgsConstructor
+    private static class Element {
+        private final int index;
+        private final ItemDto itemDto;
+    }
+
+    private class Requests {
+        private final Map<Long, ItemRequest> found = new HashMap<>();
+        private final Set<Long> missing = new HashSet<>();
+
+        void resolve(Set<Long> requestIds) {
+            Set<Long> unknown = requestIds.stream()
+                    .filter(id -> !found.containsKey(id) && !missing.contains(id))
+                    .collect(Collectors.toSet());
+            if (unknown.isEmpty()) {
+                return;
+            }
+            requestRepository.findAllById(unknown).forEach(request -> found.put(request.getId(), request));
+            unknown.stream()
+                    .filter(id -> !found.containsKey(id))
+                    .forEach(missing::add);
+        }
+    }
+}
@@ -2,10 +2,13 @@ package ru.practicum.shareit.item.service.impl;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import ru.practicum.shareit.booking.mapper.BookingMapper;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.storage.BookingRepository;
@@ -13,13 +16,17 @@ import ru.practicum.shareit.exception.ItemBookerException;
 import ru.practicum.shareit.exception.ItemNotFoundException;
 import ru.practicum.shareit.exception.ItemOwnerException;
 import ru.practicum.shareit.exception.UserNotFoundException;
+import ru.practicum.shareit.export.NdjsonExporter;
 import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemBulkResultDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemOwnerDto;
+import ru.practicum.shareit.item.event.ItemChangedEvent;
 import ru.practicum.shareit.item.mapper.CommentMapper;
 import ru.practicum.shareit.item.mapper.ItemMapper;
 import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.search.ItemSearchEngine;
 import ru.practicum.shareit.item.service.ItemService;
 import ru.practicum.shareit.item.storage.CommentRepository;
 import ru.practicum.shareit.item.storage.ItemRepository;
@@ -28,9 +35,13 @@ import ru.practicum.shareit.request.storage.ItemRequestRepository;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.storage.UserRepository;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.time.LocalDateTime;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Slf4j
@@ -44,6 +55,10 @@ public class ItemServiceImpl implements ItemService {
     private final BookingRepository bookingRepository;
     private final CommentRepository commentRepository;
     private final ItemRequestRepository requestRepository;
+    private final ItemSearchEngine itemSearchEngine;
+    private final ApplicationEventPublisher eventPublisher;
+    private final NdjsonExporter ndjsonExporter;
+    private final ItemBulkImporter itemBulkImporter;
 
     @Transactional
     @Override
@@ -55,11 +70,20 @@ public class ItemServiceImpl implements ItemService {
             ItemRequest request = requestRepository.findById(itemDto.getRequestId()).orElseThrow();
             item.setRequest(request);
         }
+        eventPublisher.publishEvent(ItemChangedEvent.of(item));
         log.info("Создана новая вещь - '{}'", item);
 
         return ItemMapper.INSTANCE.toItemDto(item);
     }
 
+    @Transactional(propagation = Propagation.SUPPORTS)
+    @Override
+    public List<ItemBulkResultDto> createItems(long userId, InputStream items) throws IOException {
+        User user = ifUserExistReturnUser(userId);
+
+        return itemBulkImporter.importItems(user, items);
+    }
+
     @Transactional
     @Override
     public ItemDto updateItem(long userId, long itemId, ItemDto itemDto) {
@@ -69,6 +93,7 @@ public class ItemServiceImpl implements ItemService {
         item.setName(itemDto.getName() != null ? itemDto.getName() : item.getName());
         item.setDescription(itemDto.getDescription() != null ? itemDto.getDescription() : item.getDescription());
         item.setAvailable(itemDto.getAvailable() != null ? itemDto.getAvailable() : item.getAvailable());
+        eventPublisher.publishEvent(ItemChangedEvent.of(item));
         log.info("Вещь '{}' - обновлена", item);
 
         return ItemMapper.INSTANCE.toItemDto(item);
@@ -85,10 +110,12 @@ public class ItemServiceImpl implements ItemService {
             log.info("Получена вещь '{}'", item);
             return itemOwnerDto;
         }
-        List<Booking> lastBookings = bookingRepository.findFirstByItemIdAndEndDateBefore(itemId);
-        Booking lastBooking = lastBookings.stream().findFirst().orElse(null);
-        List<Booking> nextBookings = bookingRepository.findFirstByItemIdAndStartDateAfter(itemId);
-        Booking nextBooking = nextBookings.stream().findFirst().orElse(null);
+        LocalDateTime now = LocalDateTime.now();
+        List<Long> itemIds = List.of(itemId);
+        Booking lastBooking = bookingRepository.findLastBookingsByItemIds(itemIds, now)
+                .stream().findFirst().orElse(null);
+        Booking nextBooking = bookingRepository.findNextBookingsByItemIds(itemIds, now)
+                .stream().findFirst().orElse(null);
 
         ItemOwnerDto itemOwnerDto = ItemMapper.INSTANCE.toItemOwnerDto(item);
         itemOwnerDto.setLastBooking(BookingMapper.INSTANCE.lastBookingDto(lastBooking));
@@ -106,19 +133,24 @@ public class ItemServiceImpl implements ItemService {
         Pageable pageable = PageRequest.of(from, size);
 
         List<Item> items = itemRepository.findAllByUserIdOrderByIdAsc(userId, pageable).getContent();
+        if (items.isEmpty()) {
+            log.info("Получен список вещей пользователя с id '{}'", userId);
+            return Collections.emptyList();
+        }
+        List<Long> itemIds = items.stream()
+                .map(Item::getId)
+                .collect(Collectors.toList());
+        LocalDateTime now = LocalDateTime.now();
+        Map<Long, Booking> lastBookings = groupByItemId(bookingRepository.findLastBookingsByItemIds(itemIds, now));
+        Map<Long, Booking> nextBookings = groupByItemId(bookingRepository.findNextBookingsByItemIds(itemIds, now));
+        Map<Long, List<CommentDto>> comments = getCommentsByItemIds(itemIds);
+
         List<ItemDto> itemDtos = items.stream()
                 .map(ItemMapper.INSTANCE::toItemOwnerDto)
                 .peek(itemDto -> {
-                    List<Booking> lastBookings = bookingRepository.findFirstByItemIdAndEndDateBefore(itemDto.getId());
-                    itemDto.setLastBooking(BookingMapper.INSTANCE.lastBookingDto(
-                            lastBookings.stream().findFirst().orElse(null))
-                    );
-                    List<Booking> nextBookings = bookingRepository.findFirstByItemIdAndStartDateAfter(itemDto.getId());
-                    itemDto.setNextBooking(BookingMapper.INSTANCE.nextBookingDto(
-                            nextBookings.stream().findFirst().orElse(null)));
-
-                    List<CommentDto> comments = getCommentsByItemId(itemDto.getId());
-                    itemDto.setComments(comments);
+                    itemDto.setLastBooking(BookingMapper.INSTANCE.lastBookingDto(lastBookings.get(itemDto.getId())));
+                    itemDto.setNextBooking(BookingMapper.INSTANCE.nextBookingDto(nextBookings.get(itemDto.getId())));
+                    itemDto.setComments(comments.getOrDefault(itemDto.getId(), Collections.emptyList()));
                 })
                 .collect(Collectors.toList());
         log.info("Получен список вещей пользователя с id '{}'", userId);
@@ -126,6 +158,14 @@ public class ItemServiceImpl implements ItemService {
 
     }
 
+    @Override
+    public StreamingResponseBody exportAllUserItems(long userId) {
+        ifUserExistReturnUser(userId);
+
+        log.info("Начата выгрузка вещей пользователя с id '{}'", userId);
+        return ndjsonExporter.export(() -> itemRepository.streamAllByUserId(userId), ItemMapper.INSTANCE::toItemDto);
+    }
+
     @Override
     public List<ItemDto> searchItems(long userId, String searchText, Integer from, Integer size) {
         if (searchText.isEmpty()) {
@@ -134,7 +174,7 @@ public class ItemServiceImpl implements ItemService {
         }
         Pageable pageable = PageRequest.of(from, size);
 
-        List<ItemDto> items = itemRepository.findByUserAndNameOrDescription(userId, searchText, pageable)
+        List<ItemDto> items = itemSearchEngine.search(searchText, pageable)
                 .stream()
                 .map(ItemMapper.INSTANCE::toItemDto)
                 .collect(Collectors.toList());
@@ -182,6 +222,19 @@ public class ItemServiceImpl implements ItemService {
                 .collect(Collectors.toList());
     }
 
+    private Map<Long, List<CommentDto>> getCommentsByItemIds(List<Long> itemIds) {
+        return commentRepository.findAllByItemIdIn(itemIds)
+                .stream()
+                .collect(Collectors.groupingBy(comment -> comment.getItem().getId(),
+                        Collectors.mapping(CommentMapper.INSTANCE::toCommentDto, Collectors.toList())));
+    }
+
+    private Map<Long, Booking> groupByItemId(List<Booking> bookings) {
+        return bookings.stream()
+                .collect(Collectors.toMap(booking -> booking.getItem().getId(), Function.identity(),
+                        (first, second) -> first.getId() < second.getId() ? first : second));
+    }
+
     private User ifUserExistReturnUser(long userId) {
         return userRepository.findById(userId).orElseThrow(() -> new UserNotFoundException(
                 String.format("Пользователя с id %d нет в базе", userId)));
@@ -1,13 +1,22 @@
 package ru.practicum.shareit.item.storage;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 import ru.practicum.shareit.item.model.Comment;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 public interface CommentRepository extends JpaRepository<Comment, Long> {
 
     List<Comment> findAllByItemId(long itemId);
+
+    @Query("select c " +
+            "from Comment c " +
+            "left join fetch c.author " +
+            "where c.item.id in ?1 " +
+            "order by c.created asc")
+    List<Comment> findAllByItemIdIn(Collection<Long> itemIds);
 }
@@ -3,23 +3,62 @@ package ru.practicum.shareit.item.storage;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 import ru.practicum.shareit.item.model.Item;
 
+import javax.persistence.LockModeType;
+import javax.persistence.QueryHint;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.QueryHints.HINT_READONLY;
 
 @Repository
 public interface ItemRepository extends JpaRepository<Item, Long> {
 
     Page<Item> findAllByUserIdOrderByIdAsc(long userId, Pageable pageable);
 
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select i from Item i where i.id = ?1")
+    Optional<Item> findByIdForUpdate(long itemId);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select i from Item i where i.id in ?1 order by i.id asc")
+    List<Item> findAllByIdInForUpdate(Collection<Long> itemIds);
+
+    @QueryHints({
+            @QueryHint(name = HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HINT_READONLY, value = "true")})
+    @Query("select i from Item i where i.user.id = ?1 order by i.id asc")
+    Stream<Item> streamAllByUserId(long userId);
+
     @Query("SELECT i FROM Item i " +
-            "WHERE i.user.id = ?1 " +
-            "AND LOWER(i.name) LIKE LOWER(CONCAT('%', ?2, '%')) " +
-            "OR LOWER(i.description) LIKE LOWER(CONCAT('%', ?2, '%')) " +
-            "AND i.available = true")
-    Page<Item> findByUserAndNameOrDescription(long userId, String searchText, Pageable pageable);
+            "WHERE i.available = true " +
+            "AND (LOWER(i.name) LIKE LOWER(CONCAT('%', ?1, '%')) " +
+            "OR LOWER(i.description) LIKE LOWER(CONCAT('%', ?1, '%'))) " +
+            "ORDER BY i.id ASC")
+    List<Item> searchAvailableByText(String searchText, Pageable pageable);
+
+    @Query(value = "SELECT i.* FROM items i " +
+            "WHERE i.available = true " +
+            "AND (i.search_vector @@ plainto_tsquery('simple', ?1) " +
+            "OR LOWER(i.name) LIKE LOWER(CONCAT('%', ?1, '%')) " +
+            "OR LOWER(i.description) LIKE LOWER(CONCAT('%', ?1, '%'))) " +
+            "ORDER BY ts_rank(i.search_vector, plainto_tsquery('simple', ?1)) DESC, " +
+            "similarity(LOWER(i.name), LOWER(?1)) DESC, i.id ASC",
+            nativeQuery = true)
+    List<Item> searchAvailableByFullText(String searchText, Pageable pageable);
 
     List<Item> findAllByRequestId(long requestId);
+
+    @Query("select i from Item i where i.request.id in ?1 order by i.id asc")
+    List<Item> findAllByRequestIdIn(Collection<Long> requestIds);
+
+    List<Item> findAllByAvailableTrueOrderByIdAsc();
 }
@@ -8,6 +8,7 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.exception.ItemNotFoundException;
 import ru.practicum.shareit.exception.UserNotFoundException;
+import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.mapper.ItemMapper;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.storage.ItemRepository;
@@ -19,7 +20,10 @@ import ru.practicum.shareit.request.storage.ItemRequestRepository;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.storage.UserRepository;
 
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @Slf4j
@@ -47,14 +51,8 @@ public class ItemRequestServiceImpl implements ItemRequestService {
     public List<ItemRequestDto> getAllUserItemsRequests(long userId) {
 
         ifUserExistReturnUser(userId);
-        List<ItemRequestDto> itemRequests = itemRequestRepository.getAllByRequestorId(userId).stream()
-                .map(ItemRequestMapper.INSTANCE::toItemRequestDto)
-                .peek(itemRequestDto -> {
-                    List<Item> items = itemRepository.findAllByRequestId(itemRequestDto.getId());
-                    itemRequestDto.setItems(items.stream()
-                            .map(ItemMapper.INSTANCE::toItemDto).collect(Collectors.toList()));
-                })
-                .collect(Collectors.toList());
+        List<ItemRequest> requests = itemRequestRepository.getAllByRequestorId(userId);
+        List<ItemRequestDto> itemRequests = toItemRequestDtosWithItems(requests);
         log.info("Получен список запросов пользователя с id '{}'", userId);
 
         return itemRequests;
@@ -66,14 +64,7 @@ public class ItemRequestServiceImpl implements ItemRequestService {
         Pageable pageable = PageRequest.of(from / size, size);
         List<ItemRequest> requests = itemRequestRepository.findAllItems(userId, pageable);
 
-        List<ItemRequestDto> itemRequests = requests.stream()
-                .map(ItemRequestMapper.INSTANCE::toItemRequestDto)
-                .peek(itemRequestDto -> {
-                    List<Item> items = itemRepository.findAllByRequestId(itemRequestDto.getId());
-                    itemRequestDto.setItems(items.stream()
-                            .map(ItemMapper.INSTANCE::toItemDto).collect(Collectors.toList()));
-                })
-                .collect(Collectors.toList());
+        List<ItemRequestDto> itemRequests = toItemRequestDtosWithItems(requests);
 
         log.info("Получен список запросов");
 
@@ -96,6 +87,31 @@ public class ItemRequestServiceImpl implements ItemRequestService {
         return itemRequestDto;
     }
 
+    private List<ItemRequestDto> toItemRequestDtosWithItems(List<ItemRequest> requests) {
+        if (requests.isEmpty()) {
+            return new ArrayList<>();
+        }
+        List<Long> requestIds = requests.stream()
+                .map(ItemRequest::getId)
+                .collect(Collectors.toList());
+        Map<Long, List<ItemDto>> itemsByRequestId = getItemsByRequestIds(requestIds);
+
+        return requests.stream()
+                .map(ItemRequestMapper.INSTANCE::toItemRequestDto)
+                .peek(itemRequestDto -> itemRequestDto.setItems(
+                        itemsByRequestId.getOrDefault(itemRequestDto.getId(), new ArrayList<>())))
+                .collect(Collectors.toList());
+    }
+
+    private Map<Long, List<ItemDto>> getItemsByRequestIds(List<Long> requestIds) {
+        Map<Long, List<ItemDto>> itemsByRequestId = new HashMap<>((int) (requestIds.size() / 0.75f) + 1);
+        for (Item item : itemRepository.findAllByRequestIdIn(requestIds)) {
+            itemsByRequestId.computeIfAbsent(item.getRequest().getId(), id -> new ArrayList<>())
+                    .add(ItemMapper.INSTANCE.toItemDto(item));
+        }
+        return itemsByRequestId;
+    }
+
     private User ifUserExistReturnUser(long userId) {
         return userRepository.findById(userId).orElseThrow(() -> new UserNotFoundException(
                 String.format("Пользователя с id %d нет в базе", userId)));
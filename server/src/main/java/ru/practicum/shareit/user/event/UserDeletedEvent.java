@@ -0,0 +1,13 @@
+package ru.practicum.shareit.user.event;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.ToString;
+
+@Getter
+@ToString
+@RequiredArgsConstructor
+public class UserDeletedEvent {
+
+    private final long userId;
+}
@@ -2,11 +2,13 @@ package ru.practicum.shareit.user.service.impl;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.exception.UserEmailAlreadyExistException;
 import ru.practicum.shareit.exception.UserNotFoundException;
 import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.event.UserDeletedEvent;
 import ru.practicum.shareit.user.mapper.UserMapper;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.service.UserService;
@@ -24,11 +26,14 @@ public class UserServiceImpl implements UserService {
 
     private final UserRepository repository;
 
+    private final ApplicationEventPublisher eventPublisher;
+
 
     @Transactional
     @Override
     public UserDto createUser(UserDto userDto) {
         User user = repository.save(UserMapper.INSTANCE.toUser(userDto));
+        repository.flush();
         log.info("Создан новый пользователь: '{}'", user);
         return UserMapper.INSTANCE.toUserDto(user);
     }
@@ -57,6 +62,7 @@ public class UserServiceImpl implements UserService {
     @Override
     public void deleteUser(long userId) {
         repository.deleteById(userId);
+        eventPublisher.publishEvent(new UserDeletedEvent(userId));
         log.info("Пользователь с id '{}' - удален", userId);
     }
 
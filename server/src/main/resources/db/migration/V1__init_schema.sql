@@ -1,5 +1,3 @@
-drop table if exists users, items, booking, comments, requests;
-
 CREATE TABLE IF NOT EXISTS users (
     id BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL primary key,
     name VARCHAR(255) NOT NULL,
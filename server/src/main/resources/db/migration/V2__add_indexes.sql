@@ -0,0 +1,13 @@
+CREATE INDEX IF NOT EXISTS idx_booking_booker_start ON booking (booker_id, start_date DESC, id DESC);
+CREATE INDEX IF NOT EXISTS idx_booking_booker_status_start ON booking (booker_id, status, start_date DESC);
+CREATE INDEX IF NOT EXISTS idx_booking_item_start ON booking (item_id, start_date);
+CREATE INDEX IF NOT EXISTS idx_booking_item_status_start ON booking (item_id, status, start_date);
+CREATE INDEX IF NOT EXISTS idx_booking_item_booker ON booking (item_id, booker_id);
+
+CREATE INDEX IF NOT EXISTS idx_items_user ON items (user_id, id);
+CREATE INDEX IF NOT EXISTS idx_items_request ON items (request_id);
+
+CREATE INDEX IF NOT EXISTS idx_comments_item ON comments (item_id);
+
+CREATE INDEX IF NOT EXISTS idx_requests_requestor ON requests (requestor_id, id);
+CREATE INDEX IF NOT EXISTS idx_requests_created ON requests (created DESC);
@@ -0,0 +1,17 @@
+ALTER TABLE booking ADD COLUMN status_code SMALLINT;
+
+UPDATE booking SET status_code = CASE status
+    WHEN 'WAITING' THEN 0
+    WHEN 'APPROVED' THEN 1
+    WHEN 'REJECTED' THEN 2
+    WHEN 'CANCELED' THEN 3
+END;
+
+DROP INDEX IF EXISTS idx_booking_booker_status_start;
+DROP INDEX IF EXISTS idx_booking_item_status_start;
+ALTER TABLE booking DROP COLUMN status;
+ALTER TABLE booking RENAME COLUMN status_code TO status;
+ALTER TABLE booking ALTER COLUMN status SET NOT NULL;
+
+CREATE INDEX IF NOT EXISTS idx_booking_booker_status_start ON booking (booker_id, status, start_date DESC);
+CREATE INDEX IF NOT EXISTS idx_booking_item_status_start ON booking (item_id, status, start_date);
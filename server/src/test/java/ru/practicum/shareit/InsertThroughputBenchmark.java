@@ -0,0 +1,92 @@
+package ru.practicum.shareit;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.storage.BookingRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.storage.ItemRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.storage.UserRepository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class InsertThroughputBenchmark {
+
+    private static final int ROWS = 200;
+
+    @Param({"1", "50"})
+    private int batchSize;
+
+    private ConfigurableApplicationContext context;
+    private TransactionTemplate transactionTemplate;
+    private ItemRepository itemRepository;
+    private BookingRepository bookingRepository;
+    private User owner;
+    private User booker;
+
+    @Setup
+    public void setUp() {
+        context = new SpringApplicationBuilder(ShareItServer.class)
+                .web(WebApplicationType.NONE)
+                .profiles(System.getProperty("spring.profiles.active", "test"))
+                .properties(
+                        "spring.jpa.properties.hibernate.jdbc.batch_size=" + batchSize,
+                        "logging.level.root=WARN")
+                .run();
+        transactionTemplate = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        itemRepository = context.getBean(ItemRepository.class);
+        bookingRepository = context.getBean(BookingRepository.class);
+        UserRepository userRepository = context.getBean(UserRepository.class);
+        owner = userRepository.save(new User(null, "Owner", "owner-" + System.nanoTime() + "@user.com"));
+        booker = userRepository.save(new User(null, "Booker", "booker-" + System.nanoTime() + "@user.com"));
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(2 * ROWS)
+    public void insertItemsWithBookings() {
+        transactionTemplate.executeWithoutResult(status -> {
+            List<Item> items = new ArrayList<>(ROWS);
+            for (int i = 0; i < ROWS; i++) {
+                items.add(new Item(null, "Дрель " + i, "Простая дрель", true, owner, null));
+            }
+            itemRepository.saveAll(items);
+
+            LocalDateTime start = LocalDateTime.now().plusDays(1);
+            List<Booking> bookings = new ArrayList<>(ROWS);
+            for (Item item : items) {
+                bookings.add(new Booking(0, start, start.plusDays(1), item, booker, BookingStatus.WAITING));
+            }
+            bookingRepository.saveAll(bookings);
+        });
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(InsertThroughputBenchmark.class.getSimpleName())
+                .build())
+                .run();
+    }
+}
@@ -0,0 +1,146 @@
+package ru.practicum.shareit;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import ru.practicum.shareit.booking.dto.BookingReplyDto;
+import ru.practicum.shareit.booking.dto.LastBookingDto;
+import ru.practicum.shareit.booking.dto.NextBookingDto;
+import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemBookingDto;
+import ru.practicum.shareit.item.dto.ItemOwnerDto;
+import ru.practicum.shareit.user.dto.UserBookingDto;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class InternalFormatBenchmark {
+
+    @Param({"json", "smile", "cbor"})
+    private String format;
+
+    @Param({"bookings", "items"})
+    private String page;
+
+    @Param({"100", "1000"})
+    private int size;
+
+    private final JsonFactory jsonFactory = new JsonFactory();
+    private ObjectMapper mapper;
+    private List<?> payload;
+    private byte[] encoded;
+
+    @Setup
+    public void setUp() throws IOException {
+        mapper = Jackson2ObjectMapperBuilder.json()
+                .factory(factory(format))
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+        payload = "bookings".equals(page) ? makeBookings(size) : makeItems(size);
+        encoded = mapper.writeValueAsBytes(payload);
+        System.out.printf("%n%s /%s page of %d: %d bytes%n", format, page, size, encoded.length);
+    }
+
+    @Benchmark
+    public byte[] serialize() throws IOException {
+        return mapper.writeValueAsBytes(payload);
+    }
+
+    @Benchmark
+    public byte[] transcodeToJson() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(encoded.length * 2);
+        try (JsonParser parser = mapper.getFactory().createParser(encoded);
+             JsonGenerator generator = jsonFactory.createGenerator(out)) {
+            while (parser.nextToken() != null) {
+                generator.copyCurrentEvent(parser);
+            }
+        }
+        return out.toByteArray();
+    }
+
+    private static JsonFactory factory(String format) {
+        switch (format) {
+            case "smile":
+                return new SmileFactory();
+            case "cbor":
+                return new CBORFactory();
+            default:
+                return new JsonFactory();
+        }
+    }
+
+    private static List<BookingReplyDto> makeBookings(int size) {
+        LocalDateTime now = LocalDateTime.now();
+        List<BookingReplyDto> bookings = new ArrayList<>(size);
+        for (long i = 1; i <= size; i++) {
+            BookingReplyDto booking = new BookingReplyDto();
+            booking.setId(i);
+            booking.setStart(now.plusDays(i));
+            booking.setEnd(now.plusDays(i + 1));
+            UserBookingDto booker = new UserBookingDto();
+            booker.setId(i % 50);
+            booking.setBooker(booker);
+            ItemBookingDto item = new ItemBookingDto();
+            item.setId(i % 20);
+            item.setName("Дрель ударная " + i % 20);
+            booking.setItem(item);
+            booking.setStatus(i % 3 == 0 ? "WAITING" : "APPROVED");
+            bookings.add(booking);
+        }
+        return bookings;
+    }
+
+    private static List<ItemOwnerDto> makeItems(int size) {
+        LocalDateTime now = LocalDateTime.now();
+        List<ItemOwnerDto> items = new ArrayList<>(size);
+        for (long i = 1; i <= size; i++) {
+            ItemOwnerDto item = new ItemOwnerDto();
+            item.setId(i);
+            item.setName("Дрель ударная " + i);
+            item.setDescription("Мощная дрель с набором свёрл, почти не использовалась");
+            item.setAvailable(true);
+            LastBookingDto lastBooking = new LastBookingDto();
+            lastBooking.setId(i * 2);
+            lastBooking.setBookerId(i % 50);
+            item.setLastBooking(lastBooking);
+            NextBookingDto nextBooking = new NextBookingDto();
+            nextBooking.setId(i * 2 + 1);
+            nextBooking.setBookerId(i % 50 + 1);
+            item.setNextBooking(nextBooking);
+            CommentDto comment = new CommentDto();
+            comment.setId(i);
+            comment.setText("Отличная дрель, всё работает");
+            comment.setAuthorName("Пользователь " + i % 50);
+            comment.setCreated(now.minusDays(i));
+            item.setComments(List.of(comment));
+            items.add(item);
+        }
+        return items;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(InternalFormatBenchmark.class.getSimpleName())
+                .build())
+                .run();
+    }
+}
@@ -0,0 +1,101 @@
+package ru.practicum.shareit;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import ru.practicum.shareit.booking.model.BookingStatus;
+
+import javax.sql.DataSource;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class MigrationIndexTest {
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "jdbc:h2:mem:plans_h2;DB_CLOSE_DELAY=-1",
+            "jdbc:h2:mem:plans_pg;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH;DB_CLOSE_DELAY=-1"
+    })
+    @DisplayName("Запросы к бронированиям, вещам, комментариям и запросам используют индексы")
+    void queryPlansUseIndexes(String url) {
+        DataSource dataSource = new DriverManagerDataSource(url, "test", "test");
+        Flyway flyway = Flyway.configure().dataSource(dataSource).cleanDisabled(false).load();
+        flyway.clean();
+        flyway.migrate();
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        assertThat(indexNames(jdbcTemplate)).contains(
+                "idx_booking_booker_start",
+                "idx_booking_booker_status_start",
+                "idx_booking_item_start",
+                "idx_booking_item_status_start",
+                "idx_booking_item_booker",
+                "idx_items_user",
+                "idx_items_request",
+                "idx_comments_item",
+                "idx_requests_requestor",
+                "idx_requests_created");
+        fillTables(jdbcTemplate);
+
+        assertThat(plan(jdbcTemplate, "select * from booking b where b.booker_id = 1 " +
+                "order by b.start_date desc, b.id desc"))
+                .contains("idx_booking_booker_start");
+        assertThat(plan(jdbcTemplate, "select * from booking b where b.booker_id = 1 " +
+                "and b.status = " + BookingStatus.WAITING.getCode() + " order by b.start_date desc"))
+                .contains("idx_booking_booker_status_start");
+        assertThat(plan(jdbcTemplate, "select * from booking b where b.item_id in (1, 2, 3) " +
+                "and b.start_date < current_timestamp"))
+                .contains("idx_booking_item_start");
+        assertThat(plan(jdbcTemplate, "select * from booking b where b.item_id = 1 " +
+                "and b.status = " + BookingStatus.APPROVED.getCode() +
+                " and b.start_date > current_timestamp order by b.start_date"))
+                .contains("idx_booking_item_status_start");
+        assertThat(plan(jdbcTemplate, "select * from items i where i.user_id = 1 order by i.id"))
+                .contains("idx_items_user");
+        assertThat(plan(jdbcTemplate, "select * from items i where i.request_id = 1"))
+                .contains("idx_items_request");
+        assertThat(plan(jdbcTemplate, "select * from comments c where c.item_id in (1, 2, 3)"))
+                .contains("idx_comments_item");
+        assertThat(plan(jdbcTemplate, "select * from requests r where r.requestor_id = 1 order by r.id"))
+                .contains("idx_requests_requestor");
+        assertThatThrownBy(() -> jdbcTemplate.update("insert into booking (id, start_date, end_date, item_id, " +
+                "booker_id, status) values (2001, current_timestamp, current_timestamp, 1, 1, null)"))
+                .isInstanceOf(DataIntegrityViolationException.class);
+    }
+
+    private void fillTables(JdbcTemplate jdbcTemplate) {
+        for (int i = 1; i <= 20; i++) {
+            jdbcTemplate.update("insert into users (id, name, email) values (?, ?, ?)",
+                    i, "User" + i, "user" + i + "@user.com");
+            jdbcTemplate.update("insert into requests (id, description, requestor_id, created) " +
+                    "values (?, ?, ?, current_timestamp)", i, "Request" + i, i);
+        }
+        for (int i = 1; i <= 200; i++) {
+            jdbcTemplate.update("insert into items (id, name, description, available, user_id, request_id) " +
+                    "values (?, ?, ?, true, ?, ?)", i, "Item" + i, "Description" + i, i % 20 + 1, i % 20 + 1);
+            jdbcTemplate.update("insert into comments (id, text, item_id, author_id, created) " +
+                    "values (?, ?, ?, ?, current_timestamp)", i, "Comment" + i, i, i % 20 + 1);
+        }
+        BookingStatus[] statuses = {BookingStatus.WAITING, BookingStatus.APPROVED, BookingStatus.REJECTED};
+        for (int i = 1; i <= 2000; i++) {
+            jdbcTemplate.update("insert into booking (id, start_date, end_date, item_id, booker_id, status) " +
+                            "values (?, dateadd('HOUR', ?, current_timestamp), " +
+                            "dateadd('HOUR', ?, current_timestamp), ?, ?, ?)",
+                    i, i - 1000, i - 999, i % 200 + 1, i % 20 + 1, statuses[i % statuses.length].getCode());
+        }
+        jdbcTemplate.execute("analyze");
+    }
+
+    private List<String> indexNames(JdbcTemplate jdbcTemplate) {
+        return jdbcTemplate.queryForList("select lower(index_name) from information_schema.indexes", String.class);
+    }
+
+    private String plan(JdbcTemplate jdbcTemplate, String sql) {
+        return jdbcTemplate.queryForObject("explain " + sql, String.class).toLowerCase();
+    }
+}
@@ -0,0 +1,91 @@
+package ru.practicum.shareit.batch;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.batch.dto.BatchOperationDto;
+import ru.practicum.shareit.batch.dto.BatchResultDto;
+import ru.practicum.shareit.batch.service.BatchService;
+import ru.practicum.shareit.exception.BatchSizeExceededException;
+import ru.practicum.shareit.exception.ResponseError;
+import ru.practicum.shareit.user.dto.UserDto;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(BatchController.class)
+class BatchControllerTest {
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private BatchService batchService;
+
+    @SneakyThrows
+    @Test
+    @DisplayName("Выполнение пакета запросов")
+    void execute_whenOperationsValid_thenResultsReturned() {
+        long userId = 1L;
+        UserDto userDto = new UserDto();
+        userDto.setId(userId);
+        userDto.setName("User");
+        BatchOperationDto userOperation = makeOperation("user", "/users/1");
+        BatchOperationDto itemOperation = makeOperation("item", "/items/100");
+        when(batchService.execute(eq(userId), anyList())).thenReturn(List.of(
+                new BatchResultDto("user", 200, Map.of(), userDto),
+                new BatchResultDto("item", 404, null, new ResponseError("Вещи с id 100 нет в базе"))));
+
+        mockMvc.perform(post("/batch")
+                        .header("X-Sharer-User-Id", userId)
+                        .content(objectMapper.writeValueAsString(List.of(userOperation, itemOperation)))
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[0].id", is("user")))
+                .andExpect(jsonPath("$[0].status", is(200)))
+                .andExpect(jsonPath("$[0].body.name", is(userDto.getName())))
+                .andExpect(jsonPath("$[1].id", is("item")))
+                .andExpect(jsonPath("$[1].status", is(404)))
+                .andExpect(jsonPath("$[1].body.error", is("Вещи с id 100 нет в базе")));
+    }
+
+    @SneakyThrows
+    @Test
+    @DisplayName("Выполнение слишком большого пакета запросов")
+    void execute_whenTooManyOperations_thenBadRequest() {
+        when(batchService.execute(eq(1L), anyList())).thenThrow(new BatchSizeExceededException("Слишком много"));
+
+        mockMvc.perform(post("/batch")
+                        .header("X-Sharer-User-Id", 1L)
+                        .content(objectMapper.writeValueAsString(List.of(makeOperation("user", "/users/1"))))
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error", is("Слишком много")));
+    }
+
+    private BatchOperationDto makeOperation(String id, String path) {
+        BatchOperationDto operation = new BatchOperationDto();
+        operation.setId(id);
+        operation.setPath(path);
+        return operation;
+    }
+}
@@ -0,0 +1,158 @@
+package ru.practicum.shareit.batch.service.impl;
+
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.web.method.HandlerMethod;
+import ru.practicum.shareit.batch.dto.BatchOperationDto;
+import ru.practicum.shareit.batch.dto.BatchResultDto;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.config.BatchConfig;
+import ru.practicum.shareit.config.ExportConfig;
+import ru.practicum.shareit.exception.BatchSizeExceededException;
+import ru.practicum.shareit.exception.ResponseError;
+import ru.practicum.shareit.exception.UserNotFoundException;
+import ru.practicum.shareit.export.ExportTasks;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.request.service.ItemRequestService;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.service.UserService;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+@WebMvcTest(properties = "shareit.batch.max-operations=3")
+@Import({BatchServiceImpl.class, BatchConfig.class, ExportConfig.class, ExportTasks.class})
+class BatchServiceImplTest {
+
+    @Autowired
+    private BatchServiceImpl batchService;
+    @Autowired
+    private MockMvc mockMvc;
+    @MockBean
+    private UserService userService;
+    @MockBean
+    private ItemService itemService;
+    @MockBean
+    private BookingService bookingService;
+    @MockBean
+    private ItemRequestService itemRequestService;
+
+    @Test
+    @DisplayName("Пакет запросов выполняется обработчиками контроллеров")
+    void execute_whenOperationsSupported_thenHandlersCalled() {
+        UserDto userDto = new UserDto();
+        userDto.setId(1L);
+        ItemDto itemDto = new ItemDto();
+        itemDto.setName("Щетка");
+        when(userService.getUser(1L)).thenReturn(userDto);
+        when(itemService.searchItems(2L, "щетка для обуви", 0, 5)).thenReturn(List.of(itemDto));
+
+        List<BatchResultDto> results = batchService.execute(2L, List.of(
+                makeOperation("user", "GET", "/users/1"),
+                makeOperation("search", "GET", "/items/search?text=%D1%89%D0%B5%D1%82%D0%BA%D0%B0%20"
+                        + "%D0%B4%D0%BB%D1%8F%20%D0%BE%D0%B1%D1%83%D0%B2%D0%B8&size=5")));
+
+        assertEquals(2, results.size());
+        assertEquals("user", results.get(0).getId());
+        assertEquals(200, results.get(0).getStatus());
+        assertEquals(userDto, results.get(0).getBody());
+        assertEquals("search", results.get(1).getId());
+        assertEquals(200, results.get(1).getStatus());
+        assertEquals(List.of(itemDto), results.get(1).getBody());
+    }
+
+    @Test
+    @DisplayName("Ошибка одного запроса из пакета обрабатывается ErrorHandler и не влияет на остальные")
+    void execute_whenOperationFails_thenErrorStatusReturned() {
+        when(userService.getUser(100L)).thenThrow(new UserNotFoundException("Пользователя с id 100 нет в базе"));
+        when(itemRequestService.getAllUserItemsRequests(2L)).thenReturn(Collections.emptyList());
+
+        List<BatchResultDto> results = batchService.execute(2L, List.of(
+                makeOperation("user", "GET", "/users/100"),
+                makeOperation("requests", "GET", "/requests")));
+
+        assertEquals(404, results.get(0).getStatus());
+        assertEquals("Пользователя с id 100 нет в базе", ((ResponseError) results.get(0).getBody()).getError());
+        assertEquals(200, results.get(1).getStatus());
+    }
+
+    @Test
+    @DisplayName("Неподдерживаемые запросы в пакете")
+    void execute_whenOperationNotSupported_thenErrorStatusReturned() {
+        List<BatchResultDto> results = batchService.execute(null, List.of(
+                makeOperation("post", "POST", "/users"),
+                makeOperation("unknown", "GET", "/unknown"),
+                makeOperation("noUser", "GET", "/items/1")));
+
+        assertEquals(405, results.get(0).getStatus());
+        assertEquals(404, results.get(1).getStatus());
+        assertEquals(400, results.get(2).getStatus());
+        verifyNoInteractions(userService, itemService);
+    }
+
+    @Test
+    @DisplayName("Выгрузки и изменяющие запросы не попадают в пакет")
+    void routePatterns_whenHandlerNotBatchable_thenRouteSkipped() {
+        Set<String> patterns = batchService.routePatterns();
+
+        assertTrue(patterns.containsAll(Set.of("/users", "/users/{userId}", "/items", "/items/{itemId}",
+                "/items/search", "/bookings", "/bookings/{bookingId}", "/bookings/owner", "/requests",
+                "/requests/all", "/requests/{requestId}")));
+        assertFalse(patterns.contains("/items/export"));
+        assertFalse(patterns.contains("/bookings/owner/export"));
+        assertFalse(patterns.contains("/batch"));
+    }
+
+    @SneakyThrows
+    @Test
+    @DisplayName("Каждый маршрут пакета ведет в тот же обработчик, что и запрос через MVC")
+    void findHandler_whenRouteResolved_thenSameHandlerAsMvc() {
+        for (String pattern : batchService.routePatterns()) {
+            String path = pattern.replaceAll("\\{[^}]+}", "1");
+
+            HandlerMethod batchHandler = batchService.findHandler(path);
+            HandlerMethod mvcHandler = (HandlerMethod) mockMvc.perform(get(path)
+                            .header("X-Sharer-User-Id", 1L)
+                            .param("text", "щетка"))
+                    .andReturn()
+                    .getHandler();
+
+            assertNotNull(batchHandler, path);
+            assertNotNull(mvcHandler, path);
+            assertEquals(mvcHandler.getMethod(), batchHandler.getMethod(), path);
+        }
+    }
+
+    @Test
+    @DisplayName("Пакет, превышающий допустимый размер")
+    void execute_whenTooManyOperations_thenException() {
+        List<BatchOperationDto> operations = List.of(
+                makeOperation("1", "GET", "/users"),
+                makeOperation("2", "GET", "/users"),
+                makeOperation("3", "GET", "/users"),
+                makeOperation("4", "GET", "/users"));
+
+        assertThrows(BatchSizeExceededException.class, () -> batchService.execute(1L, operations));
+        verifyNoInteractions(userService);
+    }
+
+    private BatchOperationDto makeOperation(String id, String method, String path) {
+        BatchOperationDto operation = new BatchOperationDto();
+        operation.setId(id);
+        operation.setMethod(method);
+        operation.setPath(path);
+        return operation;
+    }
+}
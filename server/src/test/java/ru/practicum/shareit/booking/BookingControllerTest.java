@@ -9,23 +9,36 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingPageDto;
 import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.config.ExportConfig;
+import ru.practicum.shareit.export.ExportTasks;
+import ru.practicum.shareit.export.NdjsonExporter;
 
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.util.List;
 
 import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.startsWith;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(BookingController.class)
+@Import({ExportConfig.class, ExportTasks.class})
 class BookingControllerTest {
 
     @Autowired
@@ -183,4 +196,46 @@ class BookingControllerTest {
         verify(bookingService).getAllBookingByOwner(anyLong(), anyString(), anyInt(), anyInt());
     }
 
+    @SneakyThrows
+    @Test
+    @DisplayName("Получение страницы бронирований владельцем вещи по курсору")
+    void getAllBookingByOwner_whenCursorPassed_thenPageWithNextCursorReturned() {
+        long userId = 1L;
+        String state = "ALL";
+        int size = 1;
+        when(bookingService.getOwnerBookingsAfterCursor(userId, state, "", size))
+                .thenReturn(new BookingPageDto(List.of(bookingDto), "next"));
+
+        mockMvc.perform(get("/bookings/owner")
+                        .header("X-Sharer-User-Id", userId)
+                        .param("state", state)
+                        .param("size", String.valueOf(size))
+                        .param("cursor", ""))
+                .andExpect(status().isOk())
+                .andExpect(header().string(BookingController.NEXT_CURSOR_HEADER, "next"))
+                .andExpect(jsonPath("$", hasSize(1)));
+
+        verify(bookingService).getOwnerBookingsAfterCursor(userId, state, "", size);
+        verify(bookingService, never()).getAllBookingByOwner(anyLong(), anyString(), anyInt(), anyInt());
+    }
+
+    @SneakyThrows
+    @Test
+    @DisplayName("Выгрузка бронирований владельца выполняется асинхронно на пуле выгрузки")
+    void exportAllBookingByOwner_thenNdjsonWrittenByExportExecutor() {
+        long userId = 1L;
+        StreamingResponseBody body = out -> out.write(
+                ("{\"thread\":\"" + Thread.currentThread().getName() + "\"}\n").getBytes(StandardCharsets.UTF_8));
+        when(bookingService.exportAllBookingByOwner(userId)).thenReturn(body);
+
+        MvcResult result = mockMvc.perform(get("/bookings/owner/export")
+                        .header("X-Sharer-User-Id", userId))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(NdjsonExporter.APPLICATION_NDJSON))
+                .andExpect(content().string(startsWith("{\"thread\":\"export-")));
+    }
 }
@@ -0,0 +1,122 @@
+package ru.practicum.shareit.booking.index;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.storage.BookingRepository;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.OptionalLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class BookingIntervalIndexTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.now().withNano(0);
+
+    @Mock
+    private BookingRepository bookingRepository;
+
+    private BookingIntervalIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new BookingIntervalIndex(bookingRepository, Duration.ofDays(30), 4);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    @DisplayName("Поиск пересечения среди отсортированных интервалов")
+    void findOverlap_whenIntervalsDisjoint_thenOnlyOverlappingFound() {
+        BookingIntervalIndex.ItemIntervals intervals = BookingIntervalIndex.ItemIntervals.of(
+                new long[]{10, 30}, new long[]{20, 40}, new long[]{1, 2});
+
+        assertEquals(OptionalLong.of(1), intervals.findOverlap(15, 16));
+        assertEquals(OptionalLong.of(2), intervals.findOverlap(35, 50));
+        assertEquals(OptionalLong.empty(), intervals.findOverlap(20, 30));
+        assertEquals(OptionalLong.empty(), intervals.findOverlap(0, 10));
+        assertEquals(OptionalLong.empty(), intervals.findOverlap(40, 50));
+    }
+
+    @Test
+    @DisplayName("Длинная ранняя бронь находится по префиксному максимуму окончаний")
+    void findOverlap_whenEarlyIntervalIsLong_thenFoundThroughPrefixMax() {
+        BookingIntervalIndex.ItemIntervals intervals = BookingIntervalIndex.ItemIntervals.of(
+                new long[]{0, 10, 30}, new long[]{100, 20, 40}, new long[]{1, 2, 3});
+
+        assertEquals(OptionalLong.of(1), intervals.findOverlap(50, 60));
+        assertEquals(OptionalLong.of(1), intervals.findOverlap(20, 30));
+        assertEquals(OptionalLong.empty(), intervals.findOverlap(100, 110));
+    }
+
+    @Test
+    @DisplayName("Добавление, удаление и очистка устаревших интервалов")
+    void withWithoutAndExpired_thenIntervalsUpdated() {
+        BookingIntervalIndex.ItemIntervals intervals = BookingIntervalIndex.ItemIntervals.EMPTY
+                .with(2, 30, 40)
+                .with(1, 10, 20);
+
+        assertEquals(OptionalLong.of(1), intervals.findOverlap(15, 35));
+        assertEquals(OptionalLong.of(2), intervals.without(1).findOverlap(15, 35));
+        assertEquals(OptionalLong.empty(), intervals.withoutExpired(25).findOverlap(10, 20));
+        assertTrue(intervals.without(1).without(2).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Перестроение индекса сохраняет незавершенный резерв")
+    void build_whenReservationNotCommitted_thenReservationKept() {
+        when(bookingRepository.findAllIntervalsByStatusAndEndAfter(eq(BookingStatus.APPROVED), any()))
+                .thenReturn(List.of());
+        TransactionSynchronizationManager.initSynchronization();
+
+        assertTrue(index.reserve(1L, 10L, NOW, NOW.plusHours(1)).isEmpty());
+        index.build();
+
+        assertEquals(OptionalLong.of(10L), index.findConflict(1L, NOW, NOW.plusMinutes(1)));
+
+        complete(TransactionSynchronization.STATUS_ROLLED_BACK);
+
+        assertEquals(OptionalLong.empty(), index.findConflict(1L, NOW, NOW.plusMinutes(1)));
+    }
+
+    @Test
+    @DisplayName("Перестроение индекса заменяет содержимое снимком из базы")
+    void build_whenCommittedReservationInDatabase_thenSnapshotUsed() {
+        when(bookingRepository.findAllIntervalsByStatusAndEndAfter(eq(BookingStatus.APPROVED), any()))
+                .thenReturn(List.of(new BookingInterval(20L, 1L, NOW, NOW.plusHours(1))));
+        TransactionSynchronizationManager.initSynchronization();
+        index.reserve(2L, 30L, NOW, NOW.plusHours(1));
+        complete(TransactionSynchronization.STATUS_COMMITTED);
+
+        index.build();
+
+        assertEquals(OptionalLong.of(20L), index.findConflict(1L, NOW, NOW.plusMinutes(1)));
+        assertEquals(OptionalLong.empty(), index.findConflict(2L, NOW, NOW.plusMinutes(1)));
+    }
+
+    private void complete(int status) {
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+        synchronizations.forEach(synchronization -> synchronization.afterCompletion(status));
+    }
+}
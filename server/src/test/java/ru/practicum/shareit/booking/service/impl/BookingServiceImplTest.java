@@ -11,10 +11,16 @@ import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.http.converter.HttpMessageNotReadableException;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingPageDto;
 import ru.practicum.shareit.booking.dto.BookingReplyDto;
+import ru.practicum.shareit.booking.index.BookingIntervalIndex;
 import ru.practicum.shareit.booking.mapper.BookingMapper;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingState;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.storage.BookingCursor;
 import ru.practicum.shareit.booking.storage.BookingRepository;
 import ru.practicum.shareit.exception.*;
 import ru.practicum.shareit.item.dto.ItemDto;
@@ -31,8 +37,11 @@ import java.util.List;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -45,6 +54,8 @@ class BookingServiceImplTest {
     private ItemRepository itemRepository;
     @Mock
     private UserRepository userRepository;
+    @Mock
+    private BookingIntervalIndex bookingIntervalIndex;
 
     private UserDto userDto = new UserDto();
     private UserDto otherUserDto = new UserDto();
@@ -91,7 +102,7 @@ class BookingServiceImplTest {
         Booking booking = BookingMapper.INSTANCE.toBooking(bookingDto);
         booking.setItem(item);
         booking.setBooker(user);
-        booking.setStatus("WAITING");
+        booking.setStatus(BookingStatus.WAITING);
 
         when(userRepository.findById(user.getId())).thenReturn(Optional.of(user));
         when(itemRepository.findById(item.getId())).thenReturn(Optional.of(item));
@@ -104,7 +115,7 @@ class BookingServiceImplTest {
         assertEquals(booking.getEnd(), bookingReplyDto.getEnd());
         assertEquals(booking.getBooker().getId(), bookingReplyDto.getBooker().getId());
         assertEquals(booking.getItem().getName(), bookingReplyDto.getItem().getName());
-        assertEquals(booking.getStatus(), bookingReplyDto.getStatus());
+        assertEquals(booking.getStatus().name(), bookingReplyDto.getStatus());
         verify(bookingRepository, times(1)).save(any());
         verify(itemRepository, times(1)).findById(anyLong());
         verify(userRepository, times(1)).findById(anyLong());
@@ -167,11 +178,11 @@ class BookingServiceImplTest {
         Item item = ItemMapper.INSTANCE.toItem(itemDto);
         item.setUser(user);
         booking.setItem(item);
-        booking.setStatus("WAITING");
+        booking.setStatus(BookingStatus.WAITING);
 
-        when(bookingRepository.findById(booking.getId())).thenReturn(Optional.of(booking));
+        when(bookingRepository.findWithItemByIdForUpdate(booking.getId())).thenReturn(Optional.of(booking));
         when(userRepository.findById(user.getId())).thenReturn(Optional.of(user));
-        when(itemRepository.findById(item.getId())).thenReturn(Optional.of(item));
+        when(itemRepository.findByIdForUpdate(item.getId())).thenReturn(Optional.of(item));
 
         BookingReplyDto bookingReplyDto =
                 (BookingReplyDto) bookingService.approvingBooking(
@@ -182,12 +193,39 @@ class BookingServiceImplTest {
         assertEquals(booking.getStart(), bookingReplyDto.getStart());
         assertEquals(booking.getEnd(), bookingReplyDto.getEnd());
         assertEquals(booking.getItem().getName(), bookingReplyDto.getItem().getName());
-        assertEquals(booking.getStatus(), bookingReplyDto.getStatus());
-        verify(bookingRepository, times(1)).findById(any());
-        verify(itemRepository, times(1)).findById(anyLong());
+        assertEquals(booking.getStatus().name(), bookingReplyDto.getStatus());
+        verify(bookingRepository, times(1)).findWithItemByIdForUpdate(anyLong());
+        verify(itemRepository, times(1)).findByIdForUpdate(anyLong());
         verify(userRepository, times(1)).findById(anyLong());
     }
 
+    @Test
+    @DisplayName("Пакетное решение, когда бронь перестала ожидать подтверждения до обновления статуса")
+    void approvingBookings_whenBookingLeftWaitingBeforeUpdate_thenBookingStatusConflictException() {
+        User user = UserMapper.INSTANCE.toUser(userDto);
+        Item item = ItemMapper.INSTANCE.toItem(itemDto);
+        item.setUser(user);
+        Booking approved = BookingMapper.INSTANCE.toBooking(bookingDto);
+        approved.setItem(item);
+        approved.setStatus(BookingStatus.WAITING);
+        bookingDto.setId(3L);
+        Booking rejected = BookingMapper.INSTANCE.toBooking(bookingDto);
+        rejected.setItem(item);
+        rejected.setStatus(BookingStatus.WAITING);
+
+        when(userRepository.findById(user.getId())).thenReturn(Optional.of(user));
+        when(bookingRepository.findAllWithItemByIdInForUpdate(any())).thenReturn(List.of(approved, rejected));
+        when(bookingRepository.updateWaitingStatuses(any(), any(), any(), any())).thenReturn(1);
+
+        assertThrows(BookingStatusConflictException.class,
+                () -> bookingService.approvingBookings(user.getId(), List.of(
+                        decision(approved.getId(), true),
+                        decision(rejected.getId(), false))));
+        verify(bookingRepository, times(1)).updateWaitingStatuses(
+                List.of(approved.getId()), BookingStatus.APPROVED, BookingStatus.REJECTED,
+                List.of(approved.getId(), rejected.getId()));
+    }
+
     @Test
     @DisplayName("Одобрение бронирования, которое не находится в статусе ожидания")
     void approvingBooking_whenBookingStatusNotWaiting_thenException() {
@@ -196,11 +234,11 @@ class BookingServiceImplTest {
         Item item = ItemMapper.INSTANCE.toItem(itemDto);
         item.setUser(user);
         booking.setItem(item);
-        booking.setStatus("REJECTED");
+        booking.setStatus(BookingStatus.REJECTED);
 
-        when(bookingRepository.findById(booking.getId())).thenReturn(Optional.of(booking));
+        when(bookingRepository.findWithItemByIdForUpdate(booking.getId())).thenReturn(Optional.of(booking));
         when(userRepository.findById(user.getId())).thenReturn(Optional.of(user));
-        when(itemRepository.findById(item.getId())).thenReturn(Optional.of(item));
+        when(itemRepository.findByIdForUpdate(item.getId())).thenReturn(Optional.of(item));
 
         assertThrows(HttpMessageNotReadableException.class,
                 () -> bookingService.approvingBooking(user.getId(), booking.getId(), true));
@@ -215,9 +253,9 @@ class BookingServiceImplTest {
         item.setUser(UserMapper.INSTANCE.toUser(otherUserDto));
         booking.setItem(item);
 
-        when(bookingRepository.findById(booking.getId())).thenReturn(Optional.of(booking));
+        when(bookingRepository.findWithItemByIdForUpdate(booking.getId())).thenReturn(Optional.of(booking));
         when(userRepository.findById(user.getId())).thenReturn(Optional.of(user));
-        when(itemRepository.findById(item.getId())).thenReturn(Optional.of(item));
+        when(itemRepository.findByIdForUpdate(item.getId())).thenReturn(Optional.of(item));
 
         assertThrows(BookingNotFoundException.class,
                 () -> bookingService.approvingBooking(user.getId(), booking.getId(), true));
@@ -231,8 +269,8 @@ class BookingServiceImplTest {
         item.setUser(UserMapper.INSTANCE.toUser(otherUserDto));
         booking.setItem(item);
 
-        when(bookingRepository.findById(booking.getId())).thenReturn(Optional.of(booking));
-        when(itemRepository.findById(item.getId())).thenReturn(Optional.of(item));
+        when(bookingRepository.findWithItemByIdForUpdate(booking.getId())).thenReturn(Optional.of(booking));
+        when(itemRepository.findByIdForUpdate(item.getId())).thenReturn(Optional.of(item));
         when(userRepository.findById(anyLong())).thenReturn(Optional.empty());
 
         assertThrows(UserNotFoundException.class,
@@ -248,8 +286,8 @@ class BookingServiceImplTest {
         Item item = ItemMapper.INSTANCE.toItem(itemDto);
         booking.setItem(item);
 
-        when(bookingRepository.findById(booking.getId())).thenReturn(Optional.of(booking));
-        when(itemRepository.findById(anyLong())).thenReturn(Optional.empty());
+        when(bookingRepository.findWithItemByIdForUpdate(booking.getId())).thenReturn(Optional.of(booking));
+        when(itemRepository.findByIdForUpdate(anyLong())).thenReturn(Optional.empty());
 
         assertThrows(ItemNotFoundException.class,
                 () -> bookingService.approvingBooking(user.getId(),
@@ -259,7 +297,7 @@ class BookingServiceImplTest {
     @Test
     @DisplayName("Одобрение бронирования, когда брони не существует")
     void approvingBooking_whenBookingNotExist_thenException() {
-        when(bookingRepository.findById(anyLong())).thenReturn(Optional.empty());
+        when(bookingRepository.findWithItemByIdForUpdate(anyLong())).thenReturn(Optional.empty());
 
         assertThrows(BookingNotFoundException.class,
                 () -> bookingService.approvingBooking(userDto.getId(),
@@ -347,12 +385,13 @@ class BookingServiceImplTest {
         item.setUser(user);
         booking.setItem(item);
         booking.setBooker(otherUser);
-        booking.setStatus("WAITING");
+        booking.setStatus(BookingStatus.WAITING);
         List<Booking> bookings = List.of(booking);
         Pageable pageable = PageRequest.of(from, size);
 
         when(userRepository.findById(otherUser.getId())).thenReturn(Optional.of(otherUser));
-        when(bookingRepository.findAllByBookerIdOrderByStartDateDesc(otherUser.getId(), pageable))
+        when(bookingRepository.findAllByBookerIdAndState(
+                eq(otherUser.getId()), eq(BookingState.ALL), any(LocalDateTime.class), eq(pageable)))
                 .thenReturn(new PageImpl<>(bookings, pageable, bookings.size()));
 
         List<BookingDto> bookingDtos = bookingService.getUserAllBooking(otherUserDto.getId(), state, from, size);
@@ -400,12 +439,13 @@ class BookingServiceImplTest {
         item.setUser(user);
         booking.setItem(item);
         booking.setBooker(otherUser);
-        booking.setStatus("WAITING");
+        booking.setStatus(BookingStatus.WAITING);
         List<Booking> bookings = List.of(booking);
         Pageable pageable = PageRequest.of(from, size);
 
         when(userRepository.findById(user.getId())).thenReturn(Optional.of(user));
-        when(bookingRepository.findAllByOwnerIdOrderByStartDateDesc(user.getId(), pageable))
+        when(bookingRepository.findAllByOwnerIdAndState(
+                eq(user.getId()), eq(BookingState.ALL), any(LocalDateTime.class), eq(pageable)))
                 .thenReturn(new PageImpl<>(bookings, pageable, bookings.size()));
 
         List<BookingDto> bookingDtos = bookingService.getAllBookingByOwner(user.getId(), state, from, size);
@@ -439,4 +479,71 @@ class BookingServiceImplTest {
         assertThrows(UserNotFoundException.class,
                 () -> bookingService.getAllBookingByOwner(userDto.getId(), state, from, size));
     }
+
+    @Test
+    @DisplayName("Получение страницы бронирований пользователя по курсору")
+    void getUserBookingsAfterCursor_whenPageFull_thenNextCursorReturned() {
+        String state = "ALL";
+        int size = 1;
+        Booking booking = BookingMapper.INSTANCE.toBooking(bookingDto);
+        User user = UserMapper.INSTANCE.toUser(userDto);
+        User otherUser = UserMapper.INSTANCE.toUser(otherUserDto);
+        Item item = ItemMapper.INSTANCE.toItem(itemDto);
+        item.setUser(user);
+        booking.setItem(item);
+        booking.setBooker(otherUser);
+        booking.setStatus(BookingStatus.WAITING);
+        BookingCursor first = BookingCursor.first();
+
+        when(userRepository.findById(otherUser.getId())).thenReturn(Optional.of(otherUser));
+        when(bookingRepository.findAllByBookerIdAndStateAfterCursor(
+                eq(otherUser.getId()), eq(BookingState.ALL), any(LocalDateTime.class),
+                argThat(cursor -> cursor.getId() == first.getId()), eq(size)))
+                .thenReturn(List.of(booking));
+
+        BookingPageDto page = bookingService.getUserBookingsAfterCursor(otherUser.getId(), state, "", size);
+
+        assertEquals(1, page.getBookings().size());
+        BookingCursor next = BookingCursor.decode(page.getNextCursor());
+        assertEquals(booking.getStart(), next.getStart());
+        assertEquals(booking.getId(), next.getId());
+    }
+
+    @Test
+    @DisplayName("Получение последней страницы бронирований владельцем по курсору")
+    void getOwnerBookingsAfterCursor_whenPageNotFull_thenNoNextCursor() {
+        String state = "WAITING";
+        int size = 10;
+        User user = UserMapper.INSTANCE.toUser(userDto);
+        BookingCursor cursor = new BookingCursor(LocalDateTime.now(), 5L);
+
+        when(userRepository.findById(user.getId())).thenReturn(Optional.of(user));
+        when(bookingRepository.findAllByOwnerIdAndStateAfterCursor(
+                eq(user.getId()), eq(BookingState.WAITING), any(LocalDateTime.class),
+                argThat(after -> after.getId() == cursor.getId()), eq(size)))
+                .thenReturn(List.of());
+
+        BookingPageDto page = bookingService.getOwnerBookingsAfterCursor(user.getId(), state, cursor.encode(), size);
+
+        assertEquals(0, page.getBookings().size());
+        assertNull(page.getNextCursor());
+    }
+
+    @Test
+    @DisplayName("Получение страницы бронирований по некорректному курсору")
+    void getUserBookingsAfterCursor_whenCursorInvalid_thenException() {
+        User otherUser = UserMapper.INSTANCE.toUser(otherUserDto);
+
+        when(userRepository.findById(otherUser.getId())).thenReturn(Optional.of(otherUser));
+
+        assertThrows(InvalidCursorException.class,
+                () -> bookingService.getUserBookingsAfterCursor(otherUser.getId(), "ALL", "not-a-cursor", 10));
+    }
+
+    private BookingDecisionDto decision(long bookingId, boolean approved) {
+        BookingDecisionDto decision = new BookingDecisionDto();
+        decision.setBookingId(bookingId);
+        decision.setApproved(approved);
+        return decision;
+    }
 }
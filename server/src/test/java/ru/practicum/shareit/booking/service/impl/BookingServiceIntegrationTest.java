@@ -9,12 +9,17 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.http.converter.HttpMessageNotReadableException;
 import org.springframework.test.annotation.DirtiesContext;
 import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionResultDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingReplyDto;
+import ru.practicum.shareit.booking.index.BookingIntervalIndex;
 import ru.practicum.shareit.booking.mapper.BookingMapper;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
 import ru.practicum.shareit.booking.storage.BookingRepository;
 import ru.practicum.shareit.exception.*;
+import ru.practicum.shareit.export.NdjsonExporter;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.mapper.ItemMapper;
 import ru.practicum.shareit.item.model.Item;
@@ -24,6 +29,10 @@ import ru.practicum.shareit.user.mapper.UserMapper;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.storage.UserRepository;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.List;
 
@@ -41,6 +50,7 @@ class BookingServiceIntegrationTest {
     private final BookingRepository bookingRepository;
     private final ItemRepository itemRepository;
     private final UserRepository userRepository;
+    private final NdjsonExporter ndjsonExporter;
 
     private UserDto userDto = new UserDto();
     private UserDto otherUserDto = new UserDto();
@@ -153,7 +163,7 @@ class BookingServiceIntegrationTest {
         Booking booking = bookingRepository.save(BookingMapper.INSTANCE.toBooking(bookingDto));
         booking.setItem(item);
         booking.setBooker(otherUser);
-        booking.setStatus("WAITING");
+        booking.setStatus(BookingStatus.WAITING);
 
         BookingReplyDto bookingReplyDto =
                 (BookingReplyDto) bookingService.approvingBooking(
@@ -162,6 +172,147 @@ class BookingServiceIntegrationTest {
         assertEquals("APPROVED", bookingReplyDto.getStatus());
     }
 
+    @Test
+    @DisplayName("Одобрение бронирования, пересекающегося с подтвержденной бронью")
+    void approvingBooking_whenOverlapsApprovedBooking_thenBookingOverlapException() {
+        User user = userRepository.save(UserMapper.INSTANCE.toUser(userDto));
+        User otherUser = userRepository.save(UserMapper.INSTANCE.toUser(otherUserDto));
+        Item item = itemRepository.save(ItemMapper.INSTANCE.toItem(itemDto));
+        item.setUser(user);
+        Booking booking = bookingRepository.save(BookingMapper.INSTANCE.toBooking(bookingDto));
+        booking.setItem(item);
+        booking.setBooker(otherUser);
+        booking.setStatus(BookingStatus.WAITING);
+        bookingDto.setEnd(bookingDto.getEnd().plusMinutes(5));
+        Booking overlapping = bookingRepository.save(BookingMapper.INSTANCE.toBooking(bookingDto));
+        overlapping.setItem(item);
+        overlapping.setBooker(otherUser);
+        overlapping.setStatus(BookingStatus.WAITING);
+
+        bookingService.approvingBooking(user.getId(), booking.getId(), true);
+
+        assertThrows(BookingOverlapException.class,
+                () -> bookingService.approvingBooking(user.getId(), overlapping.getId(), true));
+        assertEquals(BookingStatus.WAITING, overlapping.getStatus());
+    }
+
+    @Test
+    @DisplayName("Пакетное подтверждение и отклонение бронирований владельцем")
+    void approvingBookings_whenDecisionsAreMixed_thenReturnResultForEachBooking() {
+        User user = userRepository.save(UserMapper.INSTANCE.toUser(userDto));
+        User otherUser = userRepository.save(UserMapper.INSTANCE.toUser(otherUserDto));
+        Item item = itemRepository.save(ItemMapper.INSTANCE.toItem(itemDto));
+        item.setUser(user);
+        Item otherItem = itemRepository.save(ItemMapper.INSTANCE.toItem(itemDto));
+        otherItem.setUser(otherUser);
+        Booking approved = saveBooking(bookingDto, item, otherUser, BookingStatus.WAITING);
+        Booking rejected = saveBooking(nextBookingDto, item, otherUser, BookingStatus.WAITING);
+        Booking decided = saveBooking(lastBookingDto, item, otherUser, BookingStatus.REJECTED);
+        Booking foreign = saveBooking(bookingDto, otherItem, user, BookingStatus.WAITING);
+
+        List<BookingDecisionResultDto> results = bookingService.approvingBookings(user.getId(), List.of(
+                decision(approved.getId(), true),
+                decision(rejected.getId(), false),
+                decision(decided.getId(), true),
+                decision(foreign.getId(), true),
+                decision(999L, true),
+                decision(approved.getId(), false)));
+
+        assertEquals(6, results.size());
+        assertEquals(200, results.get(0).getStatus());
+        assertEquals(BookingStatus.APPROVED, results.get(0).getBookingStatus());
+        assertEquals(200, results.get(1).getStatus());
+        assertEquals(BookingStatus.REJECTED, results.get(1).getBookingStatus());
+        assertEquals(400, results.get(2).getStatus());
+        assertEquals(404, results.get(3).getStatus());
+        assertEquals(404, results.get(4).getStatus());
+        assertEquals("Брони с id 999 - не существует", results.get(4).getError());
+        assertEquals(400, results.get(5).getStatus());
+        assertEquals(BookingStatus.APPROVED, bookingRepository.findById(approved.getId()).orElseThrow().getStatus());
+        assertEquals(BookingStatus.REJECTED, bookingRepository.findById(rejected.getId()).orElseThrow().getStatus());
+        assertEquals(BookingStatus.REJECTED, bookingRepository.findById(decided.getId()).orElseThrow().getStatus());
+        assertEquals(BookingStatus.WAITING, bookingRepository.findById(foreign.getId()).orElseThrow().getStatus());
+    }
+
+    @Test
+    @DisplayName("Пакетное подтверждение пересекающихся бронирований")
+    void approvingBookings_whenBookingsOverlap_thenSecondIsConflict() {
+        User user = userRepository.save(UserMapper.INSTANCE.toUser(userDto));
+        User otherUser = userRepository.save(UserMapper.INSTANCE.toUser(otherUserDto));
+        Item item = itemRepository.save(ItemMapper.INSTANCE.toItem(itemDto));
+        item.setUser(user);
+        Booking booking = saveBooking(bookingDto, item, otherUser, BookingStatus.WAITING);
+        Booking overlapping = saveBooking(bookingDto, item, otherUser, BookingStatus.WAITING);
+
+        List<BookingDecisionResultDto> results = bookingService.approvingBookings(user.getId(), List.of(
+                decision(booking.getId(), true),
+                decision(overlapping.getId(), true)));
+
+        assertEquals(200, results.get(0).getStatus());
+        assertEquals(409, results.get(1).getStatus());
+        assertEquals(BookingStatus.WAITING, bookingRepository.findById(overlapping.getId()).orElseThrow().getStatus());
+    }
+
+    @Test
+    @DisplayName("Одобрение брони, пересекающейся с бронью, подтвержденной на другом экземпляре сервера")
+    void approvingBooking_whenOverlapApprovedOnOtherInstance_thenBookingOverlapException() {
+        User user = userRepository.save(UserMapper.INSTANCE.toUser(userDto));
+        User otherUser = userRepository.save(UserMapper.INSTANCE.toUser(otherUserDto));
+        Item item = itemRepository.save(ItemMapper.INSTANCE.toItem(itemDto));
+        item.setUser(user);
+        Booking booking = saveBooking(bookingDto, item, otherUser, BookingStatus.WAITING);
+        Booking overlapping = saveBooking(bookingDto, item, otherUser, BookingStatus.WAITING);
+
+        otherInstance().approvingBooking(user.getId(), booking.getId(), true);
+
+        assertThrows(BookingOverlapException.class,
+                () -> bookingService.approvingBooking(user.getId(), overlapping.getId(), true));
+        assertEquals(BookingStatus.WAITING, overlapping.getStatus());
+    }
+
+    @Test
+    @DisplayName("Пакетное одобрение брони, пересекающейся с бронью, подтвержденной на другом экземпляре сервера")
+    void approvingBookings_whenOverlapApprovedOnOtherInstance_thenConflict() {
+        User user = userRepository.save(UserMapper.INSTANCE.toUser(userDto));
+        User otherUser = userRepository.save(UserMapper.INSTANCE.toUser(otherUserDto));
+        Item item = itemRepository.save(ItemMapper.INSTANCE.toItem(itemDto));
+        item.setUser(user);
+        Booking booking = saveBooking(bookingDto, item, otherUser, BookingStatus.WAITING);
+        Booking overlapping = saveBooking(bookingDto, item, otherUser, BookingStatus.WAITING);
+
+        otherInstance().approvingBooking(user.getId(), booking.getId(), true);
+        List<BookingDecisionResultDto> results = bookingService.approvingBookings(user.getId(), List.of(
+                decision(overlapping.getId(), true)));
+
+        assertEquals(409, results.get(0).getStatus());
+        assertEquals(BookingStatus.WAITING, bookingRepository.findById(overlapping.getId()).orElseThrow().getStatus());
+        nextBookingDto.setItemId(item.getId());
+        Booking next = saveBooking(nextBookingDto, item, otherUser, BookingStatus.WAITING);
+        assertEquals(200, bookingService.approvingBookings(user.getId(), List.of(
+                decision(next.getId(), true))).get(0).getStatus());
+    }
+
+    @Test
+    @DisplayName("Создание бронирования, пересекающегося с подтвержденной бронью")
+    void createBooking_whenOverlapsApprovedBooking_thenBookingOverlapException() {
+        User user = userRepository.save(UserMapper.INSTANCE.toUser(userDto));
+        User otherUser = userRepository.save(UserMapper.INSTANCE.toUser(otherUserDto));
+        Item item = itemRepository.save(ItemMapper.INSTANCE.toItem(itemDto));
+        item.setUser(user);
+        bookingDto.setItemId(item.getId());
+        Booking booking = bookingRepository.save(BookingMapper.INSTANCE.toBooking(bookingDto));
+        booking.setItem(item);
+        booking.setBooker(otherUser);
+        booking.setStatus(BookingStatus.WAITING);
+        bookingService.approvingBooking(user.getId(), booking.getId(), true);
+
+        assertThrows(BookingOverlapException.class,
+                () -> bookingService.createBooking(otherUser.getId(), bookingDto));
+        nextBookingDto.setItemId(item.getId());
+        BookingReplyDto next = (BookingReplyDto) bookingService.createBooking(otherUser.getId(), nextBookingDto);
+        assertEquals("WAITING", next.getStatus());
+    }
+
     @Test
     @DisplayName("Одобрение бронирования, которое не находится в статусе ожидания")
     void approvingBooking_whenBookingStatusNotWaiting_thenException() {
@@ -172,7 +323,7 @@ class BookingServiceIntegrationTest {
         Booking booking = bookingRepository.save(BookingMapper.INSTANCE.toBooking(bookingDto));
         booking.setItem(item);
         booking.setBooker(otherUser);
-        booking.setStatus("REJECTED");
+        booking.setStatus(BookingStatus.REJECTED);
 
         assertThrows(HttpMessageNotReadableException.class,
                 () -> bookingService.approvingBooking(user.getId(), booking.getId(), true));
@@ -188,7 +339,7 @@ class BookingServiceIntegrationTest {
         Booking booking = bookingRepository.save(BookingMapper.INSTANCE.toBooking(bookingDto));
         booking.setItem(item);
         booking.setBooker(otherUser);
-        booking.setStatus("WAITING");
+        booking.setStatus(BookingStatus.WAITING);
 
         assertThrows(BookingNotFoundException.class,
                 () -> bookingService.approvingBooking(user.getId(), booking.getId(), true));
@@ -224,7 +375,7 @@ class BookingServiceIntegrationTest {
         Booking booking = bookingRepository.save(BookingMapper.INSTANCE.toBooking(bookingDto));
         booking.setItem(item);
         booking.setBooker(otherUser);
-        booking.setStatus("WAITING");
+        booking.setStatus(BookingStatus.WAITING);
 
         BookingDto bookingDto =
                 bookingService.getBooking(otherUser.getId(), booking.getId());
@@ -273,7 +424,7 @@ class BookingServiceIntegrationTest {
         Booking booking = bookingRepository.save(BookingMapper.INSTANCE.toBooking(bookingDto));
         booking.setItem(item);
         booking.setBooker(otherUser);
-        booking.setStatus("WAITING");
+        booking.setStatus(BookingStatus.WAITING);
         List<Booking> bookings = List.of(booking);
 
         List<BookingDto> bookingDtoList = bookingService.getUserAllBooking(otherUser.getId(), state, from, size);
@@ -306,7 +457,7 @@ class BookingServiceIntegrationTest {
         Booking booking = bookingRepository.save(BookingMapper.INSTANCE.toBooking(lastBookingDto));
         booking.setItem(item);
         booking.setBooker(otherUser);
-        booking.setStatus("WAITING");
+        booking.setStatus(BookingStatus.WAITING);
         List<Booking> bookings = List.of(booking);
 
         List<BookingDto> bookingDtoList = bookingService.getUserAllBooking(otherUser.getId(), state, from, size);
@@ -327,7 +478,7 @@ class BookingServiceIntegrationTest {
         Booking booking = bookingRepository.save(BookingMapper.INSTANCE.toBooking(nextBookingDto));
         booking.setItem(item);
         booking.setBooker(otherUser);
-        booking.setStatus("WAITING");
+        booking.setStatus(BookingStatus.WAITING);
         List<Booking> bookings = List.of(booking);
 
         List<BookingDto> bookingDtoList = bookingService.getUserAllBooking(otherUser.getId(), state, from, size);
@@ -348,7 +499,7 @@ class BookingServiceIntegrationTest {
         Booking booking = bookingRepository.save(BookingMapper.INSTANCE.toBooking(bookingDto));
         booking.setItem(item);
         booking.setBooker(otherUser);
-        booking.setStatus("WAITING");
+        booking.setStatus(BookingStatus.WAITING);
         List<Booking> bookings = List.of(booking);
 
         List<BookingDto> bookingDtoList = bookingService.getUserAllBooking(otherUser.getId(), state, from, size);
@@ -369,7 +520,7 @@ class BookingServiceIntegrationTest {
         Booking booking = bookingRepository.save(BookingMapper.INSTANCE.toBooking(bookingDto));
         booking.setItem(item);
         booking.setBooker(otherUser);
-        booking.setStatus("WAITING");
+        booking.setStatus(BookingStatus.WAITING);
         List<Booking> bookings = List.of(booking);
 
         List<BookingDto> bookingDtoList = bookingService.getUserAllBooking(otherUser.getId(), state, from, size);
@@ -390,7 +541,7 @@ class BookingServiceIntegrationTest {
         Booking booking = bookingRepository.save(BookingMapper.INSTANCE.toBooking(bookingDto));
         booking.setItem(item);
         booking.setBooker(otherUser);
-        booking.setStatus("WAITING");
+        booking.setStatus(BookingStatus.WAITING);
         List<Booking> bookings = List.of(booking);
 
         List<BookingDto> bookingDtoList = bookingService.getAllBookingByOwner(user.getId(), state, from, size);
@@ -423,7 +574,7 @@ class BookingServiceIntegrationTest {
         Booking booking = bookingRepository.save(BookingMapper.INSTANCE.toBooking(lastBookingDto));
         booking.setItem(item);
         booking.setBooker(otherUser);
-        booking.setStatus("WAITING");
+        booking.setStatus(BookingStatus.WAITING);
         List<Booking> bookings = List.of(booking);
 
         List<BookingDto> bookingDtoList = bookingService.getAllBookingByOwner(user.getId(), state, from, size);
@@ -444,7 +595,7 @@ class BookingServiceIntegrationTest {
         Booking booking = bookingRepository.save(BookingMapper.INSTANCE.toBooking(nextBookingDto));
         booking.setItem(item);
         booking.setBooker(otherUser);
-        booking.setStatus("WAITING");
+        booking.setStatus(BookingStatus.WAITING);
         List<Booking> bookings = List.of(booking);
 
         List<BookingDto> bookingDtoList = bookingService.getAllBookingByOwner(user.getId(), state, from, size);
@@ -465,7 +616,7 @@ class BookingServiceIntegrationTest {
         Booking booking = bookingRepository.save(BookingMapper.INSTANCE.toBooking(bookingDto));
         booking.setItem(item);
         booking.setBooker(otherUser);
-        booking.setStatus("WAITING");
+        booking.setStatus(BookingStatus.WAITING);
         List<Booking> bookings = List.of(booking);
 
         List<BookingDto> bookingDtoList = bookingService.getAllBookingByOwner(user.getId(), state, from, size);
@@ -486,7 +637,7 @@ class BookingServiceIntegrationTest {
         Booking booking = bookingRepository.save(BookingMapper.INSTANCE.toBooking(bookingDto));
         booking.setItem(item);
         booking.setBooker(otherUser);
-        booking.setStatus("WAITING");
+        booking.setStatus(BookingStatus.WAITING);
         List<Booking> bookings = List.of(booking);
 
         List<BookingDto> bookingDtoList = bookingService.getAllBookingByOwner(user.getId(), state, from, size);
@@ -518,4 +669,52 @@ class BookingServiceIntegrationTest {
 
         assertEquals(1, bookingDtoList.size());
     }
+
+    @Test
+    @DisplayName("Выгрузка всех бронирований владельцем вещи в NDJSON")
+    void exportAllBookingByOwner_whenUserExists_thenBookingsStreamed() throws IOException {
+        User user = userRepository.save(UserMapper.INSTANCE.toUser(userDto));
+        User otherUser = userRepository.save(UserMapper.INSTANCE.toUser(otherUserDto));
+        Item item = itemRepository.save(ItemMapper.INSTANCE.toItem(itemDto));
+        item.setUser(user);
+        for (BookingDto dto : List.of(bookingDto, lastBookingDto)) {
+            Booking booking = bookingRepository.save(BookingMapper.INSTANCE.toBooking(dto));
+            booking.setItem(item);
+            booking.setBooker(otherUser);
+            booking.setStatus(BookingStatus.WAITING);
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        bookingService.exportAllBookingByOwner(user.getId()).writeTo(out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(2, lines.length);
+        assertTrue(lines[0].startsWith("{") && lines[0].contains("\"status\":\"WAITING\""));
+    }
+
+    @Test
+    @DisplayName("Выгрузка бронирований несуществующим пользователем")
+    void exportAllBookingByOwner_whenUserNotExists_thenException() {
+        assertThrows(UserNotFoundException.class, () -> bookingService.exportAllBookingByOwner(99L));
+    }
+
+    private BookingServiceImpl otherInstance() {
+        return new BookingServiceImpl(bookingRepository, itemRepository, userRepository, ndjsonExporter,
+                new BookingIntervalIndex(bookingRepository, Duration.ofDays(30), 4));
+    }
+
+    private Booking saveBooking(BookingDto dto, Item item, User booker, BookingStatus status) {
+        Booking booking = bookingRepository.save(BookingMapper.INSTANCE.toBooking(dto));
+        booking.setItem(item);
+        booking.setBooker(booker);
+        booking.setStatus(status);
+        return booking;
+    }
+
+    private BookingDecisionDto decision(long bookingId, boolean approved) {
+        BookingDecisionDto decision = new BookingDecisionDto();
+        decision.setBookingId(bookingId);
+        decision.setApproved(approved);
+        return decision;
+    }
 }
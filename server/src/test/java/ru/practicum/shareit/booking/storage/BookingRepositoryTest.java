@@ -10,6 +10,8 @@ import org.springframework.test.annotation.DirtiesContext;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.mapper.BookingMapper;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingState;
+import ru.practicum.shareit.booking.model.BookingStatus;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.mapper.ItemMapper;
 import ru.practicum.shareit.item.model.Item;
@@ -66,26 +68,27 @@ class BookingRepositoryTest {
         booking = bookingRepository.save(BookingMapper.INSTANCE.toBooking(bookingDto));
         booking.setItem(item);
         booking.setBooker(otherUser);
-        booking.setStatus("APPROVED");
+        booking.setStatus(BookingStatus.APPROVED);
         lastBooking = bookingRepository.save(BookingMapper.INSTANCE.toBooking(bookingDto));
         lastBooking.setItem(item);
         lastBooking.setBooker(otherUser);
         lastBooking.setStart(LocalDateTime.now().minusMinutes(10));
         lastBooking.setEnd(LocalDateTime.now().minusMinutes(2));
-        lastBooking.setStatus("APPROVED");
+        lastBooking.setStatus(BookingStatus.APPROVED);
         nextBooking = bookingRepository.save(BookingMapper.INSTANCE.toBooking(bookingDto));
         nextBooking.setItem(item);
         nextBooking.setBooker(otherUser);
         nextBooking.setStart(LocalDateTime.now().plusMinutes(2));
         nextBooking.setEnd(LocalDateTime.now().plusMinutes(10));
-        nextBooking.setStatus("APPROVED");
+        nextBooking.setStatus(BookingStatus.APPROVED);
     }
 
     @Test
     @DisplayName("Получение всех бронирований пользователя в порядке убывания даты начала")
-    void findAllByBookerIdOrderByStartDateDesc() {
+    void findAllByBookerIdAndState_whenAll() {
         List<Booking> bookings = bookingRepository
-                .findAllByBookerIdOrderByStartDateDesc(otherUser.getId(), Pageable.ofSize(10)).getContent();
+                .findAllByBookerIdAndState(otherUser.getId(), BookingState.ALL, LocalDateTime.now(),
+                        Pageable.ofSize(10)).getContent();
 
         assertEquals(3, bookings.size());
         assertEquals(nextBooking, bookings.get(0));
@@ -96,9 +99,10 @@ class BookingRepositoryTest {
 
     @Test
     @DisplayName("Получение всех прошедших бронирований")
-    void findAllByBookerIdAndEndDateBefore() {
+    void findAllByBookerIdAndState_whenPast() {
         List<Booking> bookings = bookingRepository
-                .findAllByBookerIdAndEndDateBefore(otherUser.getId(), Pageable.ofSize(10)).getContent();
+                .findAllByBookerIdAndState(otherUser.getId(), BookingState.PAST, LocalDateTime.now(),
+                        Pageable.ofSize(10)).getContent();
 
         assertEquals(1, bookings.size());
         assertEquals(lastBooking, bookings.get(0));
@@ -106,9 +110,10 @@ class BookingRepositoryTest {
 
     @Test
     @DisplayName("Получение всех будущих бронирований")
-    void findAllByBookerIdAndStartDateAfter() {
+    void findAllByBookerIdAndState_whenFuture() {
         List<Booking> bookings = bookingRepository
-                .findAllByBookerIdAndStartDateAfter(otherUser.getId(), Pageable.ofSize(10)).getContent();
+                .findAllByBookerIdAndState(otherUser.getId(), BookingState.FUTURE, LocalDateTime.now(),
+                        Pageable.ofSize(10)).getContent();
 
         assertEquals(1, bookings.size());
         assertEquals(nextBooking, bookings.get(0));
@@ -116,9 +121,10 @@ class BookingRepositoryTest {
 
     @Test
     @DisplayName("Получение всех текущих бронирований")
-    void findAllByBookerIdAndDateBeforeAndDateAfter() {
+    void findAllByBookerIdAndState_whenCurrent() {
         List<Booking> bookings = bookingRepository
-                .findAllByBookerIdAndDateBeforeAndDateAfter(otherUser.getId(), Pageable.ofSize(10)).getContent();
+                .findAllByBookerIdAndState(otherUser.getId(), BookingState.CURRENT, LocalDateTime.now(),
+                        Pageable.ofSize(10)).getContent();
 
         assertEquals(1, bookings.size());
         assertEquals(booking, bookings.get(0));
@@ -126,9 +132,9 @@ class BookingRepositoryTest {
 
     @Test
     @DisplayName("Получение всех бронирований с определенным статусом")
-    void findAllByBookerIdAndStatusOrderByStartDateDesc() {
+    void findAllByBookerIdAndState_whenApproved() {
         List<Booking> bookings = bookingRepository
-                .findAllByBookerIdAndStatusOrderByStartDateDesc(otherUser.getId(), "APPROVED",
+                .findAllByBookerIdAndState(otherUser.getId(), BookingState.APPROVED, LocalDateTime.now(),
                         Pageable.ofSize(10)).getContent();
 
         assertEquals(3, bookings.size());
@@ -139,9 +145,10 @@ class BookingRepositoryTest {
 
     @Test
     @DisplayName("Получение всех бронирований владельцем вещи в порядке убывания даты начала")
-    void findAllByOwnerIdOrderByStartDateDesc() {
+    void findAllByOwnerIdAndState_whenAll() {
         List<Booking> bookings = bookingRepository
-                .findAllByOwnerIdOrderByStartDateDesc(user.getId(), Pageable.ofSize(10)).getContent();
+                .findAllByOwnerIdAndState(user.getId(), BookingState.ALL, LocalDateTime.now(),
+                        Pageable.ofSize(10)).getContent();
 
         assertEquals(3, bookings.size());
         assertEquals(nextBooking, bookings.get(0));
@@ -151,9 +158,10 @@ class BookingRepositoryTest {
 
     @Test
     @DisplayName("Получение всех прошедших бронирований владельцем вещи")
-    void findAllByOwnerIdAndEndDateBefore() {
+    void findAllByOwnerIdAndState_whenPast() {
         List<Booking> bookings = bookingRepository
-                .findAllByOwnerIdAndEndDateBefore(user.getId(), Pageable.ofSize(10)).getContent();
+                .findAllByOwnerIdAndState(user.getId(), BookingState.PAST, LocalDateTime.now(),
+                        Pageable.ofSize(10)).getContent();
 
         assertEquals(1, bookings.size());
         assertEquals(lastBooking, bookings.get(0));
@@ -161,9 +169,10 @@ class BookingRepositoryTest {
 
     @Test
     @DisplayName("Получение всех будущих бронирований владельцем вещи")
-    void findAllByOwnerIdAndStartDateAfter() {
+    void findAllByOwnerIdAndState_whenFuture() {
         List<Booking> bookings = bookingRepository
-                .findAllByOwnerIdAndStartDateAfter(user.getId(), Pageable.ofSize(10)).getContent();
+                .findAllByOwnerIdAndState(user.getId(), BookingState.FUTURE, LocalDateTime.now(),
+                        Pageable.ofSize(10)).getContent();
 
         assertEquals(1, bookings.size());
         assertEquals(nextBooking, bookings.get(0));
@@ -171,9 +180,10 @@ class BookingRepositoryTest {
 
     @Test
     @DisplayName("Получение всех текущих бронирований владельцем вещи")
-    void findAllByOwnerIdAndDateBeforeAndDateAfter() {
+    void findAllByOwnerIdAndState_whenCurrent() {
         List<Booking> bookings = bookingRepository
-                .findAllByOwnerIdAndDateBeforeAndDateAfter(user.getId(), Pageable.ofSize(10)).getContent();
+                .findAllByOwnerIdAndState(user.getId(), BookingState.CURRENT, LocalDateTime.now(),
+                        Pageable.ofSize(10)).getContent();
 
         assertEquals(1, bookings.size());
         assertEquals(booking, bookings.get(0));
@@ -181,9 +191,9 @@ class BookingRepositoryTest {
 
     @Test
     @DisplayName("Получение всех бронирований владельцем вещи с определенным статусом")
-    void findAllByOwnerIdAndStatusOrderByStartDateDesc() {
+    void findAllByOwnerIdAndState_whenApproved() {
         List<Booking> bookings = bookingRepository
-                .findAllByOwnerIdAndStatusOrderByStartDateDesc(user.getId(), "APPROVED",
+                .findAllByOwnerIdAndState(user.getId(), BookingState.APPROVED, LocalDateTime.now(),
                         Pageable.ofSize(10)).getContent();
 
         assertEquals(3, bookings.size());
@@ -193,21 +203,20 @@ class BookingRepositoryTest {
     }
 
     @Test
-    @DisplayName("Получение последнего бронирования вещи")
-    void findFirstByItemIdAndEndDateBefore() {
+    @DisplayName("Получение последнего бронирования для списка вещей")
+    void findLastBookingsByItemIds() {
         List<Booking> bookings = bookingRepository
-                .findFirstByItemIdAndEndDateBefore(item.getId());
+                .findLastBookingsByItemIds(List.of(item.getId()), LocalDateTime.now());
 
-        assertEquals(2, bookings.size());
+        assertEquals(1, bookings.size());
         assertEquals(booking, bookings.get(0));
-        assertEquals(lastBooking, bookings.get(1));
     }
 
     @Test
-    @DisplayName("Получение будущих бронирований со статусом APPROVED")
-    void findFirstByItemIdAndStartDateAfter() {
+    @DisplayName("Получение ближайшего бронирования со статусом APPROVED для списка вещей")
+    void findNextBookingsByItemIds() {
         List<Booking> bookings = bookingRepository
-                .findFirstByItemIdAndStartDateAfter(item.getId());
+                .findNextBookingsByItemIds(List.of(item.getId()), LocalDateTime.now());
 
         assertEquals(1, bookings.size());
         assertEquals(nextBooking, bookings.get(0));
@@ -226,4 +235,25 @@ class BookingRepositoryTest {
 
     }
 
+    @Test
+    @DisplayName("Получение бронирований пользователя постранично по курсору")
+    void findAllByBookerIdAndStateAfterCursor() {
+        LocalDateTime now = LocalDateTime.now();
+        List<Booking> firstPage = bookingRepository.findAllByBookerIdAndStateAfterCursor(
+                otherUser.getId(), BookingState.ALL, now, BookingCursor.first(), 2);
+        List<Booking> secondPage = bookingRepository.findAllByBookerIdAndStateAfterCursor(
+                otherUser.getId(), BookingState.ALL, now, BookingCursor.after(firstPage.get(1)), 2);
+
+        assertEquals(List.of(nextBooking, booking), firstPage);
+        assertEquals(List.of(lastBooking), secondPage);
+    }
+
+    @Test
+    @DisplayName("Получение прошедших бронирований владельцем вещи по курсору")
+    void findAllByOwnerIdAndStateAfterCursor_whenPast() {
+        List<Booking> bookings = bookingRepository.findAllByOwnerIdAndStateAfterCursor(
+                user.getId(), BookingState.PAST, LocalDateTime.now(), BookingCursor.first(), 10);
+
+        assertEquals(List.of(lastBooking), bookings);
+    }
 }
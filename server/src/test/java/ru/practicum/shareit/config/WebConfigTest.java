@@ -0,0 +1,144 @@
+package ru.practicum.shareit.config;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.exception.UserNotFoundException;
+import ru.practicum.shareit.user.UserController;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.service.UserService;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+@WebMvcTest(UserController.class)
+@Import(WebConfig.class)
+class WebConfigTest {
+
+    private static final MediaType SMILE = MediaType.parseMediaType("application/x-jackson-smile");
+    private static final MediaType CBOR = MediaType.parseMediaType("application/cbor");
+
+    private final ObjectMapper smileMapper = new ObjectMapper(new SmileFactory());
+    private final ObjectMapper cborMapper = new ObjectMapper(new CBORFactory());
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private UserService userService;
+
+    @BeforeEach
+    void setUp() {
+        UserDto userDto = new UserDto();
+        userDto.setId(1L);
+        userDto.setName("User");
+        userDto.setEmail("user@user.com");
+        when(userService.getUser(1L)).thenReturn(userDto);
+        when(userService.getUser(404L)).thenThrow(new UserNotFoundException("Пользователя с id 404 нет в базе"));
+    }
+
+    @SneakyThrows
+    @Test
+    @DisplayName("На Accept: application/x-jackson-smile сервер отвечает в Smile")
+    void getUser_whenAcceptSmile_thenSmileBody() {
+        MockHttpServletResponse response = getUser(1L, SMILE);
+
+        assertEquals(200, response.getStatus());
+        assertEquals(SMILE, MediaType.parseMediaType(response.getContentType()));
+        assertUser(smileMapper.readTree(response.getContentAsByteArray()));
+    }
+
+    @SneakyThrows
+    @Test
+    @DisplayName("На Accept: application/cbor сервер отвечает в CBOR")
+    void getUser_whenAcceptCbor_thenCborBody() {
+        MockHttpServletResponse response = getUser(1L, CBOR);
+
+        assertEquals(200, response.getStatus());
+        assertEquals(CBOR, MediaType.parseMediaType(response.getContentType()));
+        assertUser(cborMapper.readTree(response.getContentAsByteArray()));
+    }
+
+    @SneakyThrows
+    @Test
+    @DisplayName("ResponseError кодируется в формате из Accept")
+    void getUser_whenNotFoundAndAcceptBinary_thenErrorInRequestedFormat() {
+        MockHttpServletResponse smile = getUser(404L, SMILE);
+        MockHttpServletResponse cbor = getUser(404L, CBOR);
+
+        assertEquals(404, smile.getStatus());
+        assertEquals(SMILE, MediaType.parseMediaType(smile.getContentType()));
+        assertEquals("Пользователя с id 404 нет в базе",
+                smileMapper.readTree(smile.getContentAsByteArray()).get("error").asText());
+        assertEquals(404, cbor.getStatus());
+        assertEquals(CBOR, MediaType.parseMediaType(cbor.getContentType()));
+        assertEquals("Пользователя с id 404 нет в базе",
+                cborMapper.readTree(cbor.getContentAsByteArray()).get("error").asText());
+    }
+
+    @SneakyThrows
+    @Test
+    @DisplayName("Внешние клиенты без Accept и с Accept: application/json получают JSON")
+    void getUser_whenAcceptJsonOrMissing_thenJsonBody() {
+        MockHttpServletResponse json = getUser(1L, MediaType.APPLICATION_JSON);
+        MockHttpServletResponse any = mockMvc.perform(get("/users/{userId}", 1L)).andReturn().getResponse();
+        MockHttpServletResponse error = getUser(404L, MediaType.APPLICATION_JSON);
+
+        assertTrue(MediaType.APPLICATION_JSON.isCompatibleWith(MediaType.parseMediaType(json.getContentType())));
+        assertUser(objectMapper.readTree(json.getContentAsByteArray()));
+        assertTrue(MediaType.APPLICATION_JSON.isCompatibleWith(MediaType.parseMediaType(any.getContentType())));
+        assertUser(objectMapper.readTree(any.getContentAsByteArray()));
+        assertTrue(MediaType.APPLICATION_JSON.isCompatibleWith(MediaType.parseMediaType(error.getContentType())));
+        assertEquals("Пользователя с id 404 нет в базе",
+                objectMapper.readTree(error.getContentAsByteArray()).get("error").asText());
+    }
+
+    @SneakyThrows
+    @Test
+    @DisplayName("ETag считается по бинарному телу, и If-None-Match с ним дает 304")
+    void getUser_whenSmileETagMatches_thenNotModified() {
+        MockHttpServletResponse first = getUser(1L, SMILE);
+        String eTag = first.getHeader(HttpHeaders.ETAG);
+
+        MockHttpServletResponse second = mockMvc.perform(get("/users/{userId}", 1L)
+                        .accept(SMILE)
+                        .header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andReturn()
+                .getResponse();
+
+        assertNotNull(eTag);
+        assertNotEquals(getUser(1L, MediaType.APPLICATION_JSON).getHeader(HttpHeaders.ETAG), eTag);
+        assertEquals(304, second.getStatus());
+        assertEquals(0, second.getContentAsByteArray().length);
+    }
+
+    @SneakyThrows
+    private MockHttpServletResponse getUser(long userId, MediaType accept) {
+        return mockMvc.perform(get("/users/{userId}", userId).accept(accept))
+                .andReturn()
+                .getResponse();
+    }
+
+    private static void assertUser(JsonNode user) {
+        assertEquals(1L, user.get("id").asLong());
+        assertEquals("User", user.get("name").asText());
+        assertEquals("user@user.com", user.get("email").asText());
+    }
+}
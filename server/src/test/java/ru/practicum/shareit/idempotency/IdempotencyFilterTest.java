@@ -0,0 +1,166 @@
+package ru.practicum.shareit.idempotency;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.storage.ItemRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.storage.UserRepository;
+
+import javax.servlet.ReadListener;
+import javax.servlet.ServletInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+@AutoConfigureMockMvc
+@SpringBootTest(properties = "db.name=test")
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+class IdempotencyFilterTest {
+
+    private final MockMvc mockMvc;
+    private final ObjectMapper objectMapper;
+    private final UserRepository userRepository;
+    private final ItemRepository itemRepository;
+
+    private User owner;
+    private ItemDto itemDto;
+
+    @BeforeEach
+    void setUp() {
+        owner = userRepository.save(new User(null, "Owner", "owner@user.com"));
+        itemDto = new ItemDto();
+        itemDto.setName("Дрель");
+        itemDto.setDescription("Простая дрель");
+        itemDto.setAvailable(true);
+    }
+
+    @Test
+    @DisplayName("Повторный запрос с тем же ключом идемпотентности возвращает исходный ответ")
+    void createItem_whenRetriedWithSameKey_thenOriginalResponseReplayed() {
+        MockHttpServletResponse first = createItem("key-1", itemDto);
+        MockHttpServletResponse retry = createItem("key-1", itemDto);
+
+        assertEquals(200, first.getStatus());
+        assertEquals(200, retry.getStatus());
+        assertEquals(first.getContentAsString(), retry.getContentAsString());
+        assertNull(first.getHeader(IdempotencyFilter.IDEMPOTENT_REPLAYED_HEADER));
+        assertEquals("true", retry.getHeader(IdempotencyFilter.IDEMPOTENT_REPLAYED_HEADER));
+        assertEquals(1, itemRepository.count());
+    }
+
+    @Test
+    @DisplayName("Разные ключи идемпотентности создают разные вещи")
+    void createItem_whenDifferentKeys_thenItemsCreated() {
+        createItem("key-1", itemDto);
+        createItem("key-2", itemDto);
+
+        assertEquals(2, itemRepository.count());
+    }
+
+    @Test
+    @DisplayName("Ключ идемпотентности нельзя использовать для другого запроса")
+    void createItem_whenKeyReusedWithOtherBody_thenUnprocessableEntity() {
+        createItem("key-1", itemDto);
+        itemDto.setName("Дрель+");
+
+        MockHttpServletResponse response = createItem("key-1", itemDto);
+
+        assertEquals(422, response.getStatus());
+        assertEquals(1, itemRepository.count());
+    }
+
+    @Test
+    @DisplayName("Одновременные повторы ждут первого выполнения и не создают дубликатов")
+    void createItem_whenConcurrentDuplicates_thenSingleItemCreated() throws Exception {
+        int duplicates = 4;
+        ExecutorService executor = Executors.newFixedThreadPool(duplicates);
+        try {
+            List<Callable<MockHttpServletResponse>> calls = new ArrayList<>();
+            for (int i = 0; i < duplicates; i++) {
+                calls.add(() -> createItem("key-1", itemDto));
+            }
+            List<Future<MockHttpServletResponse>> responses = executor.invokeAll(calls);
+
+            String body = responses.get(0).get().getContentAsString();
+            for (Future<MockHttpServletResponse> response : responses) {
+                assertEquals(200, response.get().getStatus());
+                assertEquals(body, response.get().getContentAsString());
+            }
+            assertEquals(1, itemRepository.count());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("Сохраненное тело запроса отдается ReadListener сразу, без ожидания данных")
+    void cachedBodyRequest_whenReadListenerSet_thenBodyDeliveredAtOnce() throws IOException {
+        byte[] body = objectMapper.writeValueAsBytes(itemDto);
+        ByteArrayOutputStream read = new ByteArrayOutputStream();
+
+        List<String> events = readWithListener(body, read);
+
+        assertArrayEquals(body, read.toByteArray());
+        assertEquals(List.of("onDataAvailable", "onAllDataRead"), events);
+        assertEquals(List.of("onAllDataRead"), readWithListener(new byte[0], new ByteArrayOutputStream()));
+    }
+
+    private List<String> readWithListener(byte[] body, ByteArrayOutputStream read) throws IOException {
+        ServletInputStream in = new IdempotencyFilter.CachedBodyRequest(new MockHttpServletRequest(), body)
+                .getInputStream();
+        List<String> events = new ArrayList<>();
+        in.setReadListener(new ReadListener() {
+            @Override
+            public void onDataAvailable() throws IOException {
+                events.add("onDataAvailable");
+                while (in.isReady() && !in.isFinished()) {
+                    read.write(in.read());
+                }
+            }
+
+            @Override
+            public void onAllDataRead() {
+                events.add("onAllDataRead");
+            }
+
+            @Override
+            public void onError(Throwable t) {
+                events.add("onError");
+            }
+        });
+        return events;
+    }
+
+    @SneakyThrows
+    private MockHttpServletResponse createItem(String idempotencyKey, ItemDto item) {
+        return mockMvc.perform(post("/items")
+                        .header("X-Sharer-User-Id", owner.getId())
+                        .header(IdempotencyFilter.IDEMPOTENCY_KEY_HEADER, idempotencyKey)
+                        .content(objectMapper.writeValueAsString(item))
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andReturn()
+                .getResponse();
+    }
+}
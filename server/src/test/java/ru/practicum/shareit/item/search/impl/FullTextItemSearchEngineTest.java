@@ -0,0 +1,111 @@
+package ru.practicum.shareit.item.search.impl;
+
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.search.ItemSearchEngine;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.item.storage.ItemRepository;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.service.UserService;
+import ru.practicum.shareit.user.storage.UserRepository;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+
+/**
+ * Запускается только в профиле Maven {@code postgres}: {@code mvn test -Ppostgres}. Нужен Docker.
+ */
+@Tag("postgres")
+@Testcontainers
+@ActiveProfiles("postgres")
+@SpringBootTest(
+        properties = "shareit.search.engine=sql",
+        webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+class FullTextItemSearchEngineTest {
+
+    @Container
+    private static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:13.7-alpine");
+
+    private final ItemSearchEngine itemSearchEngine;
+    private final ItemService itemService;
+    private final UserService userService;
+    private final ItemRepository itemRepository;
+    private final UserRepository userRepository;
+
+    @DynamicPropertySource
+    static void datasourceProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", POSTGRES::getJdbcUrl);
+        registry.add("spring.datasource.username", POSTGRES::getUsername);
+        registry.add("spring.datasource.password", POSTGRES::getPassword);
+    }
+
+    @AfterEach
+    void tearDown() {
+        itemRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("Совпадение в названии выше совпадения в описании, подстрока находится через LIKE")
+    void searchItems_whenNameAndDescriptionMatch_thenNameRankedFirst() {
+        assertInstanceOf(FullTextItemSearchEngine.class, itemSearchEngine);
+        long userId = createUser("user@user.com");
+        ItemDto screwdriver = createItem(userId, "Шуруповерт", "Сверлит не хуже, чем дрель", true);
+        ItemDto drill = createItem(userId, "Дрель", "Простая ударная", true);
+        createItem(userId, "Дрель аккумуляторная", "Разряжена", false);
+
+        assertEquals(List.of(drill.getId(), screwdriver.getId()), ids(itemService.searchItems(userId, "ДРЕЛЬ", 0, 10)));
+        assertEquals(List.of(drill.getId(), screwdriver.getId()), ids(itemService.searchItems(userId, "рел", 0, 10)));
+        assertEquals(List.of(), ids(itemService.searchItems(userId, "нет такой вещи", 0, 10)));
+    }
+
+    @Test
+    @DisplayName("Поиск возвращает доступные вещи всех владельцев, а не только вещи пользователя")
+    void searchItems_whenItemsOfOtherOwners_thenAllAvailableReturned() {
+        long ownerId = createUser("owner@user.com");
+        long searcherId = createUser("searcher@user.com");
+        ItemDto ownerBrush = createItem(ownerId, "Щетка", "Для обуви", true);
+        ItemDto searcherBrush = createItem(searcherId, "Щетка", "Для одежды", true);
+
+        assertEquals(List.of(ownerBrush.getId(), searcherBrush.getId()),
+                ids(itemService.searchItems(searcherId, "щетка", 0, 10)));
+        assertEquals(List.of(searcherBrush.getId()), ids(itemService.searchItems(searcherId, "щетка", 1, 1)));
+    }
+
+    private long createUser(String email) {
+        UserDto userDto = new UserDto();
+        userDto.setName("User");
+        userDto.setEmail(email);
+        return userService.createUser(userDto).getId();
+    }
+
+    private ItemDto createItem(long userId, String name, String description, boolean available) {
+        ItemDto itemDto = new ItemDto();
+        itemDto.setName(name);
+        itemDto.setDescription(description);
+        itemDto.setAvailable(available);
+        return itemService.createItem(userId, itemDto);
+    }
+
+    private List<Long> ids(List<ItemDto> items) {
+        return items.stream()
+                .map(ItemDto::getId)
+                .collect(Collectors.toList());
+    }
+}
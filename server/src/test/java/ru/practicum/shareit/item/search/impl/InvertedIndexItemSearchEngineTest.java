@@ -0,0 +1,96 @@
+package ru.practicum.shareit.item.search.impl;
+
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.annotation.DirtiesContext;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.search.ItemSearchEngine;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.item.storage.ItemRepository;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.service.UserService;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+
+@SpringBootTest(
+        properties = {"db.name=test", "shareit.search.engine=index"},
+        webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+class InvertedIndexItemSearchEngineTest {
+
+    private static final List<String> QUERIES = List.of(
+            "дрель", "ДРЕЛЬ", "рел", "др", "щетка", "аккумулятор", "отвертка", "обув", "нет такой вещи", "а");
+
+    private final ItemSearchEngine itemSearchEngine;
+    private final ItemService itemService;
+    private final UserService userService;
+    private final ItemRepository itemRepository;
+
+    private long userId;
+
+    @BeforeEach
+    void setUp() {
+        UserDto userDto = new UserDto();
+        userDto.setName("User");
+        userDto.setEmail("user@user.com");
+        userId = userService.createUser(userDto).getId();
+    }
+
+    @Test
+    @DisplayName("Результаты индекса совпадают с SQL-поиском после создания и обновления вещей")
+    void search_whenItemsCreatedAndUpdated_thenSameResultsAsSqlEngine() {
+        assertInstanceOf(InvertedIndexItemSearchEngine.class, itemSearchEngine);
+        createItem("Дрель", "Простая дрель", true);
+        createItem("Дрель ударная", "Мощная дрель с аккумулятором", true);
+        ItemDto screwdriver = createItem("Отвертка", "Аккумуляторная отвертка", true);
+        createItem("Щетка", "Для обуви", false);
+        ItemDto brush = createItem("Щетка", "Для чистки обуви", true);
+
+        assertSameResults();
+
+        ItemDto update = new ItemDto();
+        update.setAvailable(false);
+        itemService.updateItem(userId, screwdriver.getId(), update);
+        update = new ItemDto();
+        update.setName("Обувная щетка");
+        itemService.updateItem(userId, brush.getId(), update);
+
+        assertSameResults();
+    }
+
+    private ItemDto createItem(String name, String description, boolean available) {
+        ItemDto itemDto = new ItemDto();
+        itemDto.setName(name);
+        itemDto.setDescription(description);
+        itemDto.setAvailable(available);
+        return itemService.createItem(userId, itemDto);
+    }
+
+    private void assertSameResults() {
+        LikeItemSearchEngine sqlEngine = new LikeItemSearchEngine(itemRepository);
+        for (String query : QUERIES) {
+            for (int page = 0; page < 3; page++) {
+                PageRequest pageable = PageRequest.of(page, 2);
+                assertEquals(ids(sqlEngine.search(query, pageable)), ids(itemSearchEngine.search(query, pageable)),
+                        String.format("Результаты поиска '%s' на странице %d не совпадают", query, page));
+            }
+        }
+    }
+
+    private List<Long> ids(List<Item> items) {
+        return items.stream()
+                .map(Item::getId)
+                .collect(Collectors.toList());
+    }
+}
@@ -7,6 +7,7 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import ru.practicum.shareit.booking.mapper.BookingMapper;
@@ -23,6 +24,7 @@ import ru.practicum.shareit.item.mapper.CommentMapper;
 import ru.practicum.shareit.item.mapper.ItemMapper;
 import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.search.ItemSearchEngine;
 import ru.practicum.shareit.item.storage.CommentRepository;
 import ru.practicum.shareit.item.storage.ItemRepository;
 import ru.practicum.shareit.user.dto.UserDto;
@@ -39,6 +41,7 @@ import java.util.Optional;
 import static org.assertj.core.api.AssertionsForClassTypes.assertThatThrownBy;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -54,6 +57,10 @@ class ItemServiceImplTest {
     private BookingRepository bookingRepository;
     @Mock
     private CommentRepository commentRepository;
+    @Mock
+    private ItemSearchEngine itemSearchEngine;
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
 
     private ItemDto itemDto;
     private ItemDto otherItemDto;
@@ -224,8 +231,10 @@ class ItemServiceImplTest {
 
         when(itemRepository.findById(itemId)).thenReturn(Optional.of(item));
         when(commentRepository.findAllByItemId(itemId)).thenReturn(List.of(comment));
-        when(bookingRepository.findFirstByItemIdAndEndDateBefore(itemId)).thenReturn(lastBookings);
-        when(bookingRepository.findFirstByItemIdAndStartDateAfter(itemId)).thenReturn(nextBookings);
+        when(bookingRepository.findLastBookingsByItemIds(eq(List.of(itemId)), any(LocalDateTime.class)))
+                .thenReturn(lastBookings);
+        when(bookingRepository.findNextBookingsByItemIds(eq(List.of(itemId)), any(LocalDateTime.class)))
+                .thenReturn(nextBookings);
 
         ItemOwnerDto itemOwnerDto = ItemMapper.INSTANCE.toItemOwnerDto(item);
         itemOwnerDto.setComments(List.of(commentDto));
@@ -247,8 +256,10 @@ class ItemServiceImplTest {
 
         verify(itemRepository, times(1)).findById(itemId);
         verify(commentRepository, times(1)).findAllByItemId(itemId);
-        verify(bookingRepository, times(1)).findFirstByItemIdAndEndDateBefore(itemId);
-        verify(bookingRepository, times(1)).findFirstByItemIdAndStartDateAfter(itemId);
+        verify(bookingRepository, times(1))
+                .findLastBookingsByItemIds(eq(List.of(itemId)), any(LocalDateTime.class));
+        verify(bookingRepository, times(1))
+                .findNextBookingsByItemIds(eq(List.of(itemId)), any(LocalDateTime.class));
 
     }
 
@@ -264,11 +275,14 @@ class ItemServiceImplTest {
         User user = new User(1L, "User", "user@user.ru");
         item.setUser(user);
         Comment comment = CommentMapper.INSTANCE.toComment(commentDto);
+        comment.setItem(item);
         List<Booking> lastBookings = new ArrayList<>();
         Booking lastBooking = new Booking();
+        lastBooking.setItem(item);
         lastBookings.add(lastBooking);
         List<Booking> nextBookings = new ArrayList<>();
         Booking nextBooking = new Booking();
+        nextBooking.setItem(item);
         nextBookings.add(nextBooking);
         List<Item> items = List.of(item);
         ItemOwnerDto itemOwnerDto = ItemMapper.INSTANCE.toItemOwnerDto(item);
@@ -280,9 +294,11 @@ class ItemServiceImplTest {
 
         when(itemRepository.findAllByUserIdOrderByIdAsc(userId, PageRequest.of(from, size)))
                 .thenReturn(new PageImpl<>(items));
-        when(commentRepository.findAllByItemId(itemId)).thenReturn(List.of(comment));
-        when(bookingRepository.findFirstByItemIdAndEndDateBefore(itemId)).thenReturn(lastBookings);
-        when(bookingRepository.findFirstByItemIdAndStartDateAfter(itemId)).thenReturn(nextBookings);
+        when(commentRepository.findAllByItemIdIn(List.of(itemId))).thenReturn(List.of(comment));
+        when(bookingRepository.findLastBookingsByItemIds(eq(List.of(itemId)), any(LocalDateTime.class)))
+                .thenReturn(lastBookings);
+        when(bookingRepository.findNextBookingsByItemIds(eq(List.of(itemId)), any(LocalDateTime.class)))
+                .thenReturn(nextBookings);
         when(userRepository.findById(userId)).thenReturn(Optional.of(user));
 
         List<ItemDto> listItems = itemService.getAllUserItems(userId, from, size);
@@ -290,12 +306,17 @@ class ItemServiceImplTest {
         assertEquals(itemDtos.size(), listItems.size(), "Размер  списков не совпадает.");
         assertEquals(itemDtos.get(0).getId(), listItems.get(0).getId(), "Вещи не совпадают.");
         assertEquals(itemDtos.get(0).getName(), listItems.get(0).getName(), "Вещи не совпадают.");
+        assertNotNull(((ItemOwnerDto) listItems.get(0)).getLastBooking());
+        assertNotNull(((ItemOwnerDto) listItems.get(0)).getNextBooking());
+        assertEquals(1, ((ItemOwnerDto) listItems.get(0)).getComments().size());
 
         verify(itemRepository, times(1))
                 .findAllByUserIdOrderByIdAsc(userId, PageRequest.of(from, size));
-        verify(commentRepository, times(1)).findAllByItemId(itemId);
-        verify(bookingRepository, times(1)).findFirstByItemIdAndEndDateBefore(itemId);
-        verify(bookingRepository, times(1)).findFirstByItemIdAndStartDateAfter(itemId);
+        verify(commentRepository, times(1)).findAllByItemIdIn(List.of(itemId));
+        verify(bookingRepository, times(1))
+                .findLastBookingsByItemIds(eq(List.of(itemId)), any(LocalDateTime.class));
+        verify(bookingRepository, times(1))
+                .findNextBookingsByItemIds(eq(List.of(itemId)), any(LocalDateTime.class));
         verify(userRepository, times(1)).findById(userId);
 
     }
@@ -327,8 +348,8 @@ class ItemServiceImplTest {
         item.setUser(new User(1L, "User", "user@user.ru"));
         List<Item> items = List.of(item);
 
-        when(itemRepository.findByUserAndNameOrDescription(userId, searchText, PageRequest.of(from, size)))
-                .thenReturn(new PageImpl<>(items));
+        when(itemSearchEngine.search(searchText, PageRequest.of(from, size)))
+                .thenReturn(items);
 
         List<ItemDto> actualItems = itemService.searchItems(userId, searchText, from, size);
 
@@ -337,8 +358,8 @@ class ItemServiceImplTest {
         assertEquals(items.get(0).getDescription(), actualItems.get(0).getDescription());
         assertEquals(items.get(0).getAvailable(), actualItems.get(0).getAvailable());
 
-        verify(itemRepository, times(1))
-                .findByUserAndNameOrDescription(userId, searchText, PageRequest.of(from, size));
+        verify(itemSearchEngine, times(1))
+                .search(searchText, PageRequest.of(from, size));
 
     }
 
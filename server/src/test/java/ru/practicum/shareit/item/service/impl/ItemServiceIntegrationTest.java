@@ -6,17 +6,21 @@ import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.converter.HttpMessageNotReadableException;
 import org.springframework.test.annotation.DirtiesContext;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.mapper.BookingMapper;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
 import ru.practicum.shareit.booking.storage.BookingRepository;
 import ru.practicum.shareit.exception.ItemBookerException;
 import ru.practicum.shareit.exception.ItemNotFoundException;
 import ru.practicum.shareit.exception.ItemOwnerException;
 import ru.practicum.shareit.exception.UserNotFoundException;
 import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemBulkResultDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemOwnerDto;
 import ru.practicum.shareit.item.mapper.CommentMapper;
@@ -33,6 +37,9 @@ import ru.practicum.shareit.user.mapper.UserMapper;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.storage.UserRepository;
 
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.util.List;
 
@@ -132,6 +139,84 @@ class ItemServiceIntegrationTest {
         assertEquals("Пользователя с id 10 нет в базе", e.getMessage());
     }
 
+    @Test
+    @DisplayName("Пакетное создание вещей с отчетом по каждому элементу")
+    void createItems_whenElementsAreMixed_thenReturnResultForEachElement() throws IOException {
+        long userId = userRepository.save(UserMapper.INSTANCE.toUser(userDto)).getId();
+        long requestId = requestRepository.save(ItemRequestMapper.INSTANCE.toItemRequest(requestDto)).getId();
+        String items = "["
+                + "{\"name\":\"Дрель\",\"description\":\"Простая дрель\",\"available\":true},"
+                + "{\"name\":\"\",\"description\":\"Без имени\",\"available\":true},"
+                + "{\"name\":\"Щётка\",\"description\":\"Для обуви\",\"available\":true,"
+                + "\"requestId\":" + requestId + "},"
+                + "{\"name\":\"Отвертка\",\"description\":\"Отвертка\",\"available\":true,\"requestId\":999},"
+                + "{\"name\":\"Пила\",\"description\":\"Пила\",\"available\":\"да\"}"
+                + "]";
+
+        List<ItemBulkResultDto> results = itemService.createItems(userId,
+                new ByteArrayInputStream(items.getBytes(StandardCharsets.UTF_8)));
+
+        assertEquals(5, results.size());
+        assertEquals(200, results.get(0).getStatus());
+        assertEquals(400, results.get(1).getStatus());
+        assertEquals("Поле name не может быть пустым", results.get(1).getError());
+        assertEquals(200, results.get(2).getStatus());
+        assertEquals(404, results.get(3).getStatus());
+        assertEquals("Запроса с id 999 нет в базе", results.get(3).getError());
+        assertEquals(400, results.get(4).getStatus());
+        assertEquals(2, itemRepository.findAllByUserIdOrderByIdAsc(userId, PageRequest.of(0, 10))
+                .getTotalElements());
+        assertEquals(requestId, itemRepository.findById(results.get(2).getId()).orElseThrow()
+                .getRequest().getId());
+    }
+
+    @Test
+    @DisplayName("Пакетное создание вещей если массив оборван на середине элемента")
+    void createItems_whenArrayIsTruncated_thenReturnReadResultsAndError() throws IOException {
+        long userId = userRepository.save(UserMapper.INSTANCE.toUser(userDto)).getId();
+        String items = "["
+                + "{\"name\":\"Дрель\",\"description\":\"Простая дрель\",\"available\":true},"
+                + "{\"name\":\"\",\"description\":\"Без имени\",\"available\":true},"
+                + "{\"name\":\"Щётка\",\"descr";
+
+        List<ItemBulkResultDto> results = itemService.createItems(userId,
+                new ByteArrayInputStream(items.getBytes(StandardCharsets.UTF_8)));
+
+        assertEquals(3, results.size());
+        assertEquals(200, results.get(0).getStatus());
+        assertEquals(400, results.get(1).getStatus());
+        assertEquals(2, results.get(2).getIndex());
+        assertEquals(400, results.get(2).getStatus());
+        assertTrue(results.get(2).getError().startsWith("Некорректный JSON-массив вещей"));
+        assertEquals(1, itemRepository.findAllByUserIdOrderByIdAsc(userId, PageRequest.of(0, 10))
+                .getTotalElements());
+    }
+
+    @Test
+    @DisplayName("Пакетное создание вещей если массив не закрыт")
+    void createItems_whenArrayIsNotClosed_thenReturnReadResultsAndError() throws IOException {
+        long userId = userRepository.save(UserMapper.INSTANCE.toUser(userDto)).getId();
+        String items = "[{\"name\":\"Дрель\",\"description\":\"Простая дрель\",\"available\":true}";
+
+        List<ItemBulkResultDto> results = itemService.createItems(userId,
+                new ByteArrayInputStream(items.getBytes(StandardCharsets.UTF_8)));
+
+        assertEquals(2, results.size());
+        assertEquals(200, results.get(0).getStatus());
+        assertEquals(1, results.get(1).getIndex());
+        assertEquals(400, results.get(1).getStatus());
+        assertTrue(results.get(1).getError().startsWith("Некорректный JSON-массив вещей"));
+    }
+
+    @Test
+    @DisplayName("Пакетное создание вещей если тело не JSON-массив")
+    void createItems_whenBodyIsNotArray_thenThrowHttpMessageNotReadableException() {
+        long userId = userRepository.save(UserMapper.INSTANCE.toUser(userDto)).getId();
+
+        assertThrows(HttpMessageNotReadableException.class, () -> itemService.createItems(userId,
+                new ByteArrayInputStream("{}".getBytes(StandardCharsets.UTF_8))));
+    }
+
 
     @Test
     @DisplayName("Обновление вещи")
@@ -276,7 +361,7 @@ class ItemServiceIntegrationTest {
         Booking lastBooking = bookingRepository.save(BookingMapper.INSTANCE.toBooking(lastBookingDto));
         lastBooking.setBooker(otherUser);
         lastBooking.setItem(item);
-        lastBooking.setStatus("APPROVED");
+        lastBooking.setStatus(BookingStatus.APPROVED);
         bookingRepository.saveAndFlush(lastBooking);
 
         BookingDto nextBookingDto = new BookingDto();
@@ -285,7 +370,7 @@ class ItemServiceIntegrationTest {
         Booking nextBooking = bookingRepository.save(BookingMapper.INSTANCE.toBooking(nextBookingDto));
         nextBooking.setBooker(otherUser);
         nextBooking.setItem(item);
-        nextBooking.setStatus("APPROVED");
+        nextBooking.setStatus(BookingStatus.APPROVED);
         bookingRepository.saveAndFlush(nextBooking);
 
         ItemOwnerDto actualItem = (ItemOwnerDto) itemService.getItem(item.getId(), userId);
@@ -379,7 +464,7 @@ class ItemServiceIntegrationTest {
         Booking booking = bookingRepository.save(BookingMapper.INSTANCE.toBooking(bookingDto));
         booking.setBooker(otherUser);
         booking.setItem(item);
-        booking.setStatus("APPROVED");
+        booking.setStatus(BookingStatus.APPROVED);
         bookingRepository.saveAndFlush(booking);
 
         CommentDto actualComment =
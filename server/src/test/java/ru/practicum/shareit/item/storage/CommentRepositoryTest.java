@@ -43,4 +43,24 @@ class CommentRepositoryTest {
         assertEquals(comment.getAuthor(), comments.get(0).getAuthor());
         assertEquals(comment.getCreated(), comments.get(0).getCreated());
     }
+
+    @Test
+    @DisplayName("Получение списка коментов для нескольких вещей")
+    void findAllByItemIdIn() {
+        User user = userRepository.save(new User(1L, "User", "user@user.com"));
+        Item item = itemRepository.save(
+                new Item(1L, "Item", "Description", true, user, null));
+        Item otherItem = itemRepository.save(
+                new Item(2L, "Other item", "Description", true, user, null));
+        Comment comment = repository.save(new Comment(1L, "Text", item, user, LocalDateTime.now()));
+        Comment otherComment = repository.save(new Comment(2L, "Other text", otherItem, user,
+                LocalDateTime.now().plusSeconds(1)));
+
+        List<Comment> comments = repository.findAllByItemIdIn(List.of(item.getId(), otherItem.getId()));
+
+        assertEquals(2, comments.size());
+        assertEquals(comment.getText(), comments.get(0).getText());
+        assertEquals(otherComment.getText(), comments.get(1).getText());
+        assertEquals(user.getName(), comments.get(1).getAuthor().getName());
+    }
 }
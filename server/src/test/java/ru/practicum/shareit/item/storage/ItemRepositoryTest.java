@@ -66,15 +66,26 @@ class ItemRepositoryTest {
 
     @Test
     @DisplayName("Получение списка вещей по поисковой строке")
-    void findByUserAndNameOrDescription() {
+    void searchAvailableByText() {
         String searchText = "дРелЬ";
         List<Item> items = itemRepository
-                .findByUserAndNameOrDescription(1L, searchText, Pageable.ofSize(2)).getContent();
+                .searchAvailableByText(searchText, Pageable.ofSize(2));
 
         assertEquals(1, items.size());
         assertEquals(item, items.get(0));
     }
 
+    @Test
+    @DisplayName("Поиск не возвращает недоступные вещи")
+    void searchAvailableByText_whenItemNotAvailable_thenNotFound() {
+        item.setAvailable(false);
+
+        List<Item> items = itemRepository
+                .searchAvailableByText("дрель", Pageable.ofSize(2));
+
+        assertEquals(0, items.size());
+    }
+
     @Test
     @DisplayName("Получение списка вещей по ID")
     void findAllByRequestId() {
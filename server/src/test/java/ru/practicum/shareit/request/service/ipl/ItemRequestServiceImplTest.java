@@ -87,17 +87,19 @@ class ItemRequestServiceImplTest {
         request.setRequestor(requestor);
         request.setId(1L);
         List<ItemRequest> requests = List.of(request);
+        item.setRequest(request);
         List<Item> items = List.of(item);
         when(userRepository.findById(requestor.getId())).thenReturn(Optional.of(requestor));
-        when(itemRepository.findAllByRequestId(request.getId())).thenReturn(items);
+        when(itemRepository.findAllByRequestIdIn(List.of(request.getId()))).thenReturn(items);
         when(requestRepository.getAllByRequestorId(requestor.getId())).thenReturn(requests);
 
         List<ItemRequestDto> requestDtos = requestService.getAllUserItemsRequests(requestor.getId());
 
         assertEquals(requests.size(), requestDtos.size());
         assertEquals(requests.get(0).getDescription(), requestDtos.get(0).getDescription());
+        assertEquals(items.size(), requestDtos.get(0).getItems().size());
         verify(userRepository, times(1)).findById(anyLong());
-        verify(itemRepository, times(1)).findAllByRequestId(anyLong());
+        verify(itemRepository, times(1)).findAllByRequestIdIn(anyCollection());
         verify(requestRepository, times(1)).getAllByRequestorId(anyLong());
     }
 
@@ -120,17 +122,19 @@ class ItemRequestServiceImplTest {
         request.setRequestor(requestor);
         request.setId(1L);
         List<ItemRequest> requests = List.of(request);
+        item.setRequest(request);
         List<Item> items = List.of(item);
         when(userRepository.findById(user.getId())).thenReturn(Optional.of(user));
-        when(itemRepository.findAllByRequestId(request.getId())).thenReturn(items);
+        when(itemRepository.findAllByRequestIdIn(List.of(request.getId()))).thenReturn(items);
         when(requestRepository.findAllItems(user.getId(), pageable)).thenReturn(requests);
 
         List<ItemRequestDto> requestDtos = requestService.getAllItems(user.getId(), from, size);
 
         assertEquals(requests.size(), requestDtos.size());
         assertEquals(requests.get(0).getDescription(), requestDtos.get(0).getDescription());
+        assertEquals(items.size(), requestDtos.get(0).getItems().size());
         verify(userRepository, times(1)).findById(anyLong());
-        verify(itemRepository, times(1)).findAllByRequestId(anyLong());
+        verify(itemRepository, times(1)).findAllByRequestIdIn(anyCollection());
         verify(requestRepository, times(1)).findAllItems(user.getId(), pageable);
     }
 
@@ -1,6 +1,8 @@
 package ru.practicum.shareit.request.service.ipl;
 
 import lombok.RequiredArgsConstructor;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -23,13 +25,15 @@ import ru.practicum.shareit.user.mapper.UserMapper;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.storage.UserRepository;
 
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
 
 @Transactional
 @SpringBootTest(
-        properties = "db.name=test",
+        properties = {"db.name=test", "spring.jpa.properties.hibernate.generate_statistics=true"},
         webEnvironment = SpringBootTest.WebEnvironment.NONE)
 @RequiredArgsConstructor(onConstructor_ = @Autowired)
 @DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
@@ -39,6 +43,8 @@ class ItemRequestServiceIntegrationTest {
     private final ItemRequestRepository requestRepository;
     private final UserRepository userRepository;
     private final ItemRepository itemRepository;
+    private final EntityManager entityManager;
+    private final EntityManagerFactory entityManagerFactory;
 
     private UserDto requestorDto;
     private UserDto userDto;
@@ -124,6 +130,32 @@ class ItemRequestServiceIntegrationTest {
         assertEquals(requests.get(0).getDescription(), actualList.get(0).getDescription());
     }
 
+    @Test
+    @DisplayName("Число запросов к базе при получении списка запросов не зависит от размера страницы")
+    void getAllItems_whenPageSizeGrows_thenQueryCountStaysTheSame() {
+        User user = userRepository.save(UserMapper.INSTANCE.toUser(userDto));
+        User requestor = userRepository.save(UserMapper.INSTANCE.toUser(requestorDto));
+        for (int i = 0; i < 6; i++) {
+            ItemRequest request = requestRepository.save(ItemRequestMapper.INSTANCE.toItemRequest(requestDto));
+            request.setRequestor(requestor);
+            for (int j = 0; j < 2; j++) {
+                Item item = itemRepository.save(ItemMapper.INSTANCE.toItem(itemDto));
+                item.setUser(user);
+                item.setRequest(request);
+            }
+        }
+        entityManager.flush();
+
+        long smallPageQueries = countQueries(() -> requestService.getAllItems(user.getId(), 0, 2));
+        long fullPageQueries = countQueries(() -> {
+            List<ItemRequestDto> actualList = requestService.getAllItems(user.getId(), 0, 6);
+            assertEquals(6, actualList.size());
+            actualList.forEach(itemRequestDto -> assertEquals(2, itemRequestDto.getItems().size()));
+        });
+
+        assertEquals(smallPageQueries, fullPageQueries);
+    }
+
     @Test
     @DisplayName("Получение списка запросов, когда пользователя не существует")
     void getAllItems_whenUserDoesNotExist_thenException() {
@@ -165,4 +197,12 @@ class ItemRequestServiceIntegrationTest {
         assertThrows(ItemNotFoundException.class,
                 () -> requestService.getItemRequest(requestor.getId(), 1L));
     }
+
+    private long countQueries(Runnable action) {
+        entityManager.clear();
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        action.run();
+        return statistics.getPrepareStatementCount();
+    }
 }
@@ -8,8 +8,11 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.config.WebConfig;
 import ru.practicum.shareit.exception.UserEmailAlreadyExistException;
 import ru.practicum.shareit.exception.UserNotFoundException;
 import ru.practicum.shareit.user.dto.UserDto;
@@ -23,11 +26,13 @@ import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 
 @WebMvcTest(UserController.class)
+@Import(WebConfig.class)
 class UserControllerTest {
 
     @Autowired
@@ -154,6 +159,23 @@ class UserControllerTest {
         verify(userService).getUser(userId);
     }
 
+    @SneakyThrows
+    @Test
+    @DisplayName("Получение пользователя с If-None-Match, когда пользователь не изменился")
+    public void getUser_whenETagMatches_thenNotModified() {
+        final Long userId = 1L;
+        when(userService.getUser(userId)).thenReturn(makeUserDto(userId, userDto.getName(), userDto.getEmail()));
+
+        String eTag = mockMvc.perform(get("/users/{userId}", userId))
+                .andExpect(status().isOk())
+                .andExpect(header().exists(HttpHeaders.ETAG))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(get("/users/{userId}", userId)
+                        .header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isNotModified());
+    }
+
     @SneakyThrows
     @Test
     @DisplayName("Получение несуществующего пользователя")